@@ -57,6 +57,24 @@ public class User implements Serializable {
         this.type = type;
     }
 
+    /**
+     * Constructor of a saved User Object.
+     *
+     * @param id {Integer} The mysql auto incremented id.
+     * @param username {String} The user's unique username for logging into the system.
+     * @param password {String} The user's encrypted password.
+     * @param type {String} The user's type (e.g. admin/user etc).
+     */
+    public User(
+            Integer id,
+            String username,
+            String password,
+            String type
+    ) {
+        this(username, password, type);
+        this.id = id;
+    }
+
     /**
      * Returns the mysql auto incremented id.
      *
@@ -1,11 +1,18 @@
 package com.oliver.util;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Currency;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 
 public class CurrencyUtil {
+    /**
+     * Number of fraction digits used for currencies without a default one.
+     */
+    private static final int DEFAULT_FRACTION_DIGITS = 2;
+
     private static Map<String, String> currencies = getAvailableCurrencies();
 
     /**
@@ -19,6 +26,57 @@ public class CurrencyUtil {
         return currencies.get(country);
     }
 
+    /**
+     * Returns the number of fraction digits of the given currency.
+     * (e.g. 2 for CHF, 0 for JPY)
+     *
+     * @param currencyCode {String} An ISO 4217 currency code.
+     *
+     * @return {int} Returns the number of fraction digits of the currency.
+     */
+    public static int getFractionDigits(String currencyCode) {
+        if (currencyCode == null) {
+            return DEFAULT_FRACTION_DIGITS;
+        }
+
+        try {
+            int fractionDigits = Currency.getInstance(currencyCode).getDefaultFractionDigits();
+            return fractionDigits >= 0 ? fractionDigits : DEFAULT_FRACTION_DIGITS;
+        } catch (IllegalArgumentException e) {
+            return DEFAULT_FRACTION_DIGITS;
+        }
+    }
+
+    /**
+     * Converts the given amount to minor units of the currency,
+     * rounding half even. (e.g. CHF 75.5 to 7550)
+     *
+     * @param amount {BigDecimal} An amount in major units.
+     * @param currencyCode {String} An ISO 4217 currency code.
+     *
+     * @return {long} Returns the amount in minor units.
+     * @throws ArithmeticException Throws ArithmeticException if the amount does not fit in a long.
+     */
+    public static long toMinorUnits(BigDecimal amount, String currencyCode) {
+        return amount
+                .setScale(getFractionDigits(currencyCode), RoundingMode.HALF_EVEN)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /**
+     * Converts the given minor units of the currency to an amount.
+     * (e.g. 7550 CHF to 75.50)
+     *
+     * @param minorUnits {long} An amount in minor units.
+     * @param currencyCode {String} An ISO 4217 currency code.
+     *
+     * @return {BigDecimal} Returns the amount in major units.
+     */
+    public static BigDecimal toMajorUnits(long minorUnits, String currencyCode) {
+        return BigDecimal.valueOf(minorUnits, getFractionDigits(currencyCode));
+    }
+
     /**
      * Collects all available currencies code from all
      * available locales information.
@@ -1,11 +1,16 @@
 package com.oliver.util;
 
+import com.oliver.util.cache.LocalCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.DefaultClaims;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.UUID;
 
 import static com.oliver.configuration.constant.JWT_EXPIRATION_TIME;
@@ -13,8 +18,26 @@ import static com.oliver.configuration.constant.JWT_KEY;
 
 /**
  * JWT util class
+ * <p>
+ * Parsed JWTs are kept until they expire, so a JWT sent with
+ * many requests is only verified once.  The claims of a cached JWT are
+ * shared by all of its requests, so they are returned read-only.
  */
 public class JWTUtil {
+    /**
+     * Maximum number of verified JWTs kept by {@link #parseJWT(String)}.
+     */
+    private static final int VERIFIED_JWT_CACHE_SIZE = 10000;
+
+    /**
+     * Claims of verified JWTs keyed by the JWT string.  Lookups compare
+     * the whole string, so a hash collision cannot return another JWT's claims.
+     */
+    private static final LocalCache<String, VerifiedJWT> verifiedJWTs =
+            new LocalCache<>(VERIFIED_JWT_CACHE_SIZE);
+
+    private static volatile SigningKeyParser signingKeyParser;
+
     /**
      * Creates JWT with given subject.
      *
@@ -61,15 +84,80 @@ public class JWTUtil {
     }
 
     /**
-     * Parses the given JWT.
+     * Parses the given JWT, verifying its signature unless it has been
+     * verified before and has not expired since.
      *
      * @param jwt A JWT needed to be parsed.
-     * @return Returns the body of the given JWT.
+     * @return Returns the body of the given JWT, which cannot be modified.
      */
     public static Claims parseJWT(String jwt) {
-        return Jwts.parser()
-                .setSigningKey(JWT_KEY)
-                .parseClaimsJws(jwt)
-                .getBody();
+        JwtParser parser = getParser();
+
+        VerifiedJWT verifiedJWT = verifiedJWTs.get(jwt);
+        if (verifiedJWT != null) {
+            if (!verifiedJWT.isExpired(System.currentTimeMillis())) {
+                return verifiedJWT.claims;
+            }
+
+            // Parsing again reports the expiration.
+            verifiedJWTs.invalidate(jwt);
+        }
+
+        verifiedJWT = new VerifiedJWT(parser.parseClaimsJws(jwt).getBody());
+        verifiedJWTs.put(jwt, verifiedJWT);
+        return verifiedJWT.claims;
+    }
+
+    /**
+     * Returns a parser of the current signing key.  Parsers are built once,
+     * and verified JWTs are dropped if the signing key changes.
+     */
+    private static JwtParser getParser() {
+        SigningKeyParser current = signingKeyParser;
+        if (current == null || !current.signingKey.equals(JWT_KEY)) {
+            current = new SigningKeyParser(JWT_KEY);
+            signingKeyParser = current;
+            verifiedJWTs.invalidateAll();
+        }
+
+        return current.parser;
+    }
+
+    /**
+     * A parser together with the signing key it verifies.
+     */
+    private static class SigningKeyParser {
+        private final String signingKey;
+
+        private final JwtParser parser;
+
+        private SigningKeyParser(String signingKey) {
+            this.signingKey = signingKey;
+            this.parser = Jwts.parser().setSigningKey(signingKey);
+        }
+    }
+
+    /**
+     * Claims of a JWT whose signature has been verified.
+     */
+    private static class VerifiedJWT {
+        /**
+         * A read-only copy of the claims, setters throw UnsupportedOperationException.
+         */
+        private final Claims claims;
+
+        /**
+         * Expiration time of the JWT in epoch millis, or 0 if it never expires.
+         */
+        private final long expirationMillis;
+
+        private VerifiedJWT(Claims claims) {
+            this.claims = new DefaultClaims(Collections.unmodifiableMap(new LinkedHashMap<>(claims)));
+            this.expirationMillis = claims.getExpiration() == null ? 0 : claims.getExpiration().getTime();
+        }
+
+        private boolean isExpired(long nowMillis) {
+            return expirationMillis != 0 && nowMillis >= expirationMillis;
+        }
     }
 }
@@ -21,6 +21,6 @@ public class SystemMenuResourceStringCreator {
      * @return Returns a resource string of getting account info by user.
      */
     public static String getAccountInformationResourceString(String accountNumber) {
-        return String.format("/account/%s", accountNumber);
+        return "/account/" + accountNumber;
     }
 }
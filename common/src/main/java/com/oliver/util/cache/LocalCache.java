@@ -0,0 +1,233 @@
+package com.oliver.util.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe in-process cache bounded by size.
+ * <p>
+ * The least recently used entry is evicted once the cache is full.
+ * Entries can also expire a fixed time after they are written.
+ * <p>
+ * Large caches are split into segments by key hash, each with its own
+ * lock, so lookups of different keys rarely wait for each other.  Each
+ * segment evicts its own least recently used entry, so eviction of a
+ * segmented cache is close to, but not exactly, least recently used.
+ *
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ */
+public class LocalCache<K, V> {
+    /**
+     * Maximum number of segments.
+     */
+    private static final int MAXIMUM_SEGMENT_COUNT = 16;
+
+    /**
+     * Minimum number of entries of a segment, smaller caches are not split.
+     */
+    private static final int MINIMUM_SEGMENT_SIZE = 64;
+
+    /**
+     * Time in milliseconds an entry lives after it is written,
+     * entries never expire if it is not positive.
+     */
+    private final long expireAfterWriteMillis;
+
+    /**
+     * Segments of the cache, their number is a power of two.
+     */
+    private final Segment<K, V>[] segments;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Creates a cache bounded by size whose entries never expire.
+     *
+     * @param maximumSize {int} Maximum number of entries.
+     */
+    public LocalCache(int maximumSize) {
+        this(maximumSize, 0);
+    }
+
+    /**
+     * Creates a cache bounded by size whose entries expire after being written.
+     *
+     * @param maximumSize {int} Maximum number of entries.
+     * @param expireAfterWriteMillis {long} Time in milliseconds an entry lives
+     *                               after it is written.
+     */
+    @SuppressWarnings("unchecked")
+    public LocalCache(int maximumSize, long expireAfterWriteMillis) {
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+
+        int segmentCount = 1;
+        while (segmentCount < MAXIMUM_SEGMENT_COUNT &&
+                maximumSize / (segmentCount * 2) >= MINIMUM_SEGMENT_SIZE) {
+            segmentCount *= 2;
+        }
+
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int segmentSize = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            this.segments[i] = new Segment<>(segmentSize);
+        }
+    }
+
+    /**
+     * Attempts to retrieve a value by the given key.
+     *
+     * @param key {K} The key of the value.
+     *
+     * @return {V} Returns the value, or null if it is not cached or has expired.
+     */
+    public V get(K key) {
+        CacheEntry<V> entry = segmentFor(key).get(key, System.currentTimeMillis());
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+
+        hitCount.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Stores the given value with the default expiration time.
+     *
+     * @param key {K} The key of the value.
+     * @param value {V} A value needed to be stored.
+     */
+    public void put(K key, V value) {
+        long expiresAt = expireAfterWriteMillis > 0 ?
+                System.currentTimeMillis() + expireAfterWriteMillis :
+                Long.MAX_VALUE;
+        segmentFor(key).put(key, new CacheEntry<>(value, expiresAt));
+    }
+
+    /**
+     * Removes the value of the given key.
+     *
+     * @param key {K} The key of the value needed to be removed.
+     */
+    public void invalidate(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Returns the number of cached entries, including expired ones not yet removed.
+     *
+     * @return {int} Returns the number of cached entries.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns the number of lookups that found a value.
+     *
+     * @return {long} Returns the number of cache hits.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of lookups that found no value.
+     *
+     * @return {long} Returns the number of cache misses.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key == null ? 0 : key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * A part of the cache guarded by its own lock.
+     */
+    private static class Segment<K, V> {
+        /**
+         * Entries in access order, the eldest entry is the least recently used one.
+         */
+        private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+        private Segment(int maximumSize) {
+            this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+                private static final long serialVersionUID = 2873340316418373203L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                    return size() > maximumSize;
+                }
+            };
+        }
+
+        /**
+         * Returns the entry of the given key, removing it if it has expired.
+         */
+        private synchronized CacheEntry<V> get(K key, long now) {
+            CacheEntry<V> entry = entries.get(key);
+            if (entry != null && entry.isExpired(now)) {
+                entries.remove(key);
+                return null;
+            }
+
+            return entry;
+        }
+
+        private synchronized void put(K key, CacheEntry<V> entry) {
+            entries.put(key, entry);
+        }
+
+        private synchronized void remove(K key) {
+            entries.remove(key);
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+    }
+
+    /**
+     * A cached value with its expiration time.
+     */
+    private static class CacheEntry<V> {
+        private final V value;
+
+        private final long expiresAt;
+
+        private CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -53,6 +53,26 @@ public class RedisCache {
         return redisTemplate.delete(key);
     }
 
+    /**
+     * Attempts to publish a message to the subscribers of a channel.
+     *
+     * @param channel {String} The channel to publish to.
+     * @param message {Object} The message, serialized like stored values.
+     */
+    public void publish(final String channel, final Object message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
+    /**
+     * Deserializes the body of a message received from a channel.
+     *
+     * @param body {byte[]} The body of a message published by {@link #publish(String, Object)}.
+     * @return {T} The published message.
+     */
+    public <T> T deserializeMessage(final byte[] body) {
+        return (T) redisTemplate.getValueSerializer().deserialize(body);
+    }
+
     @Autowired
     public void setRedisTemplate(RedisTemplate redisTemplate) {
         this.redisTemplate = redisTemplate;
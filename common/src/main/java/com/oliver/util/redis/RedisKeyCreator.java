@@ -26,4 +26,26 @@ public class RedisKeyCreator {
     public static String createLoginUserJWTKey(String userId) {
         return String.format("logged-in user's jwt: %s", userId);
     }
+
+    /**
+     * Create an account's redis key.
+     *
+     * @param iban {String} Account's iban.
+     *
+     * @return {String} Returns an account's redis key.
+     */
+    public static String createAccountKey(String iban) {
+        return String.format("account: %s", iban);
+    }
+
+    /**
+     * Create the redis key of an account's recent write marker.
+     *
+     * @param iban {String} Account's iban.
+     *
+     * @return {String} Returns the redis key of an account's recent write marker.
+     */
+    public static String createRecentWriteKey(String iban) {
+        return String.format("account's recent write: %s", iban);
+    }
 }
@@ -3,6 +3,8 @@ package com.oliver.util;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+
 public class CurrencyUtilTest {
     @Test
     public void getCurrencyCodeByCountryTest() {
@@ -15,4 +17,23 @@ public class CurrencyUtilTest {
                 CurrencyUtil.getCurrencyCodeByCountry("invalid-country");
         Assertions.assertNull(invalidCurrency);
     }
+
+    @Test
+    public void toMinorUnitsTest() {
+        Assertions.assertEquals(7550, CurrencyUtil.toMinorUnits(new BigDecimal("75.5"), "CHF"));
+        Assertions.assertEquals(-7550, CurrencyUtil.toMinorUnits(new BigDecimal("-75.50"), "CHF"));
+        Assertions.assertEquals(76, CurrencyUtil.toMinorUnits(new BigDecimal("75.5"), "JPY"));
+        Assertions.assertEquals(7550, CurrencyUtil.toMinorUnits(new BigDecimal("75.505"), "invalid"));
+
+        Assertions.assertThrows(
+                ArithmeticException.class,
+                () -> CurrencyUtil.toMinorUnits(new BigDecimal("1E30"), "CHF")
+        );
+    }
+
+    @Test
+    public void toMajorUnitsTest() {
+        Assertions.assertEquals(new BigDecimal("75.50"), CurrencyUtil.toMajorUnits(7550, "CHF"));
+        Assertions.assertEquals(new BigDecimal("-76"), CurrencyUtil.toMajorUnits(-76, "JPY"));
+    }
 }
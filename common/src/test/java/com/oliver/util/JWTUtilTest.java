@@ -0,0 +1,40 @@
+package com.oliver.util;
+
+import com.oliver.CommonApplication;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.SignatureException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(classes = CommonApplication.class)
+@ActiveProfiles("test")
+public class JWTUtilTest {
+    @Test
+    public void parseJWTTest() {
+        String jwt = JWTUtil.createJWT("1");
+
+        Claims claims = JWTUtil.parseJWT(jwt);
+        Assertions.assertEquals("1", claims.getSubject());
+        Assertions.assertSame(claims, JWTUtil.parseJWT(jwt));
+
+        // Cached claims are shared, so they cannot be modified.
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> claims.setSubject("2"));
+        Assertions.assertEquals("1", JWTUtil.parseJWT(jwt).getSubject());
+
+        String tamperedJwt = jwt.substring(0, jwt.length() - 2) +
+                (jwt.endsWith("AA") ? "BB" : "AA");
+        Assertions.assertThrows(SignatureException.class, () -> JWTUtil.parseJWT(tamperedJwt));
+    }
+
+    @Test
+    public void parseExpiredJWTTest() throws InterruptedException {
+        String jwt = JWTUtil.createJWT("1", 2000L);
+        Assertions.assertEquals("1", JWTUtil.parseJWT(jwt).getSubject());
+
+        Thread.sleep(2100);
+        Assertions.assertThrows(ExpiredJwtException.class, () -> JWTUtil.parseJWT(jwt));
+    }
+}
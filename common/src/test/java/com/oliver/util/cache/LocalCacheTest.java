@@ -0,0 +1,73 @@
+package com.oliver.util.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LocalCacheTest {
+    @Test
+    public void getAndPutTest() {
+        LocalCache<String, String> cache = new LocalCache<>(10);
+
+        Assertions.assertNull(cache.get("key"));
+        cache.put("key", "value");
+        Assertions.assertEquals("value", cache.get("key"));
+
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void evictLeastRecentlyUsedTest() {
+        LocalCache<String, String> cache = new LocalCache<>(2);
+
+        cache.put("key1", "value1");
+        cache.put("key2", "value2");
+        cache.get("key1");
+        cache.put("key3", "value3");
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals("value1", cache.get("key1"));
+        Assertions.assertNull(cache.get("key2"));
+        Assertions.assertEquals("value3", cache.get("key3"));
+    }
+
+    @Test
+    public void segmentedCacheTest() {
+        LocalCache<String, String> cache = new LocalCache<>(1000);
+
+        for (int i = 0; i < 2000; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+
+        // Each segment is bounded, so the whole cache is.
+        Assertions.assertTrue(cache.size() <= 1000);
+        Assertions.assertEquals("value1999", cache.get("key1999"));
+    }
+
+    @Test
+    public void expireAfterWriteTest() throws InterruptedException {
+        LocalCache<String, String> cache = new LocalCache<>(10, 50);
+
+        cache.put("key", "value");
+        Assertions.assertEquals("value", cache.get("key"));
+
+        Thread.sleep(100);
+        Assertions.assertNull(cache.get("key"));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void invalidateTest() {
+        LocalCache<String, String> cache = new LocalCache<>(10);
+
+        cache.put("key1", "value1");
+        cache.put("key2", "value2");
+
+        cache.invalidate("key1");
+        Assertions.assertNull(cache.get("key1"));
+        Assertions.assertEquals("value2", cache.get("key2"));
+
+        cache.invalidateAll();
+        Assertions.assertEquals(0, cache.size());
+    }
+}
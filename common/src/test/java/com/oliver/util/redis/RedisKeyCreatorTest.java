@@ -19,4 +19,13 @@ public class RedisKeyCreatorTest {
 
         Assertions.assertEquals(expectedKey, key);
     }
+
+    @Test
+    public void createAccountKey() {
+        String iban = "valid-iban";
+        String expectedKey = String.format("account: %s", iban);
+        String key = RedisKeyCreator.createAccountKey(iban);
+
+        Assertions.assertEquals(expectedKey, key);
+    }
 }
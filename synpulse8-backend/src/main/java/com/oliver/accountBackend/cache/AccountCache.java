@@ -0,0 +1,171 @@
+package com.oliver.accountBackend.cache;
+
+import com.oliver.accountBackend.domain.Account;
+import com.oliver.accountBackend.mapper.AccountMapper;
+import com.oliver.accountBackend.shard.ReplicaReadGuard;
+import com.oliver.util.cache.LocalCache;
+import com.oliver.util.redis.RedisCache;
+import com.oliver.util.redis.RedisKeyCreator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A two-level cache of accounts keyed by iban.
+ * <p>
+ * Accounts are looked up in an in-process cache first, then in redis
+ * and finally in db, preferably a read replica (see {@link ReplicaReadGuard}).
+ * Accounts do not change after they are created,
+ * so cached accounts are never invalidated.
+ */
+@Component
+@Slf4j
+public class AccountCache {
+    private AccountMapper accountMapper;
+
+    private RedisCache redisCache;
+
+    private ReplicaReadGuard replicaReadGuard;
+
+    @Value("${account-cache.maximum-size}")
+    private int maximumSize;
+
+    @Value("${account-cache.redis-expiration-minutes}")
+    private int redisExpirationMinutes;
+
+    private LocalCache<String, Account> localCache;
+
+    private final AtomicLong redisHitCount = new AtomicLong();
+
+    private final AtomicLong redisMissCount = new AtomicLong();
+
+    @PostConstruct
+    public void initLocalCache() {
+        localCache = new LocalCache<>(maximumSize);
+    }
+
+    /**
+     * Attempts to retrieve an account by its iban.
+     *
+     * @param iban {String} Account's iban.
+     *
+     * @return {Account} Returns either an 'Account' Object representing the
+     *                requested account or 'null' if the iban could not be
+     *                found.
+     */
+    public Account getAccountByIban(String iban) {
+        Account account = localCache.get(iban);
+        if (account != null) {
+            return account;
+        }
+
+        String key = RedisKeyCreator.createAccountKey(iban);
+        try {
+            account = redisCache.getObject(key);
+        } catch (Exception e) {
+            log.warn("Failed to read account - {} from redis", iban);
+            log.warn(e.getMessage());
+        }
+
+        if (account != null) {
+            redisHitCount.incrementAndGet();
+            localCache.put(iban, account);
+            return account;
+        }
+
+        redisMissCount.incrementAndGet();
+        account = replicaReadGuard.read(iban, () -> accountMapper.getAccountByIban(iban));
+        if (account != null) {
+            put(account);
+        }
+
+        return account;
+    }
+
+    /**
+     * Caches the given account.  If a db transaction is active,
+     * the account is only cached after the transaction is committed.
+     *
+     * @param account {Account} A saved account.
+     */
+    public void putAfterCommit(Account account) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(account);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        put(account);
+                    }
+                }
+        );
+    }
+
+    /**
+     * Returns the number of lookups answered by the in-process cache.
+     *
+     * @return {long} Returns the number of in-process cache hits.
+     */
+    public long getLocalHitCount() {
+        return localCache.getHitCount();
+    }
+
+    /**
+     * Returns the number of lookups answered by redis.
+     *
+     * @return {long} Returns the number of redis hits.
+     */
+    public long getRedisHitCount() {
+        return redisHitCount.get();
+    }
+
+    /**
+     * Returns the number of lookups that had to query db.
+     *
+     * @return {long} Returns the number of cache misses.
+     */
+    public long getMissCount() {
+        return redisMissCount.get();
+    }
+
+    private void put(Account account) {
+        localCache.put(account.getIban(), account);
+
+        try {
+            redisCache.saveObject(
+                    RedisKeyCreator.createAccountKey(account.getIban()),
+                    account,
+                    redisExpirationMinutes,
+                    TimeUnit.MINUTES
+            );
+        } catch (Exception e) {
+            log.warn("Failed to save account - {} to redis", account.getIban());
+            log.warn(e.getMessage());
+        }
+    }
+
+    @Autowired
+    public void setAccountMapper(AccountMapper accountMapper) {
+        this.accountMapper = accountMapper;
+    }
+
+    @Autowired
+    public void setRedisCache(RedisCache redisCache) {
+        this.redisCache = redisCache;
+    }
+
+    @Autowired
+    public void setReplicaReadGuard(ReplicaReadGuard replicaReadGuard) {
+        this.replicaReadGuard = replicaReadGuard;
+    }
+}
@@ -0,0 +1,122 @@
+package com.oliver.accountBackend.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe bloom filter of strings.
+ * <p>
+ * {@link #mightContain(String)} never returns false for a value that has been put,
+ * but may return true for a value that has never been put.
+ */
+public class BloomFilter {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Bits of the filter.
+     */
+    private final AtomicLongArray bits;
+
+    /**
+     * Number of bits of the filter.
+     */
+    private final long bitSize;
+
+    /**
+     * Number of bits set for each value.
+     */
+    private final int hashFunctions;
+
+    /**
+     * Creates a bloom filter sized for the expected number of values.
+     *
+     * @param expectedInsertions {long} Expected number of values to put.
+     * @param falsePositiveProbability {double} Expected probability of returning true
+     *                                 for a value that has never been put.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        expectedInsertions = Math.max(1, expectedInsertions);
+
+        long numBits = (long) (
+                -expectedInsertions * Math.log(falsePositiveProbability)
+                        / (Math.log(2) * Math.log(2))
+        );
+        this.bits = new AtomicLongArray((int) ((Math.max(numBits, 64) + 63) / 64));
+        this.bitSize = (long) bits.length() * 64;
+        this.hashFunctions = Math.max(
+                1,
+                (int) Math.round((double) bitSize / expectedInsertions * Math.log(2))
+        );
+    }
+
+    /**
+     * Puts the given value into the filter.
+     *
+     * @param value {String} A value.
+     */
+    public void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1) | 1;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bitIndex = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitSize;
+            int longIndex = (int) (bitIndex >>> 6);
+            long mask = 1L << bitIndex;
+
+            long current;
+            do {
+                current = bits.get(longIndex);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(longIndex, current, current | mask));
+        }
+    }
+
+    /**
+     * Returns a flag indicated whether the given value might have been put.
+     *
+     * @param value {String} A value.
+     *
+     * @return {boolean} Returns false if the value has definitely never been put.
+     */
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1) | 1;
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bitIndex = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitSize;
+            if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * FNV-1a hash of the given value.
+     */
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Murmur3 finalizer, derives a second independent hash.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
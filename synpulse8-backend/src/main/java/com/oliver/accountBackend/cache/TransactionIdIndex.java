@@ -0,0 +1,164 @@
+package com.oliver.accountBackend.cache;
+
+import com.oliver.accountBackend.mapper.TransactionMapper;
+import com.oliver.accountBackend.shard.TransactionRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory index of saved transaction ids, one bloom filter per transaction table.
+ * <p>
+ * The index is warmed from the existing transaction tables once the application
+ * is ready and is updated whenever transactions are saved.  Until it is warmed,
+ * every transaction id is reported as possibly saved, so callers always fall back
+ * to db.
+ * <p>
+ * Only transactions saved by current instance are indexed after warm-up, so
+ * the index is only used if current instance is the only one saving
+ * transactions (transaction-id-index.single-writer).  Otherwise every
+ * transaction id is reported as possibly saved.
+ */
+@Component
+@Slf4j
+public class TransactionIdIndex {
+    private TransactionMapper transactionMapper;
+
+    private TransactionRoutingDataSource transactionRoutingDataSource;
+
+    @Value("${transaction-id-index.enabled}")
+    private boolean enabled;
+
+    @Value("${transaction-id-index.single-writer}")
+    private boolean singleWriter;
+
+    @Value("${transaction-id-index.expected-insertions}")
+    private long expectedInsertions;
+
+    @Value("${transaction-id-index.false-positive-probability}")
+    private double falsePositiveProbability;
+
+    /**
+     * Bloom filters of transaction ids, keyed by transaction table name's suffix.
+     */
+    private final Map<String, BloomFilter> filters = new ConcurrentHashMap<>();
+
+    /**
+     * A flag indicated whether all existing transaction tables are indexed.
+     */
+    private volatile boolean warmedUp = false;
+
+    /**
+     * Returns a flag indicated whether the given transaction might have been saved.
+     *
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     * @param transactionId {String} Transaction's id.
+     *
+     * @return {boolean} Returns false only if the transaction has definitely not been saved.
+     */
+    public boolean mightContain(String tableNameSuffix, String transactionId) {
+        if (!isUsed() || !warmedUp) {
+            return true;
+        }
+
+        return getFilter(tableNameSuffix).mightContain(transactionId);
+    }
+
+    /**
+     * Adds the given transaction id to the index.
+     *
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     * @param transactionId {String} Transaction's id.
+     */
+    public void put(String tableNameSuffix, String transactionId) {
+        if (!isUsed()) {
+            return;
+        }
+
+        getFilter(tableNameSuffix).put(transactionId);
+    }
+
+    /**
+     * Indexes the transaction ids of all existing transaction tables.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!isUsed()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            int indexedTables = 0;
+            for (int i = 0; i < transactionRoutingDataSource.getDataSourcesNumber(); i++) {
+                indexedTables += transactionRoutingDataSource.runWithDataSource(i, this::indexTables);
+            }
+
+            warmedUp = true;
+            log.info(
+                    "Indexed transaction ids of {} tables in {} ms",
+                    indexedTables,
+                    System.currentTimeMillis() - start
+            );
+        } catch (Exception e) {
+            log.error("Failed to index transaction ids, falling back to db lookups");
+            log.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Indexes the transaction ids of the tables on the current MySQL instance.
+     *
+     * @return {int} Returns the number of indexed tables.
+     */
+    private int indexTables() {
+        List<String> tableNameSuffixes =
+                transactionMapper.getTransactionTableNameSuffixes();
+        for (String tableNameSuffix : tableNameSuffixes) {
+            BloomFilter filter = getFilter(tableNameSuffix);
+            transactionMapper.getTransactionIds(
+                    tableNameSuffix,
+                    resultContext -> filter.put(resultContext.getResultObject())
+            );
+        }
+
+        return tableNameSuffixes.size();
+    }
+
+    /**
+     * Returns a flag indicated whether the index can rule out transaction ids,
+     * which requires every saved transaction to pass through current instance.
+     *
+     * @return {boolean} Returns true if the index is enabled and current instance
+     *                   is the only one saving transactions.
+     */
+    private boolean isUsed() {
+        return enabled && singleWriter;
+    }
+
+    private BloomFilter getFilter(String tableNameSuffix) {
+        return filters.computeIfAbsent(
+                tableNameSuffix,
+                key -> new BloomFilter(expectedInsertions, falsePositiveProbability)
+        );
+    }
+
+    @Autowired
+    public void setTransactionMapper(TransactionMapper transactionMapper) {
+        this.transactionMapper = transactionMapper;
+    }
+
+    @Autowired
+    public void setTransactionRoutingDataSource(TransactionRoutingDataSource transactionRoutingDataSource) {
+        this.transactionRoutingDataSource = transactionRoutingDataSource;
+    }
+}
@@ -0,0 +1,236 @@
+package com.oliver.accountBackend.codec;
+
+import com.oliver.accountBackend.domain.Transaction;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Encodes transactions to a compact binary format and decodes them back.
+ * <p>
+ * Layout of version 1, all integers are unsigned or zigzag varints:
+ * <pre>
+ *   version            1 byte, always 1
+ *   transactionId      string
+ *   accountIban        string
+ *   valueDate          0 if null, otherwise zigzag epoch millis + 1
+ *   amount type        1 byte, see AMOUNT_* constants
+ *   amount             currency string, scale varint and unscaled zigzag varint
+ *                      if the amount is scaled, otherwise a string
+ *   description        string
+ * </pre>
+ * Strings are written as their utf-8 length + 1 followed by the bytes,
+ * a length of 0 stands for null.
+ * <p>
+ * The version byte never starts a json, so binary and json messages
+ * can be told apart by their first byte.
+ */
+public class TransactionBinaryCodec {
+    public static final byte VERSION = 1;
+
+    private static final byte AMOUNT_NULL = 0;
+
+    /**
+     * Amount written as a currency code with a scaled long. (e.g. CHF 75.50)
+     */
+    private static final byte AMOUNT_SCALED = 1;
+
+    /**
+     * Amount that cannot be represented as a scaled long, written as it is.
+     */
+    private static final byte AMOUNT_RAW = 2;
+
+    private static final Pattern AMOUNT_PATTERN =
+            Pattern.compile("([A-Z]{3}) (-?\\d+(\\.\\d+)?)");
+
+    private TransactionBinaryCodec() {}
+
+    /**
+     * Checks whether the given data is encoded by this codec.
+     *
+     * @param data {byte[]} Data received from kafka.
+     *
+     * @return {boolean} Returns true if the data starts with a known version.
+     */
+    public static boolean isBinary(byte[] data) {
+        return data.length > 0 && data[0] == VERSION;
+    }
+
+    /**
+     * Encodes the given transaction.
+     *
+     * @param transaction {Transaction} A transaction needed to be encoded.
+     *
+     * @return {byte[]} Returns the encoded transaction.
+     */
+    public static byte[] encode(Transaction transaction) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.write(VERSION);
+        writeString(out, transaction.getTransactionId());
+        writeString(out, transaction.getAccountIban());
+
+        Date valueDate = transaction.getValueDate();
+        writeVarLong(out, valueDate == null ? 0 : zigzag(valueDate.getTime()) + 1);
+
+        writeAmount(out, transaction.getAmount());
+        writeString(out, transaction.getDescription());
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes the given data to a transaction.
+     *
+     * @param data {byte[]} Data encoded by this codec.
+     *
+     * @return {Transaction} Returns the decoded transaction.
+     * @throws IllegalArgumentException Throws IllegalArgumentException if data is
+     *                                  truncated or of an unknown version.
+     */
+    public static Transaction decode(byte[] data) {
+        Reader reader = new Reader(data);
+        byte version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException(
+                    String.format("Unknown transaction format version - %d", version)
+            );
+        }
+
+        String transactionId = reader.readString();
+        String accountIban = reader.readString();
+
+        long valueDateMillis = reader.readVarLong();
+        Date valueDate = valueDateMillis == 0 ? null : new Date(unzigzag(valueDateMillis - 1));
+
+        String amount = reader.readAmount();
+        String description = reader.readString();
+
+        return new Transaction(transactionId, amount, accountIban, valueDate, description);
+    }
+
+    private static void writeAmount(ByteArrayOutputStream out, String amount) {
+        if (amount == null) {
+            out.write(AMOUNT_NULL);
+            return;
+        }
+
+        Matcher matcher = AMOUNT_PATTERN.matcher(amount);
+        if (matcher.matches()) {
+            BigDecimal value = new BigDecimal(matcher.group(2));
+            BigInteger unscaledValue = value.unscaledValue();
+
+            // Only use the scaled form if decoding gives back the same amount.
+            if (unscaledValue.bitLength() < Long.SIZE
+                    && value.toPlainString().equals(matcher.group(2))) {
+                out.write(AMOUNT_SCALED);
+                writeString(out, matcher.group(1));
+                writeVarLong(out, value.scale());
+                writeVarLong(out, zigzag(unscaledValue.longValue()));
+                return;
+            }
+        }
+
+        out.write(AMOUNT_RAW);
+        writeString(out, amount);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads the fields of an encoded transaction in order.
+     */
+    private static class Reader {
+        private final byte[] data;
+
+        private int position;
+
+        private Reader(byte[] data) {
+            this.data = data;
+        }
+
+        private byte readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Transaction data is truncated");
+            }
+
+            return data[position++];
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+
+            throw new IllegalArgumentException("Transaction data contains a malformed varint");
+        }
+
+        private String readString() {
+            long length = readVarLong();
+            if (length == 0) {
+                return null;
+            }
+
+            if (length < 0 || length - 1 > data.length - position) {
+                throw new IllegalArgumentException("Transaction data is truncated");
+            }
+
+            int size = (int) (length - 1);
+            String value = new String(data, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+
+        private String readAmount() {
+            byte type = readByte();
+            switch (type) {
+                case AMOUNT_NULL:
+                    return null;
+                case AMOUNT_SCALED:
+                    String currency = readString();
+                    int scale = (int) readVarLong();
+                    long unscaledValue = unzigzag(readVarLong());
+                    return currency + " " + BigDecimal.valueOf(unscaledValue, scale).toPlainString();
+                case AMOUNT_RAW:
+                    return readString();
+                default:
+                    throw new IllegalArgumentException(
+                            String.format("Unknown transaction amount type - %d", type)
+                    );
+            }
+        }
+    }
+}
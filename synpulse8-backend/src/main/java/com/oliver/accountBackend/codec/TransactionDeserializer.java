@@ -0,0 +1,50 @@
+package com.oliver.accountBackend.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.oliver.accountBackend.domain.Transaction;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Deserializes transactions consumed from kafka.
+ * <p>
+ * Both jsons and transactions encoded by {@link TransactionBinaryCodec}
+ * are accepted.  All instances share one pre-built json reader, so no
+ * mapper is created per record.
+ */
+public class TransactionDeserializer implements Deserializer<Transaction> {
+    private static final ObjectReader TRANSACTION_READER =
+            new ObjectMapper().readerFor(Transaction.class);
+
+    /**
+     * Parses the given data to a transaction.
+     *
+     * @param topic {String} Topic of the record.
+     * @param data {byte[]} A transaction json or binary received from kafka.
+     *
+     * @return {Transaction} Returns the parsed transaction, or null if data is null.
+     * @throws SerializationException Throws SerializationException if data is not a valid transaction.
+     */
+    @Override
+    public Transaction deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        try {
+            if (TransactionBinaryCodec.isBinary(data)) {
+                return TransactionBinaryCodec.decode(data);
+            }
+
+            return TRANSACTION_READER.readValue(data);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SerializationException(
+                    "Failed to parse transaction to current transaction model",
+                    e
+            );
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.oliver.accountBackend.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.oliver.accountBackend.domain.Transaction;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * Serializes transactions sent to kafka.
+ * <p>
+ * Transactions are written as json by default.  Setting the producer
+ * property 'transaction.wire-format' to 'binary' writes them with
+ * {@link TransactionBinaryCodec} instead.  {@link TransactionDeserializer}
+ * reads both formats, so consumers must be upgraded before producers
+ * switch to binary.
+ */
+public class TransactionSerializer implements Serializer<Transaction> {
+    public static final String WIRE_FORMAT_CONFIG = "transaction.wire-format";
+
+    public static final String JSON_FORMAT = "json";
+
+    public static final String BINARY_FORMAT = "binary";
+
+    private boolean binary;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object wireFormat = configs.get(WIRE_FORMAT_CONFIG);
+        if (wireFormat == null || JSON_FORMAT.equals(wireFormat.toString())) {
+            binary = false;
+            return;
+        }
+
+        if (!BINARY_FORMAT.equals(wireFormat.toString())) {
+            throw new IllegalArgumentException(
+                    String.format("Unsupported transaction wire format - %s", wireFormat)
+            );
+        }
+
+        binary = true;
+    }
+
+    /**
+     * Serializes the given transaction with the configured wire format.
+     *
+     * @param topic {String} Topic of the record.
+     * @param transaction {Transaction} A transaction needed to be sent.
+     *
+     * @return {byte[]} Returns the serialized transaction, or null if transaction is null.
+     */
+    @Override
+    public byte[] serialize(String topic, Transaction transaction) {
+        if (transaction == null) {
+            return null;
+        }
+
+        return binary ?
+                TransactionBinaryCodec.encode(transaction) :
+                JSON.toJSONBytes(transaction);
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
@@ -11,6 +12,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class ThreadPoolExecutorConfiguration {
     @Value("${thread-pool.core-pool-size}")
     private int corePoolSize;
@@ -34,4 +36,22 @@ public class ThreadPoolExecutorConfiguration {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * A single thread for moving accounts between transaction tables, which
+     * waits for cached shards to expire and must not hold up other tasks.
+     *
+     * @return {Executor} Returns an executor running one rebalance at a time.
+     */
+    @Bean(name = "rebalanceExecutor")
+    public Executor rebalanceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("transaction-shard-rebalance");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+
+        executor.initialize();
+        return executor;
+    }
 }
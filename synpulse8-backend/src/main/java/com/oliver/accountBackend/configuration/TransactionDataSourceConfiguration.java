@@ -0,0 +1,100 @@
+package com.oliver.accountBackend.configuration;
+
+import com.oliver.accountBackend.shard.TransactionRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the data source of the application from 'spring.datasource'
+ * and the MySQL instances listed in 'transaction-datasource.urls'.
+ * <p>
+ * Additional instances share the credentials of 'spring.datasource',
+ * only the tables of {@link #TRANSACTION_SCHEMA} are created on them.
+ * <p>
+ * The i-th entry of 'transaction-datasource.replica-urls' is the read
+ * replica of instance i, where instance 0 is 'spring.datasource'.  Blank
+ * entries stand for instances without a replica.  Replicas share the
+ * credentials of 'spring.datasource' as well.
+ */
+@Configuration
+@Slf4j
+public class TransactionDataSourceConfiguration {
+    /**
+     * Schema of the tables written together with transaction tables.
+     */
+    public static final String TRANSACTION_SCHEMA = "sql/transaction-schema.sql";
+
+    @Value("#{'${transaction-datasource.urls}'.trim().isEmpty() ? {} : '${transaction-datasource.urls}'.split(',')}")
+    private List<String> urls;
+
+    @Value("#{'${transaction-datasource.replica-urls}'.trim().isEmpty() ? {} : '${transaction-datasource.replica-urls}'.split(',')}")
+    private List<String> replicaUrls;
+
+    @Value("${transaction-datasource.tables-per-datasource}")
+    private int tablesPerDataSource;
+
+    @Bean
+    @Primary
+    public TransactionRoutingDataSource dataSource(DataSourceProperties properties) {
+        DataSource primaryDataSource = properties.initializeDataSourceBuilder().build();
+
+        Map<Object, Object> dataSources = new HashMap<>();
+        dataSources.put(0, primaryDataSource);
+        for (int i = 0; i < urls.size(); i++) {
+            DataSource dataSource = createDataSource(properties, urls.get(i).trim());
+            DatabasePopulatorUtils.execute(
+                    new ResourceDatabasePopulator(new ClassPathResource(TRANSACTION_SCHEMA)),
+                    dataSource
+            );
+            dataSources.put(i + 1, dataSource);
+        }
+        int dataSourcesNumber = dataSources.size();
+        log.info("Routing transaction tables to {} datasources", dataSourcesNumber);
+
+        Set<Integer> replicaDataSourceIndexes = new HashSet<>();
+        for (int i = 0; i < Math.min(replicaUrls.size(), dataSourcesNumber); i++) {
+            String replicaUrl = replicaUrls.get(i).trim();
+            if (!replicaUrl.isEmpty()) {
+                dataSources.put(
+                        TransactionRoutingDataSource.getReplicaLookupKey(i),
+                        createDataSource(properties, replicaUrl)
+                );
+                replicaDataSourceIndexes.add(i);
+            }
+        }
+        log.info("Sending opted-in reads to replicas of datasources {}", replicaDataSourceIndexes);
+
+        TransactionRoutingDataSource routingDataSource = new TransactionRoutingDataSource(
+                dataSourcesNumber,
+                tablesPerDataSource,
+                replicaDataSourceIndexes
+        );
+        routingDataSource.setTargetDataSources(dataSources);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        return routingDataSource;
+    }
+
+    private DataSource createDataSource(DataSourceProperties properties, String url) {
+        return DataSourceBuilder.create()
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(properties.determineUsername())
+                .password(properties.determinePassword())
+                .build();
+    }
+}
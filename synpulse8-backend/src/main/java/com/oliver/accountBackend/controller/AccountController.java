@@ -3,6 +3,10 @@ package com.oliver.accountBackend.controller;
 import com.oliver.accountBackend.form.CreateAccountForm;
 import com.oliver.accountBackend.domain.Account;
 import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.domain.TransactionCreateResult;
+import com.oliver.accountBackend.domain.TransactionDailyBalance;
+import com.oliver.accountBackend.domain.TransactionSummary;
+import com.oliver.accountBackend.export.TransactionExportFormat;
 import com.oliver.accountBackend.form.CreateTransactionForm;
 import com.oliver.accountBackend.service.AccountService;
 import com.oliver.accountBackend.service.AccountTransactionService;
@@ -15,11 +19,16 @@ import io.swagger.annotations.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 @Slf4j
@@ -59,7 +68,7 @@ public class AccountController {
             dataType = "String",
             required = true
     )
-    @PreAuthorize("hasAuthority('/account')")
+    @PreAuthorize("@resourceAuthorization.hasAccountResource()")
     @PostMapping(value = "/createAccount", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseResult<Account> createAccount(@RequestBody CreateAccountForm createAccountForm) {
         String country = createAccountForm.getCountry();
@@ -90,10 +99,10 @@ public class AccountController {
      * @param createTransactionForm {CreateTransactionForm} A form includes
      *                                                      amount and description
      *
-     * @return {Account} Returns a newly-created `transaction` if success,
-     *                   Otherwise will return null.
-     * @throws ValidationException Throws ValidationException if account iban does not exist.
-     * @throws ConflictException Throws ConflictException if transaction has been created.
+     * @return {CompletableFuture<ResponseResult<Transaction>>} Returns a future of
+     *                   'ResponseResult' with a newly-created `transaction` once kafka
+     *                   acknowledges it, Otherwise will return `ResponseResult`
+     *                   with error message.
      */
     @ApiOperation(
             value = "Attempts to create a transaction under given account.",
@@ -116,30 +125,109 @@ public class AccountController {
             required = true
     )
     @PostMapping(value = "/createTransaction/{iban}", consumes = MediaType.APPLICATION_JSON_VALUE)
-    @PreAuthorize("hasAuthority('/account/' + #iban)")
-    public ResponseResult<Transaction> createTransaction(
+    @PreAuthorize("@resourceAuthorization.hasAccountResource(#iban)")
+    public CompletableFuture<ResponseResult<Transaction>> createTransaction(
             @PathVariable("iban") String iban,
             @RequestBody CreateTransactionForm createTransactionForm
     ) {
         double amount = createTransactionForm.getAmount();
         String description = createTransactionForm.getDescription();
 
-        Transaction transaction;
+        CompletableFuture<Transaction> sentTransaction;
         try {
-            transaction = accountTransactionService.createTransaction(amount, iban, description);
+            sentTransaction = accountTransactionService.createTransaction(amount, iban, description);
         } catch (ValidationException | ConflictException e) {
             log.error("Failed to create transaction with iban - {}", iban);
             log.error(e.getMessage());
-            return new ResponseResult<>(StatusCode.ERROR, e.getMessage());
+            return CompletableFuture.completedFuture(
+                    new ResponseResult<>(StatusCode.ERROR, e.getMessage())
+            );
         }
 
-        return new ResponseResult<>(
-                StatusCode.OK,
-                String.format(
-                        "Create transaction successfully with iban - %s",
-                        iban
-                ),
-                transaction
+        // The request thread is released while the transaction is being sent.
+        return sentTransaction.handle((transaction, e) -> {
+            if (e != null) {
+                log.error("Failed to send transaction with iban - {} to kafka", iban);
+                return new ResponseResult<>(
+                        StatusCode.ERROR,
+                        String.format(
+                                "Failed to send transaction with iban - %s",
+                                iban
+                        )
+                );
+            }
+
+            return new ResponseResult<>(
+                    StatusCode.OK,
+                    String.format(
+                            "Create transaction successfully with iban - %s",
+                            iban
+                    ),
+                    transaction
+            );
+        });
+    }
+
+    /**
+     * Attempts to create a batch of transactions under given account
+     * and sends them to kafka.
+     * <p>
+     * The account is validated once for the whole batch.  Each transaction
+     * gets its own result, so duplicated transactions do not fail the others.
+     *
+     * @param iban {String} Account's iban.
+     * @param createTransactionForms {List<CreateTransactionForm>} Forms includes
+     *                                                              transaction id (optional),
+     *                                                              amount and description
+     *
+     * @return {CompletableFuture<ResponseResult<List<TransactionCreateResult>>>} Returns a
+     *                   future of 'ResponseResult' with the outcome of each transaction,
+     *                   Otherwise will return `ResponseResult` with error message.
+     */
+    @ApiOperation(
+            value = "Attempts to create a batch of transactions under given account.",
+            notes = "Attempts to create a batch of transactions under given account and " +
+                    "sends them to kafka.  The account is validated once for the whole " +
+                    "batch and each transaction gets its own result.  Transactions that " +
+                    "have been saved or are submitted more than once are reported as " +
+                    "duplicated.",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            response = ResponseResult.class
+    )
+    @ApiResponse(code = 200, message = "Request API Success", response = ResponseResult.class)
+    @ApiImplicitParam(
+            value = "JWT token with \"Bearer\" prefix",
+            name = "Authorization",
+            paramType = "header",
+            dataType = "String",
+            required = true
+    )
+    @PostMapping(value = "/createTransactions/{iban}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("@resourceAuthorization.hasAccountResource(#iban)")
+    public CompletableFuture<ResponseResult<List<TransactionCreateResult>>> createTransactions(
+            @PathVariable("iban") String iban,
+            @RequestBody List<CreateTransactionForm> createTransactionForms
+    ) {
+        CompletableFuture<List<TransactionCreateResult>> results;
+        try {
+            results = accountTransactionService.createTransactions(iban, createTransactionForms);
+        } catch (ValidationException e) {
+            log.error("Failed to create transactions with iban - {}", iban);
+            log.error(e.getMessage());
+            return CompletableFuture.completedFuture(
+                    new ResponseResult<>(StatusCode.ERROR, e.getMessage())
+            );
+        }
+
+        return results.thenApply(createResults ->
+                new ResponseResult<>(
+                        StatusCode.OK,
+                        String.format(
+                                "Create transactions with iban - %s",
+                                iban
+                        ),
+                        createResults
+                )
         );
     }
 
@@ -149,11 +237,16 @@ public class AccountController {
      * Returns a Page result with the total number of transactions
      * and the total credit and debit value of the current page
      * transactions.  Skips number of page number * page size transactions.
+     * <p>
+     * If page number is not provided, transactions are fetched by cursor
+     * instead.  The Page result then includes a cursor of the next page,
+     * which is passed back to fetch the following transactions.
      *
      * @param iban {String} Transaction's account iban.
      * @param startDate {Date} Start date of transaction date.
      * @param endDate {Date} End date of transaction date.
-     * @param pageNo {Integer} Page number.
+     * @param pageNo {Integer} Page number (Optional).
+     * @param cursor {String} Cursor returned with previous page (Optional).
      * @param pageSize {Integer} Page size.
      *
      * @return {Page<Transaction>>} Returns either a 'Page' Object representing the
@@ -166,7 +259,9 @@ public class AccountController {
             value = "Attempts to retrieve a list of transactions by its account iban",
             notes = "Returns a Page result with the total number of transactions " +
                     "and the total credit and debit value of the current page " +
-                    "transactions.  Skips number of page number * page size transactions.",
+                    "transactions.  Skips number of page number * page size transactions.  " +
+                    "If page number is not provided, transactions are fetched by cursor " +
+                    "and the result includes a cursor of the next page.",
             consumes = MediaType.APPLICATION_JSON_VALUE,
             response = ResponseResult.class
     )
@@ -179,7 +274,7 @@ public class AccountController {
             required = true
     )
     @GetMapping("/getTransactions/{iban}")
-    @PreAuthorize("hasAuthority('/account/' + #iban)")
+    @PreAuthorize("@resourceAuthorization.hasAccountResource(#iban)")
     public ResponseResult<Page<Transaction>> getTransactionsByIban(
             @PathVariable("iban") String iban,
 
@@ -191,34 +286,260 @@ public class AccountController {
             @DateTimeFormat(pattern = "dd-MM-yyyy")
             @RequestParam("endDate") Date endDate,
 
-            @ApiParam(value = "Page number", required = true)
-            @RequestParam("pageNo") Integer pageNo,
+            @ApiParam(value = "Page number, fetches by cursor if not provided")
+            @RequestParam(value = "pageNo", required = false) Integer pageNo,
+
+            @ApiParam(value = "Cursor returned with previous page")
+            @RequestParam(value = "cursor", required = false) String cursor,
 
             @ApiParam(value = "Page size", required = true)
             @RequestParam("pageSize") Integer pageSize
     ) {
         Page<Transaction> transactionPage;
         try {
-            transactionPage = accountTransactionService
-                    .getTransactionsByAccountIbanAndValueDate(
+            transactionPage = pageNo != null ?
+                    accountTransactionService
+                            .getTransactionsByAccountIbanAndValueDate(
+                                    iban,
+                                    startDate,
+                                    endDate,
+                                    pageNo,
+                                    pageSize
+                            ) :
+                    accountTransactionService
+                            .getTransactionsByAccountIbanAndValueDateAfterCursor(
+                                    iban,
+                                    startDate,
+                                    endDate,
+                                    cursor,
+                                    pageSize
+                            );
+        } catch (ValidationException e) {
+            log.error("Failed to get transactions with iban - {}", iban);
+            log.error(e.getMessage());
+            return new ResponseResult<>(StatusCode.ERROR, e.getMessage());
+        }
+        return new ResponseResult<>(
+                StatusCode.OK,
+                String.format(
+                        "Fetch transactions for iban - %s",
+                        iban
+                ),
+                transactionPage
+        );
+    }
+
+    /**
+     * Attempts to export all transactions by its account iban.
+     * <p>
+     * Streams the transactions between start date and end date to the
+     * response as NDJSON or CSV, ordered by value date and transaction id.
+     * Transactions are not loaded into memory at once, so any date range
+     * can be exported in one call.
+     *
+     * @param iban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     * @param format {String} Export format, ndjson or csv.
+     * @param response {HttpServletResponse} Response the transactions are written to.
+     *
+     * @return {ResponseResult<Object>} Returns null once the transactions are written,
+     *                   Otherwise will return `ResponseResult` with error message.
+     * @throws IOException Throws IOException if the response cannot be written.
+     */
+    @ApiOperation(
+            value = "Attempts to export all transactions by its account iban",
+            notes = "Streams the transactions between start date and end date to the " +
+                    "response as NDJSON or CSV, ordered by value date and transaction id.  " +
+                    "Any date range can be exported in one call.",
+            produces = "application/x-ndjson, text/csv"
+    )
+    @ApiResponse(code = 200, message = "Request API Success")
+    @ApiImplicitParam(
+            value = "JWT token with \"Bearer\" prefix",
+            name = "Authorization",
+            paramType = "header",
+            dataType = "String",
+            required = true
+    )
+    @GetMapping("/exportTransactions/{iban}")
+    @PreAuthorize("@resourceAuthorization.hasAccountResource(#iban)")
+    public ResponseResult<Object> exportTransactionsByIban(
+            @PathVariable("iban") String iban,
+
+            @ApiParam(value = "Start date of transaction date", required = true)
+            @DateTimeFormat(pattern = "dd-MM-yyyy")
+            @RequestParam("startDate") Date startDate,
+
+            @ApiParam(value = "End date of transaction date", required = true)
+            @DateTimeFormat(pattern = "dd-MM-yyyy")
+            @RequestParam("endDate") Date endDate,
+
+            @ApiParam(value = "Export format, ndjson or csv", defaultValue = "ndjson")
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+
+            HttpServletResponse response
+    ) throws IOException {
+        long exportedTransactions;
+        try {
+            TransactionExportFormat exportFormat = TransactionExportFormat.of(format);
+            response.setContentType(exportFormat.getContentType());
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(
+                    HttpHeaders.CONTENT_DISPOSITION,
+                    String.format("attachment; filename=\"transactions.%s\"", exportFormat.getFileExtension())
+            );
+
+            exportedTransactions = accountTransactionService
+                    .exportTransactionsByAccountIbanAndValueDate(
                             iban,
                             startDate,
                             endDate,
-                            pageNo,
-                            pageSize
+                            exportFormat,
+                            response.getOutputStream()
                     );
         } catch (ValidationException e) {
-            log.error("Failed to get transactions with iban - {}", iban);
+            log.error("Failed to export transactions with iban - {}", iban);
+            log.error(e.getMessage());
+
+            // Nothing has been written, replies with an error instead.
+            response.reset();
+            return new ResponseResult<>(StatusCode.ERROR, e.getMessage());
+        }
+
+        log.info("Exported {} transactions with iban - {}", exportedTransactions, iban);
+        return null;
+    }
+
+    /**
+     * Attempts to retrieve the totals of transactions by its account iban.
+     * <p>
+     * Returns the number, total credit and total debit of all transactions
+     * between start date and end date, aggregated from the daily balances
+     * without paging through the transactions.
+     *
+     * @param iban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     *
+     * @return {ResponseResult<TransactionSummary>} Returns 'ResponseResult' with the
+     *                   totals of the transactions if success, Otherwise will return
+     *                   `ResponseResult` with error message.
+     */
+    @ApiOperation(
+            value = "Attempts to retrieve the totals of transactions by its account iban",
+            notes = "Returns the number, total credit and total debit of all " +
+                    "transactions between start date and end date, aggregated from " +
+                    "the daily balances without paging through the transactions.",
+            response = ResponseResult.class
+    )
+    @ApiResponse(code = 200, message = "Request API Success", response = ResponseResult.class)
+    @ApiImplicitParam(
+            value = "JWT token with \"Bearer\" prefix",
+            name = "Authorization",
+            paramType = "header",
+            dataType = "String",
+            required = true
+    )
+    @GetMapping("/getTransactionSummary/{iban}")
+    @PreAuthorize("@resourceAuthorization.hasAccountResource(#iban)")
+    public ResponseResult<TransactionSummary> getTransactionSummaryByIban(
+            @PathVariable("iban") String iban,
+
+            @ApiParam(value = "Start date of transaction date", required = true)
+            @DateTimeFormat(pattern = "dd-MM-yyyy")
+            @RequestParam("startDate") Date startDate,
+
+            @ApiParam(value = "End date of transaction date", required = true)
+            @DateTimeFormat(pattern = "dd-MM-yyyy")
+            @RequestParam("endDate") Date endDate
+    ) {
+        TransactionSummary transactionSummary;
+        try {
+            transactionSummary = accountTransactionService
+                    .getTransactionSummaryByAccountIbanAndValueDate(
+                            iban,
+                            startDate,
+                            endDate
+                    );
+        } catch (ValidationException e) {
+            log.error("Failed to get transaction summary with iban - {}", iban);
             log.error(e.getMessage());
             return new ResponseResult<>(StatusCode.ERROR, e.getMessage());
         }
         return new ResponseResult<>(
                 StatusCode.OK,
                 String.format(
-                        "Fetch transactions for iban - %s",
+                        "Fetch transaction summary for iban - %s",
                         iban
                 ),
-                transactionPage
+                transactionSummary
+        );
+    }
+
+    /**
+     * Attempts to retrieve the totals of each day's transactions by its account iban.
+     * <p>
+     * Returns the number, total credit and total debit of the transactions
+     * of each day between start date and end date.  Days without transactions
+     * are left out.
+     *
+     * @param iban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     *
+     * @return {ResponseResult<List<TransactionDailyBalance>>} Returns 'ResponseResult' with
+     *                   the totals of each day if success, Otherwise will return
+     *                   `ResponseResult` with error message.
+     */
+    @ApiOperation(
+            value = "Attempts to retrieve the totals of each day's transactions by its account iban",
+            notes = "Returns the number, total credit and total debit of the transactions " +
+                    "of each day between start date and end date.  Days without " +
+                    "transactions are left out.",
+            response = ResponseResult.class
+    )
+    @ApiResponse(code = 200, message = "Request API Success", response = ResponseResult.class)
+    @ApiImplicitParam(
+            value = "JWT token with \"Bearer\" prefix",
+            name = "Authorization",
+            paramType = "header",
+            dataType = "String",
+            required = true
+    )
+    @GetMapping("/getDailyBalances/{iban}")
+    @PreAuthorize("@resourceAuthorization.hasAccountResource(#iban)")
+    public ResponseResult<List<TransactionDailyBalance>> getDailyBalancesByIban(
+            @PathVariable("iban") String iban,
+
+            @ApiParam(value = "Start date of transaction date", required = true)
+            @DateTimeFormat(pattern = "dd-MM-yyyy")
+            @RequestParam("startDate") Date startDate,
+
+            @ApiParam(value = "End date of transaction date", required = true)
+            @DateTimeFormat(pattern = "dd-MM-yyyy")
+            @RequestParam("endDate") Date endDate
+    ) {
+        List<TransactionDailyBalance> dailyBalances;
+        try {
+            dailyBalances = accountTransactionService
+                    .getDailyBalancesByAccountIbanAndValueDate(
+                            iban,
+                            startDate,
+                            endDate
+                    );
+        } catch (ValidationException e) {
+            log.error("Failed to get daily balances with iban - {}", iban);
+            log.error(e.getMessage());
+            return new ResponseResult<>(StatusCode.ERROR, e.getMessage());
+        }
+        return new ResponseResult<>(
+                StatusCode.OK,
+                String.format(
+                        "Fetch daily balances for iban - %s",
+                        iban
+                ),
+                dailyBalances
         );
     }
 
@@ -0,0 +1,135 @@
+package com.oliver.accountBackend.domain;
+
+import org.apache.ibatis.type.Alias;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Location of an account's transactions among the transaction tables.
+ */
+@Alias("AccountShard")
+public class AccountShard implements Serializable {
+    private static final long serialVersionUID = -5316870946125322047L;
+
+    /**
+     * Account's iban.
+     */
+    private String accountIban;
+
+    /**
+     * Suffix of the transaction table new transactions are saved to.
+     */
+    private String tableNameSuffix;
+
+    /**
+     * Suffix of the transaction table the account is being moved from,
+     * null if the account is not being moved.
+     */
+    private String previousTableNameSuffix;
+
+    /**
+     * A flag indicated whether the account is excluded from rebalancing.
+     */
+    private boolean pinned;
+
+    /**
+     * Non parameters' constructor.
+     */
+    public AccountShard() {}
+
+    /**
+     * Generates an account shard based on its iban, tables and pinned flag.
+     *
+     * @param accountIban {String} Account's iban.
+     * @param tableNameSuffix {String} Suffix of the transaction table new transactions are saved to.
+     * @param previousTableNameSuffix {String} Suffix of the transaction table the account
+     *                                         is being moved from (Optional).
+     * @param pinned {boolean} A flag indicated whether the account is excluded from rebalancing.
+     */
+    public AccountShard(
+            String accountIban,
+            String tableNameSuffix,
+            String previousTableNameSuffix,
+            boolean pinned
+    ) {
+        this.accountIban = accountIban;
+        this.tableNameSuffix = tableNameSuffix;
+        this.previousTableNameSuffix = previousTableNameSuffix;
+        this.pinned = pinned;
+    }
+
+    /**
+     * Returns account's iban.
+     * @return {String} Returns account's iban.
+     */
+    public String getAccountIban() {
+        return accountIban;
+    }
+
+    /**
+     * Returns suffix of the transaction table new transactions are saved to.
+     * @return {String} Returns suffix of the transaction table.
+     */
+    public String getTableNameSuffix() {
+        return tableNameSuffix;
+    }
+
+    /**
+     * Returns suffix of the transaction table the account is being moved from.
+     * @return {String} Returns suffix of the previous transaction table,
+     *                  or null if the account is not being moved.
+     */
+    public String getPreviousTableNameSuffix() {
+        return previousTableNameSuffix;
+    }
+
+    /**
+     * Returns a flag indicated whether the account is excluded from rebalancing.
+     * @return {boolean} Returns true if the account is pinned to its table.
+     */
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    /**
+     * Returns a flag indicated whether the account is being moved.
+     * @return {boolean} Returns true if the account is being moved.
+     */
+    public boolean isMoving() {
+        return previousTableNameSuffix != null;
+    }
+
+    /**
+     * Returns suffixes of all tables holding the account's transactions,
+     * the table new transactions are saved to comes first.
+     *
+     * @return {List<String>} Returns suffixes of the transaction tables.
+     */
+    public List<String> getTableNameSuffixes() {
+        if (previousTableNameSuffix == null) {
+            return Collections.singletonList(tableNameSuffix);
+        }
+
+        List<String> tableNameSuffixes = new ArrayList<>(2);
+        tableNameSuffixes.add(tableNameSuffix);
+        tableNameSuffixes.add(previousTableNameSuffix);
+        return tableNameSuffixes;
+    }
+
+    /**
+     * Returns a string of current account shard data.
+     * @return {String} Returns a string of current account shard data.
+     */
+    @Override
+    public String toString() {
+        return "AccountShard{" +
+                "accountIban='" + accountIban + '\'' +
+                ", tableNameSuffix='" + tableNameSuffix + '\'' +
+                ", previousTableNameSuffix='" + previousTableNameSuffix + '\'' +
+                ", pinned=" + pinned +
+                '}';
+    }
+}
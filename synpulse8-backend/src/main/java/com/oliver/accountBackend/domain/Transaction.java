@@ -2,11 +2,13 @@ package com.oliver.accountBackend.domain;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.oliver.util.CurrencyUtil;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import org.apache.ibatis.type.Alias;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.util.Date;
 import java.util.Objects;
 
@@ -29,6 +31,20 @@ public class Transaction implements Serializable {
     @ApiModelProperty(value = "Transaction's amount with currency (e.g. CHF 75)", required = true)
     private String amount;
 
+    /**
+     * Transaction's amount in minor units of its currency.
+     * (e.g. 7500 for CHF 75)
+     */
+    @ApiModelProperty("Transaction's amount in minor units of its currency (e.g. 7500 for CHF 75)")
+    private Long amountMinorUnits;
+
+    /**
+     * ISO 4217 code of transaction's currency.
+     * (e.g. CHF)
+     */
+    @ApiModelProperty("ISO 4217 code of transaction's currency (e.g. CHF)")
+    private String currency;
+
     /**
      * Account's iban.
      */
@@ -71,7 +87,7 @@ public class Transaction implements Serializable {
             String description
     ) {
         this.transactionId = transactionId;
-        this.amount = amount;
+        setAmount(amount);
         this.accountIban = accountIban;
         this.valueDate = valueDate;
         this.description = description;
@@ -93,6 +109,37 @@ public class Transaction implements Serializable {
         return amount;
     }
 
+    /**
+     * Sets transaction's amount with currency, together with
+     * the amount in minor units and the currency parsed from it.
+     *
+     * @param amount {String} Transaction's amount with currency.
+     */
+    public void setAmount(String amount) {
+        this.amount = amount;
+        parseAmount();
+    }
+
+    /**
+     * Returns transaction's amount in minor units of its currency.
+     *
+     * @return {Long} Returns transaction's amount in minor units,
+     *                or null if the amount cannot be parsed.
+     */
+    public Long getAmountMinorUnits() {
+        return amountMinorUnits;
+    }
+
+    /**
+     * Returns ISO 4217 code of transaction's currency.
+     *
+     * @return {String} Returns transaction's currency code,
+     *                  or null if the amount cannot be parsed.
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
     /**
      * Returns transaction's account iban.
      * @return {String} Returns transaction's account iban.
@@ -126,12 +173,35 @@ public class Transaction implements Serializable {
         return "Transaction{" +
                 "transactionId='" + transactionId + '\'' +
                 ", amount='" + amount + '\'' +
+                ", amountMinorUnits=" + amountMinorUnits +
+                ", currency='" + currency + '\'' +
                 ", accountIban='" + accountIban + '\'' +
                 ", valueDate=" + valueDate + '\'' +
                 ", description='" + description + '\'' +
                 '}';
     }
 
+    /**
+     * Parses the amount with currency to minor units and currency code.
+     * (e.g. CHF 75 to 7500 and CHF)
+     * Leaves both null if the amount is not in that form.
+     */
+    private void parseAmount() {
+        amountMinorUnits = null;
+        currency = null;
+        if (amount == null || amount.length() < 5 || amount.charAt(3) != ' ') {
+            return;
+        }
+
+        String currencyCode = amount.substring(0, 3);
+        try {
+            amountMinorUnits = CurrencyUtil.toMinorUnits(new BigDecimal(amount.substring(4)), currencyCode);
+            currency = currencyCode;
+        } catch (NumberFormatException | ArithmeticException e) {
+            // Leaves the amount untyped.
+        }
+    }
+
     /**
      * Compares between the given object and current transaction.
      * Returns a flag to indicate whether they are equal.
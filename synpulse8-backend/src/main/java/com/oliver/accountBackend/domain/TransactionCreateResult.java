@@ -0,0 +1,113 @@
+package com.oliver.accountBackend.domain;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of creating a single transaction as part of a bulk submission.
+ */
+@ApiModel
+public class TransactionCreateResult implements Serializable {
+    private static final long serialVersionUID = -3094772365814720519L;
+
+    /**
+     * Possible outcomes of creating a transaction.
+     */
+    public enum Status {
+        /**
+         * Transaction has been sent to kafka.
+         */
+        CREATED,
+
+        /**
+         * Transaction has been saved to db before or is submitted
+         * more than once, nothing is sent.
+         */
+        DUPLICATED,
+
+        /**
+         * Transaction is invalid (e.g. its id is too long), nothing is sent.
+         */
+        INVALID,
+
+        /**
+         * Transaction cannot be sent to kafka.
+         */
+        FAILED
+    }
+
+    /**
+     * Transaction's unique identifier.
+     */
+    @ApiModelProperty(value = "Transaction's unique identifier")
+    private String transactionId;
+
+    /**
+     * Outcome of creating the transaction.
+     */
+    @ApiModelProperty(value = "Outcome of creating the transaction", required = true)
+    private Status status;
+
+    /**
+     * Reason of the outcome if transaction is not created.
+     */
+    @ApiModelProperty(value = "Reason of the outcome if transaction is not created")
+    private String message;
+
+    /**
+     * Non parameters' constructor.
+     */
+    public TransactionCreateResult() {}
+
+    /**
+     * Generates a result based on its transaction id, status and message.
+     *
+     * @param transactionId {String} Transaction's unique identifier.
+     * @param status {Status} Outcome of creating the transaction.
+     * @param message {String} Reason of the outcome if transaction is not created.
+     */
+    public TransactionCreateResult(String transactionId, Status status, String message) {
+        this.transactionId = transactionId;
+        this.status = status;
+        this.message = message;
+    }
+
+    /**
+     * Returns transaction's unique identifier.
+     * @return {String} Returns transaction's unique identifier.
+     */
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * Returns outcome of creating the transaction.
+     * @return {Status} Returns outcome of creating the transaction.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns reason of the outcome if transaction is not created.
+     * @return {String} Returns reason of the outcome.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns a string of current result data.
+     * @return {String} Returns a string of current result data.
+     */
+    @Override
+    public String toString() {
+        return "TransactionCreateResult{" +
+                "transactionId='" + transactionId + '\'' +
+                ", status=" + status +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
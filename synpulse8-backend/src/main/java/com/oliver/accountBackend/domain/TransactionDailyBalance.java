@@ -0,0 +1,184 @@
+package com.oliver.accountBackend.domain;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.oliver.util.CurrencyUtil;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import org.apache.ibatis.type.Alias;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Totals of an account's transactions in one currency on one value date,
+ * kept up to date as transactions are consumed.
+ */
+@ApiModel
+@Alias("TransactionDailyBalance")
+public class TransactionDailyBalance implements Serializable {
+    private static final long serialVersionUID = 2271735016532740369L;
+
+    /**
+     * Account's iban.
+     */
+    @ApiModelProperty(value = "Account's IBAN", required = true)
+    private String accountIban;
+
+    /**
+     * Transactions' date.
+     * (e.g. 29-10-2022)
+     */
+    @ApiModelProperty(value = "Transactions' date", example = "30-10-2022", required = true)
+    @JsonFormat(pattern = "dd-MM-yyyy", timezone = "GMT+8")
+    private Date valueDate;
+
+    /**
+     * ISO 4217 code of transactions' currency, null for untyped transactions.
+     */
+    @ApiModelProperty("ISO 4217 code of transactions' currency")
+    private String currency;
+
+    /**
+     * Number of transactions.
+     */
+    @ApiModelProperty(value = "Number of transactions", required = true)
+    private long total;
+
+    /**
+     * Sum of positive amounts in minor units of the currency.
+     */
+    @ApiModelProperty(hidden = true)
+    @JsonIgnore
+    private long debitMinorUnits;
+
+    /**
+     * Sum of negative amounts in minor units of the currency.
+     */
+    @ApiModelProperty(hidden = true)
+    @JsonIgnore
+    private long creditMinorUnits;
+
+    /**
+     * Non parameters' constructor.
+     */
+    public TransactionDailyBalance() {}
+
+    /**
+     * Generates an empty daily balance of the given account, date and currency.
+     *
+     * @param accountIban {String} Account's iban.
+     * @param valueDate {Date} Transactions' date.
+     * @param currency {String} ISO 4217 code of transactions' currency, null for untyped transactions.
+     */
+    public TransactionDailyBalance(String accountIban, Date valueDate, String currency) {
+        this.accountIban = accountIban;
+        this.valueDate = valueDate;
+        this.currency = currency;
+    }
+
+    /**
+     * Adds the given transaction to the totals.  Untyped amounts
+     * are counted but left out of the sums.
+     *
+     * @param transaction {Transaction} A transaction of the account on the date,
+     *                                  in the currency of the balance.
+     */
+    public void addTransaction(Transaction transaction) {
+        total++;
+
+        Long amountMinorUnits = transaction.getAmountMinorUnits();
+        if (amountMinorUnits == null) {
+            return;
+        }
+
+        if (amountMinorUnits > 0) {
+            debitMinorUnits += amountMinorUnits;
+        } else {
+            creditMinorUnits += amountMinorUnits;
+        }
+    }
+
+    /**
+     * Returns account's iban.
+     * @return {String} Returns account's iban.
+     */
+    public String getAccountIban() {
+        return accountIban;
+    }
+
+    /**
+     * Returns transactions' date.
+     * @return {Date} Returns transactions' date.
+     */
+    public Date getValueDate() {
+        return valueDate;
+    }
+
+    /**
+     * Returns ISO 4217 code of transactions' currency.
+     * @return {String} Returns transactions' currency code.
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Returns number of transactions.
+     * @return {long} Returns number of transactions.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns sum of positive amounts in minor units of the currency.
+     * @return {long} Returns sum of positive amounts in minor units.
+     */
+    public long getDebitMinorUnits() {
+        return debitMinorUnits;
+    }
+
+    /**
+     * Returns sum of negative amounts in minor units of the currency.
+     * @return {long} Returns sum of negative amounts in minor units.
+     */
+    public long getCreditMinorUnits() {
+        return creditMinorUnits;
+    }
+
+    /**
+     * Returns total debit of the transactions.
+     * @return {BigDecimal} Returns sum of positive amounts.
+     */
+    @ApiModelProperty(value = "Total debit of the transactions", required = true)
+    public BigDecimal getDebit() {
+        return CurrencyUtil.toMajorUnits(debitMinorUnits, currency);
+    }
+
+    /**
+     * Returns total credit of the transactions.
+     * @return {BigDecimal} Returns sum of negative amounts.
+     */
+    @ApiModelProperty(value = "Total credit of the transactions", required = true)
+    public BigDecimal getCredit() {
+        return CurrencyUtil.toMajorUnits(creditMinorUnits, currency);
+    }
+
+    /**
+     * Returns a string of current daily balance data.
+     * @return {String} Returns a string of current daily balance data.
+     */
+    @Override
+    public String toString() {
+        return "TransactionDailyBalance{" +
+                "accountIban='" + accountIban + '\'' +
+                ", valueDate=" + valueDate +
+                ", currency='" + currency + '\'' +
+                ", total=" + total +
+                ", debitMinorUnits=" + debitMinorUnits +
+                ", creditMinorUnits=" + creditMinorUnits +
+                '}';
+    }
+}
@@ -0,0 +1,113 @@
+package com.oliver.accountBackend.domain;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of saving a single transaction as part of a batch.
+ */
+@ApiModel
+public class TransactionSaveResult implements Serializable {
+    private static final long serialVersionUID = 4518243806927331657L;
+
+    /**
+     * Possible outcomes of saving a transaction.
+     */
+    public enum Status {
+        /**
+         * Transaction has been saved to db.
+         */
+        SAVED,
+
+        /**
+         * Transaction has been saved to db before, nothing is written.
+         */
+        DUPLICATED,
+
+        /**
+         * Transaction cannot be saved to db, saving it again will not succeed.
+         */
+        FAILED,
+
+        /**
+         * Transaction cannot be saved to db for now (e.g. db is unavailable),
+         * saving it again may succeed.
+         */
+        RETRYABLE
+    }
+
+    /**
+     * Transaction's unique identifier.
+     */
+    @ApiModelProperty(value = "Transaction's unique identifier")
+    private String transactionId;
+
+    /**
+     * Outcome of saving the transaction.
+     */
+    @ApiModelProperty(value = "Outcome of saving the transaction", required = true)
+    private Status status;
+
+    /**
+     * Reason of the outcome if transaction is not saved.
+     */
+    @ApiModelProperty(value = "Reason of the outcome if transaction is not saved")
+    private String message;
+
+    /**
+     * Non parameters' constructor.
+     */
+    public TransactionSaveResult() {}
+
+    /**
+     * Generates a result based on its transaction id, status and message.
+     *
+     * @param transactionId {String} Transaction's unique identifier.
+     * @param status {Status} Outcome of saving the transaction.
+     * @param message {String} Reason of the outcome if transaction is not saved.
+     */
+    public TransactionSaveResult(String transactionId, Status status, String message) {
+        this.transactionId = transactionId;
+        this.status = status;
+        this.message = message;
+    }
+
+    /**
+     * Returns transaction's unique identifier.
+     * @return {String} Returns transaction's unique identifier.
+     */
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    /**
+     * Returns outcome of saving the transaction.
+     * @return {Status} Returns outcome of saving the transaction.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns reason of the outcome if transaction is not saved.
+     * @return {String} Returns reason of the outcome.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns a string of current result data.
+     * @return {String} Returns a string of current result data.
+     */
+    @Override
+    public String toString() {
+        return "TransactionSaveResult{" +
+                "transactionId='" + transactionId + '\'' +
+                ", status=" + status +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
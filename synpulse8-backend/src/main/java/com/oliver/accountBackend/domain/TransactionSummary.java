@@ -0,0 +1,135 @@
+package com.oliver.accountBackend.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.oliver.util.CurrencyUtil;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import org.apache.ibatis.type.Alias;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Totals of an account's transactions within a date range,
+ * aggregated by db in one query.
+ */
+@ApiModel
+@Alias("TransactionSummary")
+public class TransactionSummary implements Serializable {
+    private static final long serialVersionUID = 5046427118359283418L;
+
+    /**
+     * Total number of transactions.
+     */
+    @ApiModelProperty(value = "Total number of transactions", required = true)
+    private long total;
+
+    /**
+     * ISO 4217 code of transactions' currency, null if there are no typed transactions.
+     */
+    @ApiModelProperty("ISO 4217 code of transactions' currency")
+    private String currency;
+
+    /**
+     * Sum of positive amounts in minor units of the currency.
+     */
+    @ApiModelProperty(hidden = true)
+    @JsonIgnore
+    private long totalDebitMinorUnits;
+
+    /**
+     * Sum of negative amounts in minor units of the currency.
+     */
+    @ApiModelProperty(hidden = true)
+    @JsonIgnore
+    private long totalCreditMinorUnits;
+
+    /**
+     * Non parameters' constructor.
+     */
+    public TransactionSummary() {}
+
+    /**
+     * Generates a summary based on its total, currency, debit and credit.
+     *
+     * @param total {long} Total number of transactions.
+     * @param currency {String} ISO 4217 code of transactions' currency.
+     * @param totalDebitMinorUnits {long} Sum of positive amounts in minor units.
+     * @param totalCreditMinorUnits {long} Sum of negative amounts in minor units.
+     */
+    public TransactionSummary(
+            long total,
+            String currency,
+            long totalDebitMinorUnits,
+            long totalCreditMinorUnits
+    ) {
+        this.total = total;
+        this.currency = currency;
+        this.totalDebitMinorUnits = totalDebitMinorUnits;
+        this.totalCreditMinorUnits = totalCreditMinorUnits;
+    }
+
+    /**
+     * Returns total number of transactions.
+     * @return {long} Returns total number of transactions.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns ISO 4217 code of transactions' currency.
+     * @return {String} Returns transactions' currency code.
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Returns sum of positive amounts in minor units of the currency.
+     * @return {long} Returns sum of positive amounts in minor units.
+     */
+    public long getTotalDebitMinorUnits() {
+        return totalDebitMinorUnits;
+    }
+
+    /**
+     * Returns sum of negative amounts in minor units of the currency.
+     * @return {long} Returns sum of negative amounts in minor units.
+     */
+    public long getTotalCreditMinorUnits() {
+        return totalCreditMinorUnits;
+    }
+
+    /**
+     * Returns total debit of the transactions.
+     * @return {BigDecimal} Returns sum of positive amounts.
+     */
+    @ApiModelProperty(value = "Total debit of the transactions", required = true)
+    public BigDecimal getTotalDebit() {
+        return CurrencyUtil.toMajorUnits(totalDebitMinorUnits, currency);
+    }
+
+    /**
+     * Returns total credit of the transactions.
+     * @return {BigDecimal} Returns sum of negative amounts.
+     */
+    @ApiModelProperty(value = "Total credit of the transactions", required = true)
+    public BigDecimal getTotalCredit() {
+        return CurrencyUtil.toMajorUnits(totalCreditMinorUnits, currency);
+    }
+
+    /**
+     * Returns a string of current summary data.
+     * @return {String} Returns a string of current summary data.
+     */
+    @Override
+    public String toString() {
+        return "TransactionSummary{" +
+                "total=" + total +
+                ", currency='" + currency + '\'' +
+                ", totalDebitMinorUnits=" + totalDebitMinorUnits +
+                ", totalCreditMinorUnits=" + totalCreditMinorUnits +
+                '}';
+    }
+}
@@ -0,0 +1,61 @@
+package com.oliver.accountBackend.export;
+
+import com.oliver.exceptions.ValidationException;
+
+/**
+ * Formats of exported transactions.
+ */
+public enum TransactionExportFormat {
+    /**
+     * One transaction json per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * Comma-separated values with a header row.
+     */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+
+    private final String fileExtension;
+
+    TransactionExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Returns the format of the given name, case-insensitively.
+     *
+     * @param name {String} Name of the format. (e.g. csv)
+     *
+     * @return {TransactionExportFormat} Returns the format of the name.
+     * @throws ValidationException Throws ValidationException if the format is not supported.
+     */
+    public static TransactionExportFormat of(String name) {
+        for (TransactionExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+
+        throw new ValidationException(String.format("Unsupported export format - %s", name));
+    }
+
+    /**
+     * Returns the http content type of the format.
+     * @return {String} Returns the http content type of the format.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Returns the file extension of the format.
+     * @return {String} Returns the file extension of the format.
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
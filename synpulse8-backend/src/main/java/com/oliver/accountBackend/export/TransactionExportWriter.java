@@ -0,0 +1,153 @@
+package com.oliver.accountBackend.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.oliver.accountBackend.domain.Transaction;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.TimeZone;
+
+/**
+ * Writes transactions one by one to an output stream in the given format.
+ * <p>
+ * Only a fixed size buffer is kept in memory, so any number of
+ * transactions can be written.  Not thread-safe, create one writer
+ * per export.
+ */
+public class TransactionExportWriter {
+    private static final ObjectWriter TRANSACTION_WRITER = new ObjectMapper()
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+            .configure(SerializationFeature.FLUSH_AFTER_WRITE_VALUE, false)
+            .writerFor(Transaction.class);
+
+    private static final String CSV_HEADER =
+            "transactionId,amount,amountMinorUnits,currency,accountIban,valueDate,description";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final TransactionExportFormat format;
+
+    private final Writer writer;
+
+    /**
+     * Value dates are written as in json. (e.g. 30-10-2022)
+     */
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd-MM-yyyy");
+
+    private boolean started;
+
+    private long count;
+
+    /**
+     * Generates a writer of the given format.
+     *
+     * @param format {TransactionExportFormat} Format of the transactions.
+     * @param out {OutputStream} Stream the transactions are written to, not closed by this writer.
+     */
+    public TransactionExportWriter(TransactionExportFormat format, OutputStream out) {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.dateFormat.setTimeZone(TimeZone.getTimeZone("GMT+8"));
+    }
+
+    /**
+     * Writes the header of the format if it has not been written.
+     * Called before the first transaction, so an empty export still has a header.
+     *
+     * @throws IOException Throws IOException if the stream cannot be written.
+     */
+    public void start() throws IOException {
+        if (started) {
+            return;
+        }
+
+        started = true;
+        if (format == TransactionExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Writes the given transaction.
+     *
+     * @param transaction {Transaction} A transaction to export.
+     * @throws IOException Throws IOException if the stream cannot be written.
+     */
+    public void write(Transaction transaction) throws IOException {
+        start();
+
+        if (format == TransactionExportFormat.NDJSON) {
+            TRANSACTION_WRITER.writeValue(writer, transaction);
+        } else {
+            writeCsvField(transaction.getTransactionId());
+            writer.write(',');
+            writeCsvField(transaction.getAmount());
+            writer.write(',');
+            Long amountMinorUnits = transaction.getAmountMinorUnits();
+            writeCsvField(amountMinorUnits == null ? null : amountMinorUnits.toString());
+            writer.write(',');
+            writeCsvField(transaction.getCurrency());
+            writer.write(',');
+            writeCsvField(transaction.getAccountIban());
+            writer.write(',');
+            writeCsvField(transaction.getValueDate() == null ? null : dateFormat.format(transaction.getValueDate()));
+            writer.write(',');
+            writeCsvField(transaction.getDescription());
+        }
+        writer.write('\n');
+        count++;
+    }
+
+    /**
+     * Returns the number of written transactions.
+     * @return {long} Returns the number of written transactions.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Flushes the buffered transactions to the stream.
+     *
+     * @throws IOException Throws IOException if the stream cannot be written.
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Writes a csv field, quoting it if it contains a separator, quote or line break.
+     *
+     * @param value {String} Value of the field, null is written as an empty field.
+     * @throws IOException Throws IOException if the stream cannot be written.
+     */
+    private void writeCsvField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quoted) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -10,6 +10,13 @@ import io.swagger.annotations.ApiModelProperty;
 @ApiModel("A creating transaction submit form")
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class CreateTransactionForm {
+    /**
+     * Transaction's unique identifier.
+     * A random one is generated if not provided.
+     */
+    @ApiModelProperty(value = "Transaction's unique identifier, only used by bulk submission")
+    private String transactionId;
+
     /**
      * Transaction's amount.
      */
@@ -22,6 +29,32 @@ public class CreateTransactionForm {
     @ApiModelProperty("Additional description of the transaction")
     private String description;
 
+    /**
+     * Non parameters' constructor.
+     */
+    public CreateTransactionForm() {}
+
+    /**
+     * Generates a form based on its transaction id, amount and description.
+     *
+     * @param transactionId {String} Transaction's unique identifier (Optional).
+     * @param amount {double} Transaction's amount.
+     * @param description {String} Additional description of the transaction.
+     */
+    public CreateTransactionForm(String transactionId, double amount, String description) {
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.description = description;
+    }
+
+    /**
+     * Returns transaction's unique identifier.
+     * @return {String} Returns transaction's unique identifier.
+     */
+    public String getTransactionId() {
+        return transactionId;
+    }
+
     /**
      * Returns transaction's amount.
      * @return {String} Returns transaction's amount.
@@ -0,0 +1,109 @@
+package com.oliver.accountBackend.listener;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.*;
+
+/**
+ * Tracks which records of a consumed batch have been processed,
+ * so that only the processed prefix of each partition is committed.
+ * <p>
+ * Records can be marked as processed from several worker threads.
+ */
+public class OffsetTracker {
+    /**
+     * Offsets of the batch per partition, in ascending order.
+     * Value is a flag indicated whether the record has been processed.
+     */
+    private final Map<TopicPartition, TreeMap<Long, Boolean>> offsets = new HashMap<>();
+
+    /**
+     * Creates a tracker for the given batch, none of the records is processed.
+     *
+     * @param records {List<ConsumerRecord<K, V>>} A batch of consumed records.
+     */
+    public <K, V> OffsetTracker(List<ConsumerRecord<K, V>> records) {
+        records.forEach(record ->
+                offsets
+                        .computeIfAbsent(getTopicPartition(record), key -> new TreeMap<>())
+                        .put(record.offset(), false)
+        );
+    }
+
+    /**
+     * Marks the given record as processed.
+     *
+     * @param record {ConsumerRecord<K, V>} A record of the batch.
+     */
+    public synchronized <K, V> void markProcessed(ConsumerRecord<K, V> record) {
+        TreeMap<Long, Boolean> partitionOffsets = offsets.get(getTopicPartition(record));
+        if (partitionOffsets != null && partitionOffsets.containsKey(record.offset())) {
+            partitionOffsets.put(record.offset(), true);
+        }
+    }
+
+    /**
+     * Returns a flag indicated whether all records of the batch are processed.
+     *
+     * @return {boolean} Returns true if all records are processed.
+     */
+    public synchronized boolean isFullyProcessed() {
+        return offsets.values().stream()
+                .allMatch(partitionOffsets -> !partitionOffsets.containsValue(false));
+    }
+
+    /**
+     * Returns the offsets to commit for each partition, which is the offset
+     * after the highest processed record without unprocessed records before it.
+     * Partitions whose first record is not processed are left out.
+     *
+     * @return {Map<TopicPartition, OffsetAndMetadata>} Returns the offsets to commit.
+     */
+    public synchronized Map<TopicPartition, OffsetAndMetadata> getCommittableOffsets() {
+        Map<TopicPartition, OffsetAndMetadata> committableOffsets = new HashMap<>();
+        offsets.forEach((topicPartition, partitionOffsets) -> {
+            Long lastProcessedOffset = null;
+            for (Map.Entry<Long, Boolean> entry : partitionOffsets.entrySet()) {
+                if (!entry.getValue()) {
+                    break;
+                }
+                lastProcessedOffset = entry.getKey();
+            }
+
+            if (lastProcessedOffset != null) {
+                committableOffsets.put(
+                        topicPartition,
+                        new OffsetAndMetadata(lastProcessedOffset + 1)
+                );
+            }
+        });
+
+        return committableOffsets;
+    }
+
+    /**
+     * Returns the lowest unprocessed offset of each partition,
+     * which is where the partition has to be consumed again.
+     *
+     * @return {Map<TopicPartition, Long>} Returns the offsets to seek to.
+     */
+    public synchronized Map<TopicPartition, Long> getUnprocessedOffsets() {
+        Map<TopicPartition, Long> unprocessedOffsets = new HashMap<>();
+        offsets.forEach((topicPartition, partitionOffsets) -> {
+            for (Map.Entry<Long, Boolean> entry : partitionOffsets.entrySet()) {
+                if (!entry.getValue()) {
+                    unprocessedOffsets.put(topicPartition, entry.getKey());
+                    break;
+                }
+            }
+        });
+
+        return unprocessedOffsets;
+    }
+
+    private static <K, V> TopicPartition getTopicPartition(ConsumerRecord<K, V> record) {
+        return new TopicPartition(record.topic(), record.partition());
+    }
+}
@@ -0,0 +1,68 @@
+package com.oliver.accountBackend.listener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An Util class to split a batch of items into work units
+ * without spreading the items of one shard over several units.
+ */
+public class ShardPartitioner {
+    /**
+     * Splits the given items into work units.
+     * <p>
+     * Items are grouped by their shard key first, then the groups are
+     * assigned to the least loaded unit, largest group first.  Items of the
+     * same shard keep their original order and always end up in one unit.
+     * <p>
+     * The number of units is bounded by the parallelism, the number of
+     * shards and the batch size divided by the minimum unit size.
+     *
+     * @param items {List<T>} A batch of items.
+     * @param shardKey {Function<T, String>} Returns the shard key of an item.
+     * @param parallelism {int} Maximum number of units.
+     * @param minUnitSize {int} Minimum number of items worth a separate unit.
+     *
+     * @return {List<List<T>>} Returns a list of non-empty work units.
+     */
+    public static <T> List<List<T>> partition(
+            List<T> items,
+            Function<T, String> shardKey,
+            int parallelism,
+            int minUnitSize
+    ) {
+        List<List<T>> units = new ArrayList<>();
+        if (items.isEmpty()) {
+            return units;
+        }
+
+        Map<String, List<T>> shards = new LinkedHashMap<>();
+        items.forEach(item ->
+                shards.computeIfAbsent(shardKey.apply(item), key -> new ArrayList<>()).add(item)
+        );
+
+        int unitsBySize = (items.size() + Math.max(minUnitSize, 1) - 1) / Math.max(minUnitSize, 1);
+        int unitsNumber = Math.max(1, Math.min(Math.min(parallelism, shards.size()), unitsBySize));
+        for (int i = 0; i < unitsNumber; i++) {
+            units.add(new ArrayList<>());
+        }
+
+        List<List<T>> shardGroups = new ArrayList<>(shards.values());
+        shardGroups.sort(Comparator.comparingInt((List<T> shard) -> shard.size()).reversed());
+        for (List<T> shard : shardGroups) {
+            List<T> leastLoadedUnit = units.get(0);
+            for (List<T> unit : units) {
+                if (unit.size() < leastLoadedUnit.size()) {
+                    leastLoadedUnit = unit;
+                }
+            }
+            leastLoadedUnit.addAll(shard);
+        }
+
+        return units;
+    }
+}
@@ -1,21 +1,30 @@
 package com.oliver.accountBackend.listener;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oliver.accountBackend.codec.TransactionDeserializer;
 import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.domain.TransactionSaveResult;
 import com.oliver.accountBackend.manager.AccountTransactionManager;
+import com.oliver.accountBackend.shard.TransactionRoutingDataSource;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 
@@ -26,64 +35,218 @@ public class TransactionListener {
 
     private DataSourceTransactionManager transactionManager;
 
+    private TransactionRoutingDataSource transactionRoutingDataSource;
+
     @Resource(name = "taskExecutor")
     private Executor taskExecutor;
 
+    @Value("${transaction-listener.parallelism}")
+    private int parallelism;
+
+    @Value("${transaction-listener.min-batch-size}")
+    private int minBatchSize;
+
+    @Value("${transaction-listener.retry-backoff-millis}")
+    private long retryBackoffMillis;
+
+    /**
+     * Saves a batch of consumed transactions to db.
+     * Records are parsed by {@link TransactionDeserializer} before they reach the listener.
+     * <p>
+     * Offsets are acknowledged manually after the db transactions are committed.
+     * If some records are not saved, only the processed prefix of each partition
+     * is committed and the rest of the partition will be consumed again
+     * after a pause, so that an unavailable db is not retried in a busy loop.
+     */
     @KafkaListener(topics = "#{'${kafka-topic}'}", groupId = "save-transaction")
-    public void saveTransactions(List<ConsumerRecord<String, String>> records) throws InterruptedException {
+    public void saveTransactions(
+            List<ConsumerRecord<String, Transaction>> records,
+            Acknowledgment acknowledgment,
+            Consumer<?, ?> consumer
+    ) throws InterruptedException {
         if (records.isEmpty()) {
             return;
         }
 
-        int messagesSize = records.size();
-        CountDownLatch countDownLatch = new CountDownLatch(5);
+        OffsetTracker offsetTracker = new OffsetTracker(records);
+
+        List<ConsumerRecord<String, Transaction>> parsedRecords = new ArrayList<>();
+        List<Transaction> transactions = new ArrayList<>();
+        for (ConsumerRecord<String, Transaction> record : records) {
+            Transaction transaction = record.value();
+
+            // Records failed to deserialize are delivered with a null value.
+            if (transaction == null) {
+                log.error(
+                        "Failed to parse transaction to current transaction model, partition - {}, offset - {}",
+                        record.partition(),
+                        record.offset()
+                );
+
+                // A record that cannot be parsed will never be saved, skip it.
+                offsetTracker.markProcessed(record);
+                continue;
+            }
+
+            parsedRecords.add(record);
+            transactions.add(transaction);
+        }
+
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            positions.add(i);
+        }
 
-        for (int i = 0; i < 5; i++) {
-            int startPosition = i * 200;
-            int endPosition = (i + 1) * 200;
+        // Transactions of the same table are always saved by one worker.
+        List<List<Integer>> units = ShardPartitioner.partition(
+                positions,
+                position -> getShardKey(transactions.get(position)),
+                parallelism,
+                minBatchSize
+        );
+        CountDownLatch countDownLatch = new CountDownLatch(units.size());
 
+        for (List<Integer> unit : units) {
             taskExecutor.execute(() -> {
-                if (startPosition <= messagesSize) {
-                    DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
-                    definition.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
-                    TransactionStatus transactionStatus = transactionManager.getTransaction(definition);
-
-                    for (int j = startPosition; j < Math.min(endPosition, messagesSize); j++) {
-                        ConsumerRecord<String, String> record = records.get(j);
-                        String transactionJson = record.value();
-                        long offset = record.offset();
-
-                        try {
-                            Transaction transaction =
-                                    new ObjectMapper().readValue(transactionJson, Transaction.class);
-
-                            accountTransactionManager
-                                    .saveTransactionsToDBFromKafka(transaction, transactionJson);
-
-                        } catch (JsonProcessingException e) {
-                            log.error(
-                                    "Failed to parse transaction - {} to current transaction model, offset - {}",
-                                    transactionJson,
-                                    offset
-                            );
-                        } catch (Exception e) {
-                            log.error(
-                                    "Failed to save transaction - {} to db, offset - {}",
-                                    transactionJson,
-                                    offset
-                            );
-                            log.error(e.getMessage());
-                        }
-                    }
-
-                    transactionManager.commit(transactionStatus);
+                try {
+                    saveTransactionsByDataSource(unit, parsedRecords, transactions, offsetTracker);
+                } finally {
+                    countDownLatch.countDown();
                 }
-
-                countDownLatch.countDown();
             });
         }
 
         countDownLatch.await();
+
+        if (offsetTracker.isFullyProcessed()) {
+            acknowledgment.acknowledge();
+            return;
+        }
+
+        Map<TopicPartition, OffsetAndMetadata> committableOffsets =
+                offsetTracker.getCommittableOffsets();
+        if (!committableOffsets.isEmpty()) {
+            consumer.commitSync(committableOffsets);
+        }
+
+        Thread.sleep(retryBackoffMillis);
+        offsetTracker.getUnprocessedOffsets().forEach((topicPartition, offset) -> {
+            log.warn("Consuming {} again from offset - {}", topicPartition, offset);
+            consumer.seek(topicPartition, offset);
+        });
+    }
+
+    /**
+     * Saves the transactions at the given positions with one db transaction
+     * per MySQL instance holding their transaction tables.
+     *
+     * @param positions {List<Integer>} Positions of the transactions to save.
+     * @param records {List<ConsumerRecord<String, Transaction>>} Records of the parsed transactions.
+     * @param transactions {List<Transaction>} Parsed transactions.
+     * @param offsetTracker {OffsetTracker} Tracker of the processed records.
+     */
+    private void saveTransactionsByDataSource(
+            List<Integer> positions,
+            List<ConsumerRecord<String, Transaction>> records,
+            List<Transaction> transactions,
+            OffsetTracker offsetTracker
+    ) {
+        Map<Integer, List<Integer>> positionsByDataSource = new LinkedHashMap<>();
+        positions.forEach(position ->
+                positionsByDataSource
+                        .computeIfAbsent(
+                                transactionRoutingDataSource.getDataSourceIndex(
+                                        getShardKey(transactions.get(position))
+                                ),
+                                key -> new ArrayList<>()
+                        )
+                        .add(position)
+        );
+
+        // The instance must be selected before the db transaction takes its connection.
+        positionsByDataSource.forEach((dataSourceIndex, dataSourcePositions) ->
+                transactionRoutingDataSource.runWithDataSource(dataSourceIndex, () -> {
+                    saveTransactions(dataSourcePositions, records, transactions, offsetTracker);
+                    return null;
+                })
+        );
+    }
+
+    /**
+     * Saves the transactions at the given positions in one db transaction.
+     * Marks their records as processed once the db transaction is committed,
+     * except records of transactions that may be saved by retrying.
+     *
+     * @param positions {List<Integer>} Positions of the transactions to save.
+     * @param records {List<ConsumerRecord<String, Transaction>>} Records of the parsed transactions.
+     * @param transactions {List<Transaction>} Parsed transactions.
+     * @param offsetTracker {OffsetTracker} Tracker of the processed records.
+     */
+    private void saveTransactions(
+            List<Integer> positions,
+            List<ConsumerRecord<String, Transaction>> records,
+            List<Transaction> transactions,
+            OffsetTracker offsetTracker
+    ) {
+        List<Transaction> unitTransactions = new ArrayList<>();
+        positions.forEach(position -> unitTransactions.add(transactions.get(position)));
+
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        TransactionStatus transactionStatus = transactionManager.getTransaction(definition);
+
+        List<TransactionSaveResult> results;
+        try {
+            results = accountTransactionManager.saveTransactionsToDBFromKafka(unitTransactions);
+            transactionManager.commit(transactionStatus);
+        } catch (Exception e) {
+            log.error("Failed to save {} transactions to db", unitTransactions.size());
+            log.error(e.getMessage());
+            if (!transactionStatus.isCompleted()) {
+                transactionManager.rollback(transactionStatus);
+            }
+            return;
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            TransactionSaveResult result = results.get(i);
+            ConsumerRecord<String, Transaction> record = records.get(positions.get(i));
+
+            // Records failed to save for good are logged and skipped,
+            // retryable ones are left unprocessed to be consumed again.
+            if (result.getStatus() != TransactionSaveResult.Status.RETRYABLE) {
+                offsetTracker.markProcessed(record);
+            }
+
+            if (result.getStatus() == TransactionSaveResult.Status.SAVED) {
+                continue;
+            }
+
+            log.error(
+                    "Failed to save transaction - {} to db, offset - {}, status - {}",
+                    record.value().getTransactionId(),
+                    record.offset(),
+                    result.getStatus()
+            );
+            log.error(result.getMessage());
+        }
+    }
+
+    /**
+     * Returns the shard key of the given transaction.
+     * Unsupported transactions without iban share one key.
+     *
+     * @param transaction {Transaction} A parsed transaction.
+     *
+     * @return {String} Returns the shard key of the transaction.
+     */
+    private String getShardKey(Transaction transaction) {
+        String accountIban = transaction.getAccountIban();
+        if (accountIban == null) {
+            return "";
+        }
+
+        return accountTransactionManager.getTransactionTableNameSuffix(accountIban);
     }
 
     @Autowired
@@ -91,6 +254,11 @@ public class TransactionListener {
         this.accountTransactionManager = accountTransactionManager;
     }
 
+    @Autowired
+    public void setTransactionRoutingDataSource(TransactionRoutingDataSource transactionRoutingDataSource) {
+        this.transactionRoutingDataSource = transactionRoutingDataSource;
+    }
+
     @Autowired
     public void setDataSourceTransactionManager(DataSourceTransactionManager dataSourceTransactionManager) {
         this.transactionManager = dataSourceTransactionManager;
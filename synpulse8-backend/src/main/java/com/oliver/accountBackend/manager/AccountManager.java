@@ -1,8 +1,11 @@
 package com.oliver.accountBackend.manager;
 
+import com.oliver.accountBackend.cache.AccountCache;
 import com.oliver.accountBackend.domain.Account;
 import com.oliver.accountBackend.mapper.AccountMapper;
 import com.oliver.accountBackend.mapper.UserAccountMapper;
+import com.oliver.accountBackend.shard.ReplicaReadGuard;
+import com.oliver.accountBackend.shard.TransactionShardRouter;
 import com.oliver.exceptions.ConflictException;
 import com.oliver.exceptions.ValidationException;
 import com.oliver.tenancy.manager.UserManager;
@@ -22,6 +25,12 @@ public class AccountManager {
 
     private UserAccountMapper userAccountMapper;
 
+    private AccountCache accountCache;
+
+    private TransactionShardRouter transactionShardRouter;
+
+    private ReplicaReadGuard replicaReadGuard;
+
     /**
      * Attempts to create an account based on a country.
      *
@@ -73,6 +82,10 @@ public class AccountManager {
 
         Account account = new Account(iban, currency);
         accountMapper.saveAccount(account);
+        String tableNameSuffix = transactionShardRouter.assignTableNameSuffix(iban);
+        log.debug("Assigned transaction table suffix {} to account {}", tableNameSuffix, iban);
+        accountCache.putAfterCommit(account);
+        replicaReadGuard.markWritten(iban);
 
         return account;
     }
@@ -147,6 +160,21 @@ public class AccountManager {
         this.userAccountMapper = userAccountMapper;
     }
 
+    @Autowired
+    public void setAccountCache(AccountCache accountCache) {
+        this.accountCache = accountCache;
+    }
+
+    @Autowired
+    public void setTransactionShardRouter(TransactionShardRouter transactionShardRouter) {
+        this.transactionShardRouter = transactionShardRouter;
+    }
+
+    @Autowired
+    public void setReplicaReadGuard(ReplicaReadGuard replicaReadGuard) {
+        this.replicaReadGuard = replicaReadGuard;
+    }
+
     @Autowired
     public void setUserManager(UserManager userManager) {
         this.userManager = userManager;
@@ -1,38 +1,95 @@
 package com.oliver.accountBackend.manager;
 
-import com.alibaba.fastjson.JSON;
 import com.github.pagehelper.PageHelper;
+import com.oliver.accountBackend.cache.AccountCache;
+import com.oliver.accountBackend.cache.TransactionIdIndex;
 import com.oliver.accountBackend.domain.Account;
+import com.oliver.accountBackend.domain.AccountShard;
 import com.oliver.accountBackend.domain.Transaction;
-import com.oliver.accountBackend.mapper.AccountMapper;
+import com.oliver.accountBackend.domain.TransactionCreateResult;
+import com.oliver.accountBackend.domain.TransactionDailyBalance;
+import com.oliver.accountBackend.domain.TransactionSaveResult;
+import com.oliver.accountBackend.domain.TransactionSummary;
+import com.oliver.accountBackend.export.TransactionExportFormat;
+import com.oliver.accountBackend.export.TransactionExportWriter;
+import com.oliver.accountBackend.form.CreateTransactionForm;
+import com.oliver.accountBackend.mapper.TransactionDailyBalanceMapper;
 import com.oliver.accountBackend.mapper.TransactionMapper;
+import com.oliver.accountBackend.pagenation.TransactionCursor;
+import com.oliver.accountBackend.shard.ReplicaReadGuard;
+import com.oliver.accountBackend.shard.TransactionDailyBalanceMigration;
+import com.oliver.accountBackend.shard.TransactionShardRouter;
+import com.oliver.accountBackend.shard.TransactionTableRegistry;
 import com.oliver.exceptions.ConflictException;
 import com.oliver.exceptions.ValidationException;
 import com.oliver.pagenation.PageUtil;
+import com.oliver.util.CurrencyUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.NonTransientDataAccessException;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static com.oliver.accountBackend.configuration.EnvironmentConstants.KAFKA_TOPIC;
 
 @Slf4j
 @Service
 public class AccountTransactionManager {
+    /**
+     * Length of transaction tables' transaction_id column.
+     */
+    private static final int MAX_TRANSACTION_ID_LENGTH = 50;
+
     private TransactionMapper transactionMapper;
 
-    private AccountMapper accountMapper;
+    private TransactionDailyBalanceMapper transactionDailyBalanceMapper;
+
+    private AccountCache accountCache;
+
+    private TransactionIdIndex transactionIdIndex;
+
+    private TransactionTableRegistry transactionTableRegistry;
+
+    private TransactionDailyBalanceMigration transactionDailyBalanceMigration;
+
+    private TransactionShardRouter transactionShardRouter;
+
+    private ReplicaReadGuard replicaReadGuard;
+
+    private KafkaTemplate<String, Transaction> kafkaTemplate;
+
+    /**
+     * Runs db operations in a savepoint of the current db transaction,
+     * or in a new db transaction if there is none.
+     */
+    private TransactionTemplate nestedTransactionTemplate;
 
-    private KafkaTemplate<String, String> kafkaTemplate;
+    @Value("${create-transactions.max-batch-size}")
+    private int maxCreateBatchSize;
 
     /**
      * Attempts to create a transaction under given account
      * and sends the transaction to kafka.
      * <p>
      * The newly created-transaction will not be saved to db.
+     * <p>
+     * The transaction is sent asynchronously, the returned future is completed
+     * once kafka acknowledges the transaction, or completed exceptionally if
+     * the transaction cannot be delivered.
      *
      * @param transactionId {String} Transaction's unique identifier (Optional).
      * @param amount {Integer} Transaction's amount.
@@ -40,11 +97,11 @@ public class AccountTransactionManager {
      * @param valueDate {Date} Transaction's date (Optional).
      * @param description {String} Additional description of the transaction.
      *
-     * @return {Account} Returns a newly-created `transaction` if success,
-     *                   Otherwise will return null.
+     * @return {CompletableFuture<Transaction>} Returns a future of the newly-created
+     *                                          `transaction` sent to kafka.
      */
     @Transactional
-    public Transaction createTransaction(
+    public CompletableFuture<Transaction> createTransaction(
             String transactionId,
             Double amount,
             String accountIban,
@@ -70,11 +127,13 @@ public class AccountTransactionManager {
             transactionId = UUID.randomUUID().toString();
         }
 
+        validateTransactionId(transactionId);
+
         if (valueDate == null) {
             valueDate = new Date();
         }
 
-        Account account = accountMapper.getAccountByIban(accountIban);
+        Account account = accountCache.getAccountByIban(accountIban);
         if (account == null) {
             log.error("Account iban {} does not exist", accountIban);
             throw new ValidationException(
@@ -85,17 +144,12 @@ public class AccountTransactionManager {
             );
         }
 
-        String tableNameSuffix =
-                getTransactionTableNameSuffix(accountIban);
-        log.debug("Created transaction table name suffix {}", tableNameSuffix);
-        transactionMapper.createTransactionTable(tableNameSuffix);
+        String formattedAmount = formatAmount(amount, account.getCurrency());
 
-        Transaction transaction =
-                transactionMapper.getTransactionByTransactionId(
-                        transactionId,
-                        tableNameSuffix
-                );
-        if (transaction != null) {
+        AccountShard accountShard = transactionShardRouter.getAccountShard(accountIban);
+        log.debug("Found transaction tables {}", accountShard.getTableNameSuffixes());
+
+        if (isTransactionSaved(transactionId, accountShard)) {
             log.error("Transaction {} has been saved to db", transactionId);
             throw new ConflictException(
                     "Transaction id",
@@ -106,62 +160,64 @@ public class AccountTransactionManager {
             );
         }
 
-        transaction = new Transaction(
+        Transaction transaction = new Transaction(
                 transactionId,
-                account.getCurrency() + " " + amount,
+                formattedAmount,
                 accountIban,
                 valueDate,
                 description
         );
 
-        kafkaTemplate.send(KAFKA_TOPIC, transactionId, JSON.toJSONString(transaction));
-        return transaction;
+        return sendTransaction(transaction);
     }
 
     /**
-     * Attempts to retrieve a list of transactions by its account iban
-     * between start date and end date.  Skips number of
-     * page number * page size transactions.
+     * Attempts to create a batch of transactions under given account
+     * and sends them to kafka.
+     * <p>
+     * The account is validated once and the whole batch is checked for
+     * saved transactions with one query.  Transactions are sent together
+     * so that the producer can put them into the same kafka batch.
      *
-     * @param accountIban {String} Transaction's account iban.
-     * @param startDate {Date} Start date of transaction date.
-     * @param endDate {Date} End date of transaction date.
-     * @param pageNo {Integer} Page number.
-     * @param pageSize {Integer} Page size.
+     * @param accountIban {String} Account's iban.
+     * @param createTransactionForms {List<CreateTransactionForm>} Forms of the transactions.
      *
-     * @return {List<Transaction>} Returns either a 'Transaction' Object representing the
-     *                requested transaction or 'null' if the ID could not be
-     *                found.
+     * @return {CompletableFuture<List<TransactionCreateResult>>} Returns a future of the
+     *                   outcome of each transaction, in the same order as the given forms.
+     * @throws ValidationException Throws ValidationException if the batch is empty or too large,
+     *                             or account iban does not exist.
      */
-    public List<Transaction> getTransactionsByAccountIbanAndValueDate(
+    @Transactional
+    public CompletableFuture<List<TransactionCreateResult>> createTransactions(
             String accountIban,
-            Date startDate,
-            Date endDate,
-            Integer pageNo,
-            Integer pageSize
+            List<CreateTransactionForm> createTransactionForms
     ) throws ValidationException {
         if (accountIban == null) {
-            log.error("Account IBAN cannot be empty when try to get transactions for the account.");
+            log.error("Account IBAN cannot be empty when try to create transactions.");
             throw new ValidationException(
-                    "Account IBAN cannot be empty when try to get transactions for the account."
+                    "Account IBAN cannot be empty when try to create transactions."
             );
         }
 
-        if (startDate == null) {
-            log.error("Start date cannot be empty when try to get transactions for the account.");
+        if (createTransactionForms == null || createTransactionForms.isEmpty()) {
+            log.error("Transactions cannot be empty when try to create transactions.");
             throw new ValidationException(
-                    "Start date cannot be empty when try to get transactions for the account."
+                    "Transactions cannot be empty when try to create transactions."
             );
         }
 
-        if (endDate == null) {
-            log.error("End date cannot be empty when try to get transactions for the account.");
+        if (createTransactionForms.size() > maxCreateBatchSize) {
+            log.error("Cannot create more than {} transactions at once", maxCreateBatchSize);
             throw new ValidationException(
-                    "End date cannot be empty when try to get transactions for the account."
+                    String.format(
+                            "Cannot create more than %d transactions at once",
+                            maxCreateBatchSize
+                    )
             );
         }
 
-        if (accountMapper.getAccountByIban(accountIban) == null) {
+        Account account = accountCache.getAccountByIban(accountIban);
+        if (account == null) {
             log.error("Account iban {} does not exist", accountIban);
             throw new ValidationException(
                     String.format(
@@ -171,21 +227,340 @@ public class AccountTransactionManager {
             );
         }
 
-        String tableNameSuffix =
-                getTransactionTableNameSuffix(accountIban);
-        transactionMapper.createTransactionTable(tableNameSuffix);
+        AccountShard accountShard = transactionShardRouter.getAccountShard(accountIban);
+
+        // Invalid forms are reported one by one instead of failing the whole batch.
+        List<String> transactionIds = new ArrayList<>();
+        Map<Integer, String> formattedAmounts = new HashMap<>();
+        Map<Integer, String> invalidFormMessages = new HashMap<>();
+        for (int i = 0; i < createTransactionForms.size(); i++) {
+            CreateTransactionForm createTransactionForm = createTransactionForms.get(i);
+            String transactionId = createTransactionForm == null ?
+                    null :
+                    createTransactionForm.getTransactionId();
+            try {
+                if (createTransactionForm == null) {
+                    throw new ValidationException("Transaction cannot be empty when try to create transactions.");
+                }
+
+                if (transactionId == null) {
+                    transactionId = UUID.randomUUID().toString();
+                }
+                validateTransactionId(transactionId);
+                formattedAmounts.put(i, formatAmount(createTransactionForm.getAmount(), account.getCurrency()));
+            } catch (ValidationException e) {
+                invalidFormMessages.put(i, e.getMessage());
+            }
+
+            transactionIds.add(transactionId);
+        }
+
+        List<String> validTransactionIds = new ArrayList<>();
+        for (int i = 0; i < transactionIds.size(); i++) {
+            if (!invalidFormMessages.containsKey(i)) {
+                validTransactionIds.add(transactionIds.get(i));
+            }
+        }
+
+        Set<String> savedTransactionIds = new HashSet<>();
+        if (!validTransactionIds.isEmpty()) {
+            accountShard.getTableNameSuffixes().forEach(tableNameSuffix ->
+                    savedTransactionIds.addAll(getSavedTransactionIds(validTransactionIds, tableNameSuffix))
+            );
+        }
+
+        Date valueDate = new Date();
+        Set<String> submittedTransactionIds = new HashSet<>();
+        List<CompletableFuture<TransactionCreateResult>> results = new ArrayList<>();
+        for (int i = 0; i < createTransactionForms.size(); i++) {
+            String transactionId = transactionIds.get(i);
+
+            if (invalidFormMessages.containsKey(i)) {
+                results.add(CompletableFuture.completedFuture(
+                        new TransactionCreateResult(
+                                transactionId,
+                                TransactionCreateResult.Status.INVALID,
+                                invalidFormMessages.get(i)
+                        )
+                ));
+                continue;
+            }
+
+            if (savedTransactionIds.contains(transactionId)) {
+                results.add(CompletableFuture.completedFuture(
+                        new TransactionCreateResult(
+                                transactionId,
+                                TransactionCreateResult.Status.DUPLICATED,
+                                String.format("Transaction %s has been saved to db", transactionId)
+                        )
+                ));
+                continue;
+            }
+
+            if (!submittedTransactionIds.add(transactionId)) {
+                results.add(CompletableFuture.completedFuture(
+                        new TransactionCreateResult(
+                                transactionId,
+                                TransactionCreateResult.Status.DUPLICATED,
+                                String.format("Transaction %s is submitted more than once", transactionId)
+                        )
+                ));
+                continue;
+            }
+
+            CreateTransactionForm createTransactionForm = createTransactionForms.get(i);
+            Transaction transaction = new Transaction(
+                    transactionId,
+                    formattedAmounts.get(i),
+                    accountIban,
+                    valueDate,
+                    createTransactionForm.getDescription()
+            );
+
+            results.add(
+                    sendTransaction(transaction).handle((sentTransaction, e) -> e == null ?
+                            new TransactionCreateResult(
+                                    transactionId,
+                                    TransactionCreateResult.Status.CREATED,
+                                    null
+                            ) :
+                            new TransactionCreateResult(
+                                    transactionId,
+                                    TransactionCreateResult.Status.FAILED,
+                                    e.getMessage()
+                            )
+                    )
+            );
+        }
+
+        return CompletableFuture
+                .allOf(results.toArray(new CompletableFuture[0]))
+                .thenApply(v -> {
+                    List<TransactionCreateResult> createResults = new ArrayList<>();
+                    results.forEach(result -> createResults.add(result.join()));
+                    return createResults;
+                });
+    }
+
+    /**
+     * Attempts to retrieve a list of transactions by its account iban
+     * between start date and end date.  Skips number of
+     * page number * page size transactions.
+     *
+     * @param accountIban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     * @param pageNo {Integer} Page number.
+     * @param pageSize {Integer} Page size.
+     *
+     * @return {List<Transaction>} Returns either a 'Transaction' Object representing the
+     *                requested transaction or 'null' if the ID could not be
+     *                found.
+     */
+    public List<Transaction> getTransactionsByAccountIbanAndValueDate(
+            String accountIban,
+            Date startDate,
+            Date endDate,
+            Integer pageNo,
+            Integer pageSize
+    ) throws ValidationException {
+        validateTransactionsQuery(accountIban, startDate, endDate);
+
+        List<String> tableNameSuffixes =
+                getTransactionTableNameSuffixes(accountIban);
+
+        int validPageNo = PageUtil.getPageNo(pageNo);
+        int validPageSize = PageUtil.getPageSize(pageSize);
+
+        return replicaReadGuard.read(accountIban, () -> runWithTables(tableNameSuffixes, () -> {
+            PageHelper.startPage(validPageNo, validPageSize);
+            return transactionMapper
+                    .getTransactionsByAccountIbanAndValueDate(
+                            accountIban,
+                            startDate,
+                            endDate,
+                            tableNameSuffixes
+                    );
+        }));
+    }
 
-        pageNo = PageUtil.getPageNo(pageNo);
-        pageSize = PageUtil.getPageSize(pageSize);
+    /**
+     * Attempts to retrieve a page of transactions by its account iban
+     * between start date and end date, ordered by value date and
+     * transaction id.  Seeks to the transactions after the given cursor,
+     * so deep pages cost the same as the first page.
+     *
+     * @param accountIban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     * @param cursor {TransactionCursor} Position of the last transaction of
+     *                                   previous page, null for the first page.
+     * @param pageSize {Integer} Page size.
+     *
+     * @return {List<Transaction>} Returns at most page size transactions after the cursor.
+     * @throws ValidationException Throws ValidationException if account iban does not exist.
+     */
+    public List<Transaction> getTransactionsByAccountIbanAndValueDateAfter(
+            String accountIban,
+            Date startDate,
+            Date endDate,
+            TransactionCursor cursor,
+            Integer pageSize
+    ) throws ValidationException {
+        validateTransactionsQuery(accountIban, startDate, endDate);
+
+        List<String> tableNameSuffixes =
+                getTransactionTableNameSuffixes(accountIban);
+
+        int validPageSize = PageUtil.getPageSize(pageSize);
 
-        PageHelper.startPage(pageNo, pageSize);
-        return transactionMapper
-                .getTransactionsByAccountIbanAndValueDate(
+        return replicaReadGuard.read(accountIban, () -> runWithTables(
+                tableNameSuffixes,
+                () -> transactionMapper.getTransactionsByAccountIbanAndValueDateAfter(
                         accountIban,
                         startDate,
                         endDate,
-                        tableNameSuffix
-                        );
+                        cursor == null ? null : cursor.getValueDate(),
+                        cursor == null ? null : cursor.getTransactionId(),
+                        validPageSize,
+                        tableNameSuffixes
+                )
+        ));
+    }
+
+    /**
+     * Attempts to write all transactions of an account iban between
+     * start date and end date to the given stream, ordered by value date
+     * and transaction id.  Transactions are streamed from db row by row,
+     * so memory usage does not grow with the number of transactions.
+     *
+     * @param accountIban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     * @param format {TransactionExportFormat} Format of the exported transactions.
+     * @param out {OutputStream} Stream the transactions are written to.
+     *
+     * @return {long} Returns the number of exported transactions.
+     * @throws ValidationException Throws ValidationException if account iban does not exist,
+     *                             nothing is written in that case.
+     * @throws IOException Throws IOException if the stream cannot be written.
+     */
+    public long exportTransactionsByAccountIbanAndValueDate(
+            String accountIban,
+            Date startDate,
+            Date endDate,
+            TransactionExportFormat format,
+            OutputStream out
+    ) throws ValidationException, IOException {
+        validateTransactionsQuery(accountIban, startDate, endDate);
+
+        List<String> tableNameSuffixes =
+                getTransactionTableNameSuffixes(accountIban);
+
+        TransactionExportWriter writer = new TransactionExportWriter(format, out);
+        writer.start();
+
+        IOException[] writeException = new IOException[1];
+        replicaReadGuard.read(accountIban, () -> runWithTables(tableNameSuffixes, () -> {
+            transactionMapper.exportTransactionsByAccountIbanAndValueDate(
+                    accountIban,
+                    startDate,
+                    endDate,
+                    tableNameSuffixes,
+                    resultContext -> {
+                        try {
+                            writer.write(resultContext.getResultObject());
+                        } catch (IOException e) {
+                            // Stops fetching rows once the client is gone.
+                            writeException[0] = e;
+                            resultContext.stop();
+                        }
+                    }
+            );
+            return null;
+        }));
+
+        if (writeException[0] != null) {
+            throw writeException[0];
+        }
+        writer.flush();
+
+        return writer.getCount();
+    }
+
+    /**
+     * Attempts to aggregate the transactions of an account iban
+     * between start date and end date from their daily balances,
+     * reading one row per day instead of one per transaction.
+     * Amounts in other currencies than the account's are counted
+     * but left out of the sums.
+     *
+     * @param accountIban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     *
+     * @return {TransactionSummary} Returns the totals of the transactions.
+     * @throws ValidationException Throws ValidationException if account iban does not exist.
+     */
+    public TransactionSummary getTransactionSummaryByAccountIbanAndValueDate(
+            String accountIban,
+            Date startDate,
+            Date endDate
+    ) throws ValidationException {
+        validateTransactionsQuery(accountIban, startDate, endDate);
+
+        String currency = accountCache.getAccountByIban(accountIban).getCurrency();
+        return replicaReadGuard.read(accountIban, () -> transactionTableRegistry.runWithDataSource(
+                getTransactionTableNameSuffix(accountIban),
+                () -> transactionDailyBalanceMapper.getTransactionSummaryByAccountIbanAndValueDate(
+                        accountIban,
+                        currency,
+                        startDate,
+                        endDate
+                )
+        ));
+    }
+
+    /**
+     * Returns the currency of the given account.
+     *
+     * @param accountIban {String} Account's iban.
+     *
+     * @return {String} Returns ISO 4217 code of the account's currency,
+     *                  or null if the account does not exist.
+     */
+    public String getAccountCurrency(String accountIban) {
+        Account account = accountCache.getAccountByIban(accountIban);
+        return account == null ? null : account.getCurrency();
+    }
+
+    /**
+     * Attempts to retrieve the daily balances of an account iban
+     * between start date and end date, ordered by value date.
+     * Days without transactions are left out.
+     *
+     * @param accountIban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     *
+     * @return {List<TransactionDailyBalance>} Returns the totals of each day.
+     * @throws ValidationException Throws ValidationException if account iban does not exist.
+     */
+    public List<TransactionDailyBalance> getDailyBalancesByAccountIbanAndValueDate(
+            String accountIban,
+            Date startDate,
+            Date endDate
+    ) throws ValidationException {
+        validateTransactionsQuery(accountIban, startDate, endDate);
+
+        return replicaReadGuard.read(accountIban, () -> transactionTableRegistry.runWithDataSource(
+                getTransactionTableNameSuffix(accountIban),
+                () -> transactionDailyBalanceMapper.getDailyBalancesByAccountIbanAndValueDate(
+                        accountIban,
+                        startDate,
+                        endDate
+                )
+        ));
     }
 
     /**
@@ -202,9 +577,12 @@ public class AccountTransactionManager {
     ) {
         String accountIban = transaction.getAccountIban();
         String transactionId = transaction.getTransactionId();
-        String amount = transaction.getAmount();
 
-        if (accountIban == null || transactionId == null || amount == null) {
+        AccountShard accountShard = isSupportedTransaction(transaction) ?
+                transactionShardRouter.getAccountShard(accountIban) :
+                null;
+        if (accountShard == null
+                || !isSupportedByTable(transaction, accountShard.getTableNameSuffix())) {
             throw new ValidationException(
                     String.format(
                             "Current model does not support given transaction - %s",
@@ -213,15 +591,9 @@ public class AccountTransactionManager {
             );
         }
 
-        String tableNameSuffix = getTransactionTableNameSuffix(accountIban);
+        String tableNameSuffix = accountShard.getTableNameSuffix();
 
-        Transaction consumedTransaction =
-                transactionMapper
-                        .getTransactionByTransactionId(
-                                transactionId,
-                                tableNameSuffix
-                        );
-        if (consumedTransaction != null) {
+        if (isTransactionSaved(transactionId, accountShard)) {
             throw new ConflictException(
                     "transactionId",
                     String.format(
@@ -231,21 +603,557 @@ public class AccountTransactionManager {
             );
         }
 
-        transactionMapper.saveTransaction(transaction, tableNameSuffix);
+        insertTransactions(Collections.singletonList(transaction), tableNameSuffix);
+        addDailyBalances(Collections.singletonList(transaction), tableNameSuffix);
+        transactionIdIndex.put(tableNameSuffix, transactionId);
+        replicaReadGuard.markWritten(accountIban);
     }
 
     /**
-     * Create transaction table name's suffix
-     * based on the iban.
+     * Attempts to save a batch of kafka's transactions to db.
+     * <p>
+     * Transactions are grouped by their transaction table.  Each group
+     * is checked for saved transactions with one query and written
+     * with one multi-row insert statement.  The daily balances of the
+     * saved transactions are updated in the same db transaction.
+     *
+     * @param transactions {List<Transaction>} Transactions parsed from the jsons received from kafka.
+     *
+     * @return {List<TransactionSaveResult>} Returns the outcome of each transaction,
+     *                                       in the same order as the given transactions.
+     */
+    public List<TransactionSaveResult> saveTransactionsToDBFromKafka(List<Transaction> transactions) {
+        TransactionSaveResult[] results = new TransactionSaveResult[transactions.size()];
+        Map<String, List<Integer>> positionsByTableNameSuffix = new LinkedHashMap<>();
+
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            String tableNameSuffix = isSupportedTransaction(transaction) ?
+                    getTransactionTableNameSuffix(transaction.getAccountIban()) :
+                    null;
+            if (tableNameSuffix == null || !isSupportedByTable(transaction, tableNameSuffix)) {
+                results[i] = new TransactionSaveResult(
+                        transaction.getTransactionId(),
+                        TransactionSaveResult.Status.FAILED,
+                        "Current model does not support given transaction"
+                );
+                continue;
+            }
+
+            positionsByTableNameSuffix
+                    .computeIfAbsent(tableNameSuffix, key -> new ArrayList<>())
+                    .add(i);
+        }
+
+        Set<String> writtenAccountIbans = new HashSet<>();
+        positionsByTableNameSuffix.forEach((tableNameSuffix, positions) -> {
+            saveTransactionsToTable(transactions, positions, tableNameSuffix, results);
+
+            List<Transaction> savedTransactions = new ArrayList<>();
+            positions.forEach(position -> {
+                if (results[position].getStatus() == TransactionSaveResult.Status.SAVED) {
+                    savedTransactions.add(transactions.get(position));
+                    writtenAccountIbans.add(transactions.get(position).getAccountIban());
+                }
+            });
+            addDailyBalances(savedTransactions, tableNameSuffix);
+        });
+        writtenAccountIbans.forEach(replicaReadGuard::markWritten);
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Saves the transactions at the given positions to the same transaction table
+     * and records the outcome of each transaction.
+     *
+     * @param transactions {List<Transaction>} The whole batch of transactions.
+     * @param positions {List<Integer>} Positions of the transactions belonging to the table.
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     * @param results {TransactionSaveResult[]} Outcomes of the whole batch.
+     */
+    private void saveTransactionsToTable(
+            List<Transaction> transactions,
+            List<Integer> positions,
+            String tableNameSuffix,
+            TransactionSaveResult[] results
+    ) {
+        List<String> transactionIds = new ArrayList<>();
+        positions.forEach(position ->
+                transactionIds.add(transactions.get(position).getTransactionId())
+        );
+
+        Set<String> savedTransactionIds;
+        try {
+            savedTransactionIds = getSavedTransactionIds(transactionIds, tableNameSuffix);
+            savedTransactionIds.addAll(getTransactionIdsSavedBeforeMove(transactions, positions));
+        } catch (DataAccessException e) {
+            log.error("Failed to look up transactions in table - transactions_{}", tableNameSuffix);
+            log.error(e.getMessage());
+            positions.forEach(position ->
+                    results[position] = new TransactionSaveResult(
+                            transactions.get(position).getTransactionId(),
+                            TransactionSaveResult.Status.RETRYABLE,
+                            e.getMessage()
+                    )
+            );
+            return;
+        }
+
+        List<Transaction> newTransactions = new ArrayList<>();
+        List<Integer> newPositions = new ArrayList<>();
+        for (Integer position : positions) {
+            String transactionId = transactions.get(position).getTransactionId();
+
+            // A transaction id repeated in the same batch is also treated as a duplicate.
+            if (!savedTransactionIds.add(transactionId)) {
+                results[position] = new TransactionSaveResult(
+                        transactionId,
+                        TransactionSaveResult.Status.DUPLICATED,
+                        String.format("Transaction - %s has been consumed", transactionId)
+                );
+                continue;
+            }
+
+            newTransactions.add(transactions.get(position));
+            newPositions.add(position);
+        }
+
+        if (newTransactions.isEmpty()) {
+            return;
+        }
+
+        try {
+            insertTransactions(newTransactions, tableNameSuffix);
+            newPositions.forEach(position -> {
+                String transactionId = transactions.get(position).getTransactionId();
+                transactionIdIndex.put(tableNameSuffix, transactionId);
+                results[position] = new TransactionSaveResult(
+                        transactionId,
+                        TransactionSaveResult.Status.SAVED,
+                        null
+                );
+            });
+        } catch (DataAccessException e) {
+            // Falls back to one insert per transaction to find out the failed ones.
+            log.warn(
+                    "Failed to batch save {} transactions to table - transactions_{}, retrying one by one",
+                    newTransactions.size(),
+                    tableNameSuffix
+            );
+            newPositions.forEach(position ->
+                    results[position] = saveTransactionToTable(
+                            transactions.get(position),
+                            tableNameSuffix
+                    )
+            );
+        }
+    }
+
+    /**
+     * Saves a single transaction to the given transaction table.
+     *
+     * @param transaction {Transaction} A transaction to save.
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     *
+     * @return {TransactionSaveResult} Returns the outcome of saving the transaction.
+     */
+    private TransactionSaveResult saveTransactionToTable(
+            Transaction transaction,
+            String tableNameSuffix
+    ) {
+        String transactionId = transaction.getTransactionId();
+        try {
+            insertTransactions(Collections.singletonList(transaction), tableNameSuffix);
+            transactionIdIndex.put(tableNameSuffix, transactionId);
+            return new TransactionSaveResult(
+                    transactionId,
+                    TransactionSaveResult.Status.SAVED,
+                    null
+            );
+        } catch (DuplicateKeyException e) {
+            transactionIdIndex.put(tableNameSuffix, transactionId);
+            return new TransactionSaveResult(
+                    transactionId,
+                    TransactionSaveResult.Status.DUPLICATED,
+                    String.format("Transaction - %s has been consumed", transactionId)
+            );
+        } catch (DataAccessException e) {
+            // Only errors caused by the transaction itself (e.g. a too long id) are final.
+            return new TransactionSaveResult(
+                    transactionId,
+                    e instanceof NonTransientDataAccessException ?
+                            TransactionSaveResult.Status.FAILED :
+                            TransactionSaveResult.Status.RETRYABLE,
+                    e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Inserts the given transactions to the same transaction table with
+     * one statement, failing with {@link DuplicateKeyException} if any of
+     * them has been saved.
+     * <p>
+     * The ids of transactions saved to a partitioned table are saved to
+     * its transaction id table first, both inserts are rolled back together
+     * if either fails.
+     *
+     * @param transactions {List<Transaction>} Transactions to save.
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     */
+    private void insertTransactions(List<Transaction> transactions, String tableNameSuffix) {
+        transactionTableRegistry.runWithTable(tableNameSuffix, () -> {
+            if (!transactionTableRegistry.isPartitioned(tableNameSuffix)) {
+                return transactionMapper.saveTransactions(transactions, tableNameSuffix);
+            }
+
+            return nestedTransactionTemplate.execute(status -> {
+                transactionMapper.saveTransactionIds(transactions, tableNameSuffix);
+                return transactionMapper.saveTransactions(transactions, tableNameSuffix);
+            });
+        });
+    }
+
+    /**
+     * Adds the given newly-saved transactions to the daily balances
+     * of their accounts, which are kept on the same MySQL instance as
+     * their transaction table.  Transactions without value date are skipped,
+     * so are the transactions of a table not rolled up yet, which are added
+     * by its roll-up.
+     *
+     * @param transactions {List<Transaction>} Newly-saved transactions.
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     */
+    private void addDailyBalances(List<Transaction> transactions, String tableNameSuffix) {
+        Map<String, TransactionDailyBalance> dailyBalances = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            Date valueDate = transaction.getValueDate();
+            if (valueDate == null) {
+                continue;
+            }
+
+            dailyBalances.computeIfAbsent(
+                    transaction.getAccountIban() + "/" + valueDate.getTime() + "/" + transaction.getCurrency(),
+                    key -> new TransactionDailyBalance(
+                            transaction.getAccountIban(),
+                            valueDate,
+                            transaction.getCurrency()
+                    )
+            ).addTransaction(transaction);
+        }
+
+        if (dailyBalances.isEmpty()) {
+            return;
+        }
+
+        transactionTableRegistry.runWithDataSource(tableNameSuffix, () -> {
+            if (!transactionDailyBalanceMigration.isRolledUp(tableNameSuffix)) {
+                return 0;
+            }
+
+            return transactionDailyBalanceMapper.addDailyBalances(dailyBalances.values());
+        });
+    }
+
+    /**
+     * Validates the parameters of a transactions query.
+     *
+     * @param accountIban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     * @throws ValidationException Throws ValidationException if a parameter is empty
+     *                             or account iban does not exist.
+     */
+    private void validateTransactionsQuery(
+            String accountIban,
+            Date startDate,
+            Date endDate
+    ) throws ValidationException {
+        if (accountIban == null) {
+            log.error("Account IBAN cannot be empty when try to get transactions for the account.");
+            throw new ValidationException(
+                    "Account IBAN cannot be empty when try to get transactions for the account."
+            );
+        }
+
+        if (startDate == null) {
+            log.error("Start date cannot be empty when try to get transactions for the account.");
+            throw new ValidationException(
+                    "Start date cannot be empty when try to get transactions for the account."
+            );
+        }
+
+        if (endDate == null) {
+            log.error("End date cannot be empty when try to get transactions for the account.");
+            throw new ValidationException(
+                    "End date cannot be empty when try to get transactions for the account."
+            );
+        }
+
+        if (accountCache.getAccountByIban(accountIban) == null) {
+            log.error("Account iban {} does not exist", accountIban);
+            throw new ValidationException(
+                    String.format(
+                            "Account iban %s does not exist",
+                            accountIban
+                    )
+            );
+        }
+    }
+
+    /**
+     * Validates a transaction id against the transaction tables' column.
+     *
+     * @param transactionId {String} Transaction's id.
+     * @throws ValidationException Throws ValidationException if the transaction id is too long.
+     */
+    private void validateTransactionId(String transactionId) throws ValidationException {
+        if (transactionId.length() > MAX_TRANSACTION_ID_LENGTH) {
+            log.error("Transaction id {} is longer than {} characters", transactionId, MAX_TRANSACTION_ID_LENGTH);
+            throw new ValidationException(
+                    String.format(
+                            "Transaction id %s is longer than %d characters",
+                            transactionId,
+                            MAX_TRANSACTION_ID_LENGTH
+                    )
+            );
+        }
+    }
+
+    /**
+     * Formats the given amount with its currency, (e.g. 75 CHF to CHF 75.00)
+     * so that the stored amount and its minor units come from the same value.
+     *
+     * @param amount {double} Transaction's amount.
+     * @param currency {String} ISO 4217 code of the account's currency.
+     *
+     * @return {String} Returns the amount with currency.
+     * @throws ValidationException Throws ValidationException if the amount is not finite,
+     *                             too large, or has more fraction digits than the currency.
+     */
+    private String formatAmount(double amount, String currency) throws ValidationException {
+        int fractionDigits = CurrencyUtil.getFractionDigits(currency);
+        try {
+            BigDecimal decimalAmount = BigDecimal.valueOf(amount);
+            if (decimalAmount.stripTrailingZeros().scale() > fractionDigits) {
+                log.error("Amount {} has more than {} fraction digits of {}", amount, fractionDigits, currency);
+                throw new ValidationException(
+                        String.format(
+                                "Amount %s has more than %d fraction digits of %s",
+                                decimalAmount.toPlainString(),
+                                fractionDigits,
+                                currency
+                        )
+                );
+            }
+
+            long minorUnits = CurrencyUtil.toMinorUnits(decimalAmount, currency);
+            return currency + " " + CurrencyUtil.toMajorUnits(minorUnits, currency).toPlainString();
+        } catch (NumberFormatException | ArithmeticException e) {
+            log.error("Amount {} is not a valid amount of {}", amount, currency);
+            throw new ValidationException(
+                    String.format("Amount %s is not a valid amount of %s", amount, currency)
+            );
+        }
+    }
+
+    /**
+     * Sends the given transaction to kafka.
+     *
+     * @param transaction {Transaction} A newly-created transaction.
+     *
+     * @return {CompletableFuture<Transaction>} Returns a future completed once kafka
+     *                                          acknowledges the transaction.
+     */
+    private CompletableFuture<Transaction> sendTransaction(Transaction transaction) {
+        CompletableFuture<Transaction> sentTransaction = new CompletableFuture<>();
+        kafkaTemplate.send(KAFKA_TOPIC, transaction.getTransactionId(), transaction).addCallback(
+                result -> sentTransaction.complete(transaction),
+                e -> {
+                    log.error("Failed to send transaction {} to kafka", transaction.getTransactionId());
+                    log.error(e.getMessage());
+                    sentTransaction.completeExceptionally(e);
+                }
+        );
+
+        return sentTransaction;
+    }
+
+    /**
+     * Returns the given transactions that have been saved to the same
+     * transaction table, using one query for the whole set.
+     * Db is only queried for transactions the transaction id index cannot rule out.
+     *
+     * @param transactionIds {Collection<String>} Transactions' ids.
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     *
+     * @return {Set<String>} Returns a mutable set of the saved transactions' ids.
+     */
+    private Set<String> getSavedTransactionIds(
+            Collection<String> transactionIds,
+            String tableNameSuffix
+    ) {
+        Set<String> possiblySavedTransactionIds = new LinkedHashSet<>();
+        transactionIds.forEach(transactionId -> {
+            if (transactionIdIndex.mightContain(tableNameSuffix, transactionId)) {
+                possiblySavedTransactionIds.add(transactionId);
+            }
+        });
+
+        if (possiblySavedTransactionIds.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        return new HashSet<>(
+                transactionTableRegistry.runWithTable(
+                        tableNameSuffix,
+                        () -> transactionMapper.getExistingTransactionIds(
+                                possiblySavedTransactionIds,
+                                tableNameSuffix
+                        )
+                )
+        );
+    }
+
+    /**
+     * Returns the given transactions that have been saved to the previous
+     * tables of accounts being moved between transaction tables.
+     *
+     * @param transactions {List<Transaction>} The whole batch of transactions.
+     * @param positions {List<Integer>} Positions of the transactions to check.
+     *
+     * @return {Set<String>} Returns a set of the saved transactions' ids.
+     */
+    private Set<String> getTransactionIdsSavedBeforeMove(
+            List<Transaction> transactions,
+            List<Integer> positions
+    ) {
+        Map<String, List<String>> transactionIdsByTableNameSuffix = new HashMap<>();
+        positions.forEach(position -> {
+            Transaction transaction = transactions.get(position);
+            String previousTableNameSuffix = transactionShardRouter
+                    .getAccountShard(transaction.getAccountIban())
+                    .getPreviousTableNameSuffix();
+            if (previousTableNameSuffix != null) {
+                transactionIdsByTableNameSuffix
+                        .computeIfAbsent(previousTableNameSuffix, key -> new ArrayList<>())
+                        .add(transaction.getTransactionId());
+            }
+        });
+
+        Set<String> savedTransactionIds = new HashSet<>();
+        transactionIdsByTableNameSuffix.forEach((tableNameSuffix, transactionIds) ->
+                savedTransactionIds.addAll(getSavedTransactionIds(transactionIds, tableNameSuffix))
+        );
+        return savedTransactionIds;
+    }
+
+    /**
+     * Checks whether the given transaction has been saved to any table
+     * of the account.  Db is only queried if the transaction id index
+     * cannot rule it out.
+     *
+     * @param transactionId {String} Transaction's id.
+     * @param accountShard {AccountShard} Shard of the transaction's account.
+     *
+     * @return {boolean} Returns a boolean indicated whether
+     *                   the transaction has been saved to db.
+     */
+    private boolean isTransactionSaved(String transactionId, AccountShard accountShard) {
+        for (String tableNameSuffix : accountShard.getTableNameSuffixes()) {
+            boolean saved = transactionIdIndex.mightContain(tableNameSuffix, transactionId)
+                    && transactionTableRegistry.runWithTable(
+                            tableNameSuffix,
+                            () -> transactionMapper.getTransactionByTransactionId(
+                                    transactionId,
+                                    tableNameSuffix
+                            )
+                    ) != null;
+            if (saved) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Runs the given db operation against the transaction tables
+     * with the given suffixes, creating missing tables first.
+     *
+     * @param tableNameSuffixes {List<String>} Transaction table name's suffixes.
+     * @param operation {Supplier<T>} A db operation using the tables.
+     *
+     * @return {T} Returns the result of the operation.
+     */
+    private <T> T runWithTables(List<String> tableNameSuffixes, Supplier<T> operation) {
+        tableNameSuffixes
+                .subList(1, tableNameSuffixes.size())
+                .forEach(transactionTableRegistry::ensureTableCreated);
+        return transactionTableRegistry.runWithTable(tableNameSuffixes.get(0), operation);
+    }
+
+    /**
+     * Checks whether the given transaction has all fields
+     * required by current data model.
+     *
+     * @param transaction {Transaction} A transaction parsed from kafka.
+     *
+     * @return {boolean} Returns a boolean indicated whether
+     *                   the transaction can be saved to db.
+     */
+    private boolean isSupportedTransaction(Transaction transaction) {
+        return transaction.getAccountIban() != null
+                && transaction.getTransactionId() != null
+                && transaction.getAmount() != null;
+    }
+
+    /**
+     * Checks whether the given transaction can be saved to the given
+     * transaction table.  Value date is required by partitioned tables,
+     * which are partitioned by it.
+     *
+     * @param transaction {Transaction} A transaction parsed from kafka.
+     * @param tableNameSuffix {String} Suffix of the table the transaction is saved to.
+     *
+     * @return {boolean} Returns a boolean indicated whether
+     *                   the table can hold the transaction.
+     */
+    private boolean isSupportedByTable(Transaction transaction, String tableNameSuffix) {
+        if (transaction.getValueDate() != null) {
+            return true;
+        }
+
+        transactionTableRegistry.ensureTableCreated(tableNameSuffix);
+        return !transactionTableRegistry.isPartitioned(tableNameSuffix);
+    }
+
+    /**
+     * Returns suffix of the transaction table new transactions
+     * of the given account are saved to.
      *
      * @param accountIban {String} Account's iban.
      *
      * @return {String} Returns a transaction table name's suffix
-     *                  based on the value date of the transaction.
+     *                  looked up from the account's shard.
      */
     public String getTransactionTableNameSuffix(String accountIban) {
-        int hashCode = Math.abs(Objects.hash(accountIban) % 5000);
-        return String.valueOf(hashCode);
+        return transactionShardRouter.getTableNameSuffix(accountIban);
+    }
+
+    /**
+     * Returns suffixes of all transaction tables holding the given
+     * account's transactions, the table new transactions are saved to
+     * comes first.
+     *
+     * @param accountIban {String} Account's iban.
+     *
+     * @return {List<String>} Returns transaction table name's suffixes
+     *                        looked up from the account's shard.
+     */
+    public List<String> getTransactionTableNameSuffixes(String accountIban) {
+        return transactionShardRouter.getAccountShard(accountIban).getTableNameSuffixes();
     }
 
     @Autowired
@@ -254,12 +1162,50 @@ public class AccountTransactionManager {
     }
 
     @Autowired
-    public void setAccountMapper(AccountMapper accountMapper) {
-        this.accountMapper = accountMapper;
+    public void setTransactionDailyBalanceMapper(TransactionDailyBalanceMapper transactionDailyBalanceMapper) {
+        this.transactionDailyBalanceMapper = transactionDailyBalanceMapper;
+    }
+
+    @Autowired
+    public void setTransactionIdIndex(TransactionIdIndex transactionIdIndex) {
+        this.transactionIdIndex = transactionIdIndex;
+    }
+
+    @Autowired
+    public void setTransactionTableRegistry(TransactionTableRegistry transactionTableRegistry) {
+        this.transactionTableRegistry = transactionTableRegistry;
+    }
+
+    @Autowired
+    public void setTransactionDailyBalanceMigration(
+            TransactionDailyBalanceMigration transactionDailyBalanceMigration
+    ) {
+        this.transactionDailyBalanceMigration = transactionDailyBalanceMigration;
+    }
+
+    @Autowired
+    public void setTransactionShardRouter(TransactionShardRouter transactionShardRouter) {
+        this.transactionShardRouter = transactionShardRouter;
+    }
+
+    @Autowired
+    public void setReplicaReadGuard(ReplicaReadGuard replicaReadGuard) {
+        this.replicaReadGuard = replicaReadGuard;
     }
 
     @Autowired
-    public void setKafkaTemplate(KafkaTemplate<String, String> kafkaTemplate) {
+    public void setAccountCache(AccountCache accountCache) {
+        this.accountCache = accountCache;
+    }
+
+    @Autowired
+    public void setKafkaTemplate(KafkaTemplate<String, Transaction> kafkaTemplate) {
         this.kafkaTemplate = kafkaTemplate;
     }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.nestedTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.nestedTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
 }
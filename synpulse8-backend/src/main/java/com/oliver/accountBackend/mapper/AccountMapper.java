@@ -4,6 +4,8 @@ import com.oliver.accountBackend.domain.Account;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.List;
+
 @Mapper
 public interface AccountMapper {
     /**
@@ -38,6 +40,19 @@ public interface AccountMapper {
      */
     Account getAccountByIban(@Param("iban") String iban);
 
+    /**
+     * Attempts to retrieve a batch of account ibans, ordered by iban.
+     *
+     * @param afterIban {String} The last iban of previous batch, null for the first batch.
+     * @param limit {int} Maximum number of ibans.
+     *
+     * @return {List<String>} Returns the ibans after the given iban.
+     */
+    List<String> getAccountIbansAfter(
+            @Param("afterIban") String afterIban,
+            @Param("limit") int limit
+    );
+
     /**
      * Removes all accounts from db.
      *
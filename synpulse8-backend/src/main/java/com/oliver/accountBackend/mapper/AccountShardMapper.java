@@ -0,0 +1,51 @@
+package com.oliver.accountBackend.mapper;
+
+import com.oliver.accountBackend.domain.AccountShard;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface AccountShardMapper {
+    /**
+     * Attempts to retrieve the shard of an account by its iban.
+     *
+     * @param accountIban {String} Account's iban.
+     *
+     * @return {AccountShard} Returns either an 'AccountShard' Object representing the
+     *                location of the account's transactions or 'null' if the account
+     *                has no persisted shard.
+     */
+    AccountShard getAccountShardByIban(@Param("accountIban") String accountIban);
+
+    /**
+     * Saves the given account shard unless the account has a shard already.
+     *
+     * @param accountShard {AccountShard} Shard of a new account.
+     *
+     * @return {int} Returns the number of saved shards, 0 if the account has a shard already.
+     */
+    int saveAccountShard(@Param("accountShard") AccountShard accountShard);
+
+    /**
+     * Saves the given account shard, replacing the existing one.
+     *
+     * @param accountShard {AccountShard} Shard of an account being moved.
+     */
+    void replaceAccountShard(@Param("accountShard") AccountShard accountShard);
+
+    /**
+     * Marks the move of an account as completed, so its previous
+     * transaction table is no longer read.
+     *
+     * @param accountIban {String} Account's iban.
+     */
+    void completeMove(@Param("accountIban") String accountIban);
+
+    /**
+     * Removes all account shards from db.
+     *
+     * @return {boolean} Returns a boolean indicated whether
+     *                   all account shards are removed.
+     */
+    boolean removeAllAccountShardsFromDB();
+}
@@ -0,0 +1,108 @@
+package com.oliver.accountBackend.mapper;
+
+import com.oliver.accountBackend.domain.TransactionDailyBalance;
+import com.oliver.accountBackend.domain.TransactionSummary;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Mapper
+public interface TransactionDailyBalanceMapper {
+    /**
+     * Adds the given daily balances to the saved ones, creating
+     * the balances which have not been saved.
+     *
+     * @param dailyBalances {Collection<TransactionDailyBalance>} Totals of newly-saved
+     *                                                             transactions.
+     *
+     * @return {int} Returns the number of rows affected.
+     */
+    int addDailyBalances(@Param("dailyBalances") Collection<TransactionDailyBalance> dailyBalances);
+
+    /**
+     * Adds the transactions of the given transaction table to the daily
+     * balances of their accounts, one balance per currency.  Must be called
+     * once per table, see {@link #markTableRolledUp(String)}.
+     *
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {int} Returns the number of rows affected.
+     */
+    int rollUpTransactionTable(@Param("tableNameSuffix") String tableNameSuffix);
+
+    /**
+     * Records that the given transaction table has been rolled up,
+     * failing with a duplicate key error if it has been recorded.
+     *
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     */
+    void markTableRolledUp(@Param("tableNameSuffix") String tableNameSuffix);
+
+    /**
+     * Checks whether the given transaction table has been rolled up,
+     * waiting for a roll-up of the table in progress.
+     *
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {boolean} Returns true if the roll-up of the table has been recorded.
+     */
+    boolean isTableRolledUp(@Param("tableNameSuffix") String tableNameSuffix);
+
+    /**
+     * Attempts to retrieve the daily balances of an account iban
+     * between start date and end date, ordered by value date.
+     *
+     * @param iban {String} Account's iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     *
+     * @return {List<TransactionDailyBalance>} Returns the daily balances of the days
+     *                                         with transactions.
+     */
+    List<TransactionDailyBalance> getDailyBalancesByAccountIbanAndValueDate(
+            @Param("iban") String iban,
+            @Param("startDate") Date startDate,
+            @Param("endDate") Date endDate
+    );
+
+    /**
+     * Aggregates the daily balances of an account iban between
+     * start date and end date.  All transactions are counted, but
+     * only amounts in the given currency are summed.
+     *
+     * @param iban {String} Account's iban.
+     * @param currency {String} ISO 4217 code of the account's currency.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     *
+     * @return {TransactionSummary} Returns the totals of the transactions.
+     */
+    TransactionSummary getTransactionSummaryByAccountIbanAndValueDate(
+            @Param("iban") String iban,
+            @Param("currency") String currency,
+            @Param("startDate") Date startDate,
+            @Param("endDate") Date endDate
+    );
+
+    /**
+     * Removes all daily balances from db.
+     *
+     * @return {boolean} Returns a boolean indicated whether
+     *                   all daily balances are removed.
+     */
+    boolean removeAllDailyBalancesFromDB();
+
+    /**
+     * Removes all records of rolled-up transaction tables from db.
+     *
+     * @return {boolean} Returns a boolean indicated whether
+     *                   all records are removed.
+     */
+    boolean removeAllRollUpsFromDB();
+}
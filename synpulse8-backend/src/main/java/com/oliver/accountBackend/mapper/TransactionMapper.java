@@ -1,11 +1,16 @@
 package com.oliver.accountBackend.mapper;
 
 import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.shard.TransactionPartition;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface TransactionMapper {
@@ -25,6 +30,122 @@ public interface TransactionMapper {
      */
     void createTransactionTable(@Param("tableNameSuffix") String tableNameSuffix);
 
+    /**
+     * Create a transaction table partitioned by the month of value date
+     * if 'transactions' + tableNameSuffix does not exist.
+     *
+     * @param partitions {List<TransactionPartition>} Month partitions of the table,
+     *                                                in order of month.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     */
+    void createPartitionedTransactionTable(
+            @Param("partitions") List<TransactionPartition> partitions,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Create the table keeping the transaction ids of a partitioned
+     * transaction table unique if it does not exist.  The partitioned
+     * table's primary key contains value date, so it cannot do that itself.
+     *
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     */
+    void createTransactionIdTable(@Param("tableNameSuffix") String tableNameSuffix);
+
+    /**
+     * Attempts to save the ids of the given transactions to the id table
+     * of a partitioned transaction table with one multi-row insert statement.
+     * <p>
+     * If any id has been saved, the whole statement fails and nothing is saved.
+     *
+     * @param transactions {List<Transaction>} A list of transactions to save,
+     *                                         all belonging to the same table.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {int} Returns the number of rows affected.
+     */
+    int saveTransactionIds(
+            @Param("transactions") List<Transaction> transactions,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Attempts to copy the ids of the given transactions to the id table
+     * of a partitioned transaction table, saved ids are skipped.
+     *
+     * @param transactions {List<Transaction>} A list of transactions to copy.
+     * @param tableNameSuffix {String} Suffix of the table to copy to.
+     *
+     * @return {int} Returns the number of rows affected.
+     */
+    int copyTransactionIds(
+            @Param("transactions") List<Transaction> transactions,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Removes the ids of the transactions before the given date from
+     * the id table of a partitioned transaction table.
+     *
+     * @param beforeValueDate {LocalDate} The first value date whose ids are kept.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {int} Returns the number of removed ids.
+     */
+    int removeTransactionIdsBefore(
+            @Param("beforeValueDate") LocalDate beforeValueDate,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Attempts to retrieve the suffixes of the existing partitioned transaction tables.
+     *
+     * @return {List<String>} Returns table name's suffixes of the partitioned
+     *                        transaction tables.
+     */
+    List<String> getPartitionedTransactionTableNameSuffixes();
+
+    /**
+     * Attempts to retrieve the partition names of the given transaction table.
+     *
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {List<String>} Returns the partition names in order of value date,
+     *                        or an empty list if the table is not partitioned.
+     */
+    List<String> getTransactionTablePartitionNames(@Param("tableNameSuffix") String tableNameSuffix);
+
+    /**
+     * Adds the given month partitions to the given partitioned transaction table.
+     *
+     * @param partitions {List<TransactionPartition>} Month partitions after the latest
+     *                                                existing month, in order of month.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     */
+    void addTransactionTablePartitions(
+            @Param("partitions") List<TransactionPartition> partitions,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Drops the given partitions of the given transaction table
+     * together with their transactions.
+     *
+     * @param partitionNames {List<String>} Names of the partitions.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     */
+    void dropTransactionTablePartitions(
+            @Param("partitionNames") List<String> partitionNames,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
     /**
      * Attempts to save the given transaction to db.
      *
@@ -45,6 +166,62 @@ public interface TransactionMapper {
             @Param("tableNameSuffix") String tableNameSuffix
     );
 
+    /**
+     * Attempts to save the given transactions to db with one
+     * multi-row insert statement.
+     * <p>
+     * If the id of any transaction has been saved to db, the whole
+     * statement fails and nothing is saved.
+     *
+     * @param transactions {List<Transaction>} A list of transactions to save,
+     *                                         all belonging to the same table.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *                        - 1 representing the reminder of
+     *                          hash value of account iban divided by
+     *                          5000
+     *
+     * @return {int} Returns the number of rows affected.
+     */
+    int saveTransactions(
+            @Param("transactions") List<Transaction> transactions,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Attempts to copy the given transactions to another table with one
+     * multi-row insert statement.  Transactions whose id has been saved
+     * to the table are skipped, so a copy can be repeated.
+     *
+     * @param transactions {List<Transaction>} A list of transactions to copy.
+     * @param tableNameSuffix {String} Suffix of the table to copy to.
+     *
+     * @return {int} Returns the number of rows affected.
+     */
+    int copyTransactions(
+            @Param("transactions") List<Transaction> transactions,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Attempts to retrieve the ids of the given transactions
+     * that have been saved to db.
+     *
+     * @param transactionIds {Collection<String>} Transactions' ids.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *                        - 1 representing the reminder of
+     *                          hash value of account iban divided by
+     *                          5000
+     *
+     * @return {List<String>} Returns ids of the given transactions
+     *                        which exist in db.
+     */
+    List<String> getExistingTransactionIds(
+            @Param("transactionIds") Collection<String> transactionIds,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
     /**
      * Attempts to retrieve a transaction by its unique identifier.
      *
@@ -66,19 +243,38 @@ public interface TransactionMapper {
             @Param("tableNameSuffix") String tableNameSuffix
     );
 
+    /**
+     * Streams the ids of all transactions saved in the given table
+     * to the result handler without loading them into memory at once.
+     *
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *                        - 1 representing the reminder of
+     *                          hash value of account iban divided by
+     *                          5000
+     * @param resultHandler {ResultHandler<String>} Handler of each transaction id.
+     */
+    void getTransactionIds(
+            @Param("tableNameSuffix") String tableNameSuffix,
+            ResultHandler<String> resultHandler
+    );
+
+    /**
+     * Attempts to retrieve the suffixes of all existing transaction tables.
+     *
+     * @return {List<String>} Returns table name's suffixes of existing
+     *                        transaction tables.
+     */
+    List<String> getTransactionTableNameSuffixes();
+
     /**
      * Attempts to retrieve a transaction by its account iban.
      *
      * @param iban {String} Transaction's account iban.
      * @param startDate {Date} Start date of transaction date.
      * @param endDate {Date} End date of transaction date.
-     * @param tableNameSuffix A unique suffix string of table name.
-     *                        (e.g. 2011_03_1)
-     *                        - 2011 representing the year of transaction
-     *                        - 03 representing the month of transaction
-     *                        - 1 representing the reminder of
-     *                          hash value of transaction id divided by
-     *                          5000
+     * @param tableNameSuffixes {List<String>} Suffixes of the tables holding
+     *                                         the account's transactions.
      *
      *
      * @return {List<Transaction>} Returns either a 'Transaction' Object representing the
@@ -89,11 +285,285 @@ public interface TransactionMapper {
             @Param("iban") String iban,
             @Param("startDate") Date startDate,
             @Param("endDate") Date endDate,
+            @Param("tableNameSuffixes") List<String> tableNameSuffixes
+    );
+
+    /**
+     * Streams the transactions of an account iban between start date
+     * and end date to the result handler, ordered by value date and
+     * transaction id, without loading them into memory at once.
+     *
+     * @param iban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     * @param tableNameSuffixes {List<String>} Suffixes of the tables holding
+     *                                         the account's transactions.
+     * @param resultHandler {ResultHandler<Transaction>} Handler of each transaction.
+     */
+    void exportTransactionsByAccountIbanAndValueDate(
+            @Param("iban") String iban,
+            @Param("startDate") Date startDate,
+            @Param("endDate") Date endDate,
+            @Param("tableNameSuffixes") List<String> tableNameSuffixes,
+            ResultHandler<Transaction> resultHandler
+    );
+
+    /**
+     * Attempts to retrieve a page of transactions by its account iban,
+     * ordered by value date and transaction id.  Seeks to the transactions
+     * after the given position instead of skipping rows.
+     *
+     * @param iban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     * @param afterValueDate {Date} Value date of the last transaction of previous page.
+     * @param afterTransactionId {String} Transaction id of the last transaction of
+     *                                    previous page, null for the first page.
+     * @param limit {int} Maximum number of transactions.
+     * @param tableNameSuffixes {List<String>} Suffixes of the tables holding
+     *                                         the account's transactions.
+     *
+     * @return {List<Transaction>} Returns the transactions after the given position.
+     */
+    List<Transaction> getTransactionsByAccountIbanAndValueDateAfter(
+            @Param("iban") String iban,
+            @Param("startDate") Date startDate,
+            @Param("endDate") Date endDate,
+            @Param("afterValueDate") Date afterValueDate,
+            @Param("afterTransactionId") String afterTransactionId,
+            @Param("limit") int limit,
+            @Param("tableNameSuffixes") List<String> tableNameSuffixes
+    );
+
+    /**
+     * Explains the query plan of getTransactionsByAccountIbanAndValueDateAfter.
+     *
+     * @param iban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     * @param afterValueDate {Date} Value date of the last transaction of previous page.
+     * @param afterTransactionId {String} Transaction id of the last transaction of
+     *                                    previous page, null for the first page.
+     * @param limit {int} Maximum number of transactions.
+     * @param tableNameSuffixes {List<String>} Suffixes of the tables holding
+     *                                         the account's transactions.
+     *
+     * @return {List<Map<String, Object>>} Returns the rows of the query plan.
+     */
+    List<Map<String, Object>> explainGetTransactionsByAccountIbanAndValueDateAfter(
+            @Param("iban") String iban,
+            @Param("startDate") Date startDate,
+            @Param("endDate") Date endDate,
+            @Param("afterValueDate") Date afterValueDate,
+            @Param("afterTransactionId") String afterTransactionId,
+            @Param("limit") int limit,
+            @Param("tableNameSuffixes") List<String> tableNameSuffixes
+    );
+
+    /**
+     * Attempts to retrieve the suffixes of the existing transaction tables
+     * which do not have the given index.
+     *
+     * @param indexName {String} Name of the index.
+     *
+     * @return {List<String>} Returns table name's suffixes of the transaction
+     *                        tables without the index.
+     */
+    List<String> getTransactionTableNameSuffixesWithoutIndex(@Param("indexName") String indexName);
+
+    /**
+     * Replaces the account iban index of the given transaction table
+     * with an (account_iban, value_date, transaction_id) index.
+     *
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     */
+    void addAccountIbanValueDateIndex(@Param("tableNameSuffix") String tableNameSuffix);
+
+    /**
+     * Attempts to retrieve the suffixes of the existing transaction tables
+     * which do not have the given column with the given comment.
+     *
+     * @param columnName {String} Name of the column.
+     * @param columnComment {String} Comment of the column.
+     *
+     * @return {List<String>} Returns table name's suffixes of the transaction
+     *                        tables without the column.
+     */
+    List<String> getTransactionTableNameSuffixesWithoutColumn(
+            @Param("columnName") String columnName,
+            @Param("columnComment") String columnComment
+    );
+
+    /**
+     * Attempts to retrieve the suffixes of the existing transaction tables
+     * whose table comment is not the given comment.
+     *
+     * @param tableComment {String} Comment of the table.
+     *
+     * @return {List<String>} Returns table name's suffixes of the transaction
+     *                        tables with another comment.
+     */
+    List<String> getTransactionTableNameSuffixesWithoutComment(@Param("tableComment") String tableComment);
+
+    /**
+     * Checks whether the given transaction table has the given comment.
+     *
+     * @param tableComment {String} Comment of the table.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {boolean} Returns true if the table exists with the comment.
+     */
+    boolean hasTableComment(
+            @Param("tableComment") String tableComment,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Sets the comment of the given transaction table.
+     *
+     * @param tableComment {String} Comment of the table, must not contain quotes.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     */
+    void commentTransactionTable(
+            @Param("tableComment") String tableComment,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Checks whether the given transaction table has the given column.
+     *
+     * @param columnName {String} Name of the column.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {boolean} Returns true if the column exists.
+     */
+    boolean hasColumn(
+            @Param("columnName") String columnName,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Checks whether any column of the given transaction table
+     * has the given comment.
+     *
+     * @param columnComment {String} Comment of the column.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {boolean} Returns true if a column has the comment.
+     */
+    boolean hasColumnWithComment(
+            @Param("columnComment") String columnComment,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Adds the nullable amount_minor_units and currency columns
+     * to the given transaction table.
+     *
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     */
+    void addAmountColumns(@Param("tableNameSuffix") String tableNameSuffix);
+
+    /**
+     * Marks the amount columns of the given transaction table as backfilled.
+     *
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     */
+    void completeAmountColumns(@Param("tableNameSuffix") String tableNameSuffix);
+
+    /**
+     * Attempts to retrieve a batch of transactions without currency,
+     * ordered by transaction id.
+     *
+     * @param afterTransactionId {String} Transaction id of the last transaction of
+     *                                    previous batch, null for the first batch.
+     * @param limit {int} Maximum number of transactions.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {List<Transaction>} Returns the transactions after the given id.
+     */
+    List<Transaction> getTransactionsWithoutCurrency(
+            @Param("afterTransactionId") String afterTransactionId,
+            @Param("limit") int limit,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Writes the amount in minor units and currency of the given transactions.
+     *
+     * @param transactions {List<Transaction>} A list of transactions,
+     *                                         all belonging to the same table.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {int} Returns the number of rows affected.
+     */
+    int updateTransactionAmounts(
+            @Param("transactions") List<Transaction> transactions,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Attempts to retrieve a batch of transactions of an account,
+     * ordered by transaction id.
+     *
+     * @param iban {String} Transaction's account iban.
+     * @param afterTransactionId {String} Transaction id of the last transaction of
+     *                                    previous batch, null for the first batch.
+     * @param limit {int} Maximum number of transactions.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {List<Transaction>} Returns the transactions after the given id.
+     */
+    List<Transaction> getTransactionsOfAccount(
+            @Param("iban") String iban,
+            @Param("afterTransactionId") String afterTransactionId,
+            @Param("limit") int limit,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Checks whether an account has transactions without value date
+     * in the given table, which a partitioned table cannot hold.
+     *
+     * @param iban {String} Transaction's account iban.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {boolean} Returns true if any transaction of the account has no value date.
+     */
+    boolean hasTransactionsOfAccountWithoutValueDate(
+            @Param("iban") String iban,
+            @Param("tableNameSuffix") String tableNameSuffix
+    );
+
+    /**
+     * Removes a batch of transactions of an account from the given table.
+     *
+     * @param iban {String} Transaction's account iban.
+     * @param limit {int} Maximum number of transactions.
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {int} Returns the number of removed transactions.
+     */
+    int removeTransactionsOfAccount(
+            @Param("iban") String iban,
+            @Param("limit") int limit,
             @Param("tableNameSuffix") String tableNameSuffix
     );
 
     /**
-     * Drop transaction table.
+     * Drop transaction table, together with its transaction id table if it is partitioned.
      *
      * @param tableNameSuffix A unique suffix string of table name.
      *                        (e.g. 2011_03_1)
@@ -0,0 +1,95 @@
+package com.oliver.accountBackend.pagenation;
+
+import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position of the last transaction of a page, ordered by value date
+ * and transaction id.
+ * <p>
+ * Cursors are handed to clients as opaque tokens, the next page starts
+ * right after the transaction the token points to.
+ */
+public class TransactionCursor {
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Value date of the last transaction of the page.
+     */
+    private final Date valueDate;
+
+    /**
+     * Transaction id of the last transaction of the page.
+     */
+    private final String transactionId;
+
+    /**
+     * Generates a cursor based on its value date and transaction id.
+     *
+     * @param valueDate {Date} Value date of the last transaction of the page.
+     * @param transactionId {String} Transaction id of the last transaction of the page.
+     */
+    public TransactionCursor(Date valueDate, String transactionId) {
+        this.valueDate = valueDate;
+        this.transactionId = transactionId;
+    }
+
+    /**
+     * Creates a token pointing to the given transaction.
+     *
+     * @param transaction {Transaction} The last transaction of a page.
+     *
+     * @return {String} Returns an opaque token of the transaction's position.
+     */
+    public static String encode(Transaction transaction) {
+        String position = transaction.getValueDate().getTime() + SEPARATOR + transaction.getTransactionId();
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses the given token to a cursor.
+     *
+     * @param token {String} A token created by {@link #encode(Transaction)}.
+     *
+     * @return {TransactionCursor} Returns the cursor of the token.
+     * @throws ValidationException Throws ValidationException if the token is invalid.
+     */
+    public static TransactionCursor decode(String token) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = position.indexOf(SEPARATOR);
+            if (separatorIndex > 0 && separatorIndex < position.length() - 1) {
+                return new TransactionCursor(
+                        new Date(Long.parseLong(position.substring(0, separatorIndex))),
+                        position.substring(separatorIndex + 1)
+                );
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the validation error below.
+        }
+
+        throw new ValidationException(String.format("Invalid cursor - %s", token));
+    }
+
+    /**
+     * Returns value date of the last transaction of the page.
+     * @return {Date} Returns value date of the last transaction of the page.
+     */
+    public Date getValueDate() {
+        return valueDate;
+    }
+
+    /**
+     * Returns transaction id of the last transaction of the page.
+     * @return {String} Returns transaction id of the last transaction of the page.
+     */
+    public String getTransactionId() {
+        return transactionId;
+    }
+}
@@ -2,6 +2,7 @@ package com.oliver.accountBackend.pagenation;
 
 import com.oliver.accountBackend.domain.Transaction;
 import com.oliver.pagenation.Page;
+import com.oliver.util.CurrencyUtil;
 
 import java.io.Serializable;
 import java.util.List;
@@ -20,6 +21,11 @@ public class TransactionPage implements Page<Transaction>, Serializable {
      */
     private List<Transaction> transactions;
 
+    /**
+     * ISO 4217 code of the currency the totals are in.
+     */
+    private String currency;
+
     /**
      * Total credit value of current page's transactions.
      */
@@ -30,29 +36,49 @@ public class TransactionPage implements Page<Transaction>, Serializable {
      */
     private double totalDebit = 0;
 
-    public TransactionPage(List<Transaction> transactions) {
+    /**
+     * Token of the next page if current page is fetched by cursor.
+     */
+    private String nextCursor;
+
+    public TransactionPage(List<Transaction> transactions, String currency) {
+        this(transactions, currency, null);
+    }
+
+    public TransactionPage(List<Transaction> transactions, String currency, String nextCursor) {
         this.transactions = transactions;
         this.total = transactions.size();
+        this.currency = currency;
+        this.nextCursor = nextCursor;
 
         calculateTotalCreditAndDebit(transactions);
     }
 
     /**
-     * Calculate the total debit and credit of the given list of transactions.
+     * Calculate the total debit and credit of the given list of transactions
+     * in minor units of the page's currency.  Transactions in other currencies,
+     * or whose amount cannot be parsed, are left out of the totals.
      *
      * @param transactions {List<Transaction>} A list of transactions.
      */
     private void calculateTotalCreditAndDebit(List<Transaction> transactions) {
-        transactions.forEach(transaction -> {
-            String amountWithCurrency = transaction.getAmount();
+        long totalDebitMinorUnits = 0;
+        long totalCreditMinorUnits = 0;
+        for (Transaction transaction : transactions) {
+            Long amountMinorUnits = transaction.getAmountMinorUnits();
+            if (amountMinorUnits == null || currency == null || !currency.equals(transaction.getCurrency())) {
+                continue;
+            }
 
-            double amount = Double.parseDouble(amountWithCurrency.split(" ")[1]);
-            if (amount > 0) {
-                totalDebit += amount;
+            if (amountMinorUnits > 0) {
+                totalDebitMinorUnits += amountMinorUnits;
             } else {
-                totalCredit += amount;
+                totalCreditMinorUnits += amountMinorUnits;
             }
-        });
+        }
+
+        totalDebit = CurrencyUtil.toMajorUnits(totalDebitMinorUnits, currency).doubleValue();
+        totalCredit = CurrencyUtil.toMajorUnits(totalCreditMinorUnits, currency).doubleValue();
     }
 
     @Override
@@ -65,6 +91,15 @@ public class TransactionPage implements Page<Transaction>, Serializable {
         return transactions;
     }
 
+    /**
+     * Returns the currency of current page's totals.
+     *
+     * @return {String} Returns ISO 4217 code of the currency.
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
     /**
      * Returns the total credit of current page's transactions.
      *
@@ -83,13 +118,25 @@ public class TransactionPage implements Page<Transaction>, Serializable {
         return totalDebit;
     }
 
+    /**
+     * Returns the token of the next page, or null if there is no next page
+     * or current page is not fetched by cursor.
+     *
+     * @return {String} Returns the token of the next page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
     @Override
     public String toString() {
         return "TransactionPage{" +
                 "total=" + total +
                 ", transactions=" + transactions +
+                ", currency='" + currency + '\'' +
                 ", totalCredit=" + totalCredit +
                 ", totalDebit=" + totalDebit +
+                ", nextCursor='" + nextCursor + '\'' +
                 '}';
     }
 }
@@ -1,6 +1,11 @@
 package com.oliver.accountBackend.service;
 
 import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.domain.TransactionCreateResult;
+import com.oliver.accountBackend.domain.TransactionDailyBalance;
+import com.oliver.accountBackend.domain.TransactionSummary;
+import com.oliver.accountBackend.export.TransactionExportFormat;
+import com.oliver.accountBackend.form.CreateTransactionForm;
 import com.oliver.exceptions.ConflictException;
 import com.oliver.exceptions.ValidationException;
 import com.oliver.pagenation.Page;
@@ -8,7 +13,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public interface AccountTransactionService {
@@ -26,18 +35,40 @@ public interface AccountTransactionService {
      * @param accountIban {String} Account's iban.
      * @param description {String} Additional description of the transaction.
      *
-     * @return {Transaction} Returns a newly-created `transaction` if success,
-     *                   Otherwise will return null.
+     * @return {CompletableFuture<Transaction>} Returns a future of the newly-created
+     *                                          `transaction`, completed once kafka
+     *                                          acknowledges the transaction.
      * @throws ValidationException Throws ValidationException if account iban does not exist.
      * @throws ConflictException Throws ConflictException if transaction has been created.
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    Transaction createTransaction(
+    CompletableFuture<Transaction> createTransaction(
             double amount,
             String accountIban,
             String description
     ) throws ValidationException, ConflictException;
 
+    /**
+     * Attempts to create a batch of transactions under given account
+     * and sends them to kafka.
+     * <p>
+     * Transactions that have been saved to db or are submitted more than
+     * once are reported as duplicated instead of failing the whole batch.
+     *
+     * @param accountIban {String} Account's iban.
+     * @param createTransactionForms {List<CreateTransactionForm>} Forms of the transactions.
+     *
+     * @return {CompletableFuture<List<TransactionCreateResult>>} Returns a future of the
+     *                   outcome of each transaction, in the same order as the given forms.
+     * @throws ValidationException Throws ValidationException if the batch is empty or too large,
+     *                             or account iban does not exist.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    CompletableFuture<List<TransactionCreateResult>> createTransactions(
+            String accountIban,
+            List<CreateTransactionForm> createTransactionForms
+    ) throws ValidationException;
+
     /**
      * Attempts to retrieve a list of transactions by its account iban.
      * Will return a Page result with the total number of transactions
@@ -63,4 +94,98 @@ public interface AccountTransactionService {
             Integer pageNo,
             Integer pageSize
     ) throws ValidationException;
+
+    /**
+     * Attempts to retrieve a page of transactions by its account iban
+     * after the given cursor, ordered by value date and transaction id.
+     * Will return a Page result with a cursor of the next page, which is
+     * null if there are no more transactions.
+     *
+     * @param accountIban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     * @param cursor {String} Cursor returned with previous page, null for the first page.
+     * @param pageSize {int} Page size.
+     *
+     * @return {Page<Transaction>>} Returns either a 'Page' Object representing the
+     *                requested transactions.
+     *
+     * @throws ValidationException Throws ValidationException if account iban
+     *                             does not exist or cursor is invalid.
+     */
+    Page<Transaction> getTransactionsByAccountIbanAndValueDateAfterCursor(
+            String accountIban,
+            Date startDate,
+            Date endDate,
+            String cursor,
+            Integer pageSize
+    ) throws ValidationException;
+
+    /**
+     * Attempts to export all transactions by its account iban between
+     * start date and end date to the given stream, ordered by value date
+     * and transaction id.  Transactions are streamed from db, so memory
+     * usage does not grow with the number of transactions.
+     *
+     * @param accountIban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     * @param format {TransactionExportFormat} Format of the exported transactions.
+     * @param out {OutputStream} Stream the transactions are written to.
+     *
+     * @return {long} Returns the number of exported transactions.
+     *
+     * @throws ValidationException Throws ValidationException if account iban
+     *                             does not exist, nothing is written in that case.
+     * @throws IOException Throws IOException if the stream cannot be written.
+     */
+    long exportTransactionsByAccountIbanAndValueDate(
+            String accountIban,
+            Date startDate,
+            Date endDate,
+            TransactionExportFormat format,
+            OutputStream out
+    ) throws ValidationException, IOException;
+
+    /**
+     * Attempts to retrieve the totals of transactions by its account iban
+     * between start date and end date.  The totals are aggregated from the
+     * daily balances, so no transaction is loaded.
+     *
+     * @param accountIban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     *
+     * @return {TransactionSummary} Returns the number, total credit and
+     *                              total debit of the transactions.
+     *
+     * @throws ValidationException Throws ValidationException if account iban
+     *                             does not exist.
+     */
+    TransactionSummary getTransactionSummaryByAccountIbanAndValueDate(
+            String accountIban,
+            Date startDate,
+            Date endDate
+    ) throws ValidationException;
+
+    /**
+     * Attempts to retrieve the totals of each day's transactions by its
+     * account iban between start date and end date, ordered by value date.
+     * Days without transactions are left out.
+     *
+     * @param accountIban {String} Transaction's account iban.
+     * @param startDate {Date} Start date of transaction date.
+     * @param endDate {Date} End date of transaction date.
+     *
+     * @return {List<TransactionDailyBalance>} Returns the number, total credit and
+     *                                         total debit of each day's transactions.
+     *
+     * @throws ValidationException Throws ValidationException if account iban
+     *                             does not exist.
+     */
+    List<TransactionDailyBalance> getDailyBalancesByAccountIbanAndValueDate(
+            String accountIban,
+            Date startDate,
+            Date endDate
+    ) throws ValidationException;
 }
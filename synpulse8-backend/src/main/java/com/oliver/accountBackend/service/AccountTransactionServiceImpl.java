@@ -1,18 +1,28 @@
 package com.oliver.accountBackend.service;
 
 import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.domain.TransactionCreateResult;
+import com.oliver.accountBackend.domain.TransactionDailyBalance;
+import com.oliver.accountBackend.domain.TransactionSummary;
+import com.oliver.accountBackend.export.TransactionExportFormat;
+import com.oliver.accountBackend.form.CreateTransactionForm;
 import com.oliver.accountBackend.manager.AccountTransactionManager;
 import com.oliver.accountBackend.mapper.TransactionMapper;
 import com.oliver.exceptions.ConflictException;
 import com.oliver.exceptions.ValidationException;
 import com.oliver.pagenation.Page;
+import com.oliver.pagenation.PageUtil;
+import com.oliver.accountBackend.pagenation.TransactionCursor;
 import com.oliver.accountBackend.pagenation.TransactionPage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Slf4j
@@ -20,7 +30,7 @@ class AccountTransactionServiceImpl implements AccountTransactionService {
     private AccountTransactionManager accountTransactionManager;
 
     @Override
-    public Transaction createTransaction(
+    public CompletableFuture<Transaction> createTransaction(
             double amount,
             String accountIban,
             String description
@@ -34,6 +44,14 @@ class AccountTransactionServiceImpl implements AccountTransactionService {
         );
     }
 
+    @Override
+    public CompletableFuture<List<TransactionCreateResult>> createTransactions(
+            String accountIban,
+            List<CreateTransactionForm> createTransactionForms
+    ) throws ValidationException {
+        return accountTransactionManager.createTransactions(accountIban, createTransactionForms);
+    }
+
     @Override
     public Page<Transaction> getTransactionsByAccountIbanAndValueDate(
             String accountIban,
@@ -52,7 +70,90 @@ class AccountTransactionServiceImpl implements AccountTransactionService {
                                 pageSize
                         );
 
-        return new TransactionPage(transactions);
+        return new TransactionPage(
+                transactions,
+                accountTransactionManager.getAccountCurrency(accountIban)
+        );
+    }
+
+    @Override
+    public Page<Transaction> getTransactionsByAccountIbanAndValueDateAfterCursor(
+            String accountIban,
+            Date startDate,
+            Date endDate,
+            String cursor,
+            Integer pageSize
+    ) throws ValidationException {
+        TransactionCursor transactionCursor =
+                cursor == null || cursor.isEmpty() ? null : TransactionCursor.decode(cursor);
+        int validPageSize = PageUtil.getPageSize(pageSize);
+
+        List<Transaction> transactions =
+                accountTransactionManager
+                        .getTransactionsByAccountIbanAndValueDateAfter(
+                                accountIban,
+                                startDate,
+                                endDate,
+                                transactionCursor,
+                                validPageSize
+                        );
+
+        // A full page might be followed by more transactions.
+        String nextCursor = transactions.size() < validPageSize ?
+                null :
+                TransactionCursor.encode(transactions.get(transactions.size() - 1));
+
+        return new TransactionPage(
+                transactions,
+                accountTransactionManager.getAccountCurrency(accountIban),
+                nextCursor
+        );
+    }
+
+    @Override
+    public long exportTransactionsByAccountIbanAndValueDate(
+            String accountIban,
+            Date startDate,
+            Date endDate,
+            TransactionExportFormat format,
+            OutputStream out
+    ) throws ValidationException, IOException {
+        return accountTransactionManager
+                .exportTransactionsByAccountIbanAndValueDate(
+                        accountIban,
+                        startDate,
+                        endDate,
+                        format,
+                        out
+                );
+    }
+
+    @Override
+    public TransactionSummary getTransactionSummaryByAccountIbanAndValueDate(
+            String accountIban,
+            Date startDate,
+            Date endDate
+    ) throws ValidationException {
+        return accountTransactionManager
+                .getTransactionSummaryByAccountIbanAndValueDate(
+                        accountIban,
+                        startDate,
+                        endDate
+                );
+    }
+
+    @Override
+    public List<TransactionDailyBalance> getDailyBalancesByAccountIbanAndValueDate(
+            String accountIban,
+            Date startDate,
+            Date endDate
+    ) throws ValidationException {
+        return accountTransactionManager
+                .getDailyBalancesByAccountIbanAndValueDate(
+                        accountIban,
+                        startDate,
+                        endDate
+                );
     }
 
     @Autowired
@@ -0,0 +1,41 @@
+package com.oliver.accountBackend.shard;
+
+import com.oliver.accountBackend.mapper.TransactionMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Replaces the account iban index of the transaction tables with an
+ * (account_iban, value_date, transaction_id) index, which serves the
+ * date range queries of an account in sorted order.
+ */
+@Component
+@Order(1)
+public class AccountIbanValueDateIndexMigration implements TransactionTableMigration {
+    public static final String INDEX_NAME = "transactions_account_iban_value_date";
+
+    private TransactionMapper transactionMapper;
+
+    @Override
+    public String getName() {
+        return "add index " + INDEX_NAME;
+    }
+
+    @Override
+    public List<String> getPendingTableNameSuffixes() {
+        return transactionMapper.getTransactionTableNameSuffixesWithoutIndex(INDEX_NAME);
+    }
+
+    @Override
+    public void migrate(String tableNameSuffix) {
+        transactionMapper.addAccountIbanValueDateIndex(tableNameSuffix);
+    }
+
+    @Autowired
+    public void setTransactionMapper(TransactionMapper transactionMapper) {
+        this.transactionMapper = transactionMapper;
+    }
+}
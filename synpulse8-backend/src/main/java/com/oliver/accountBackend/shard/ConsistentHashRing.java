@@ -0,0 +1,104 @@
+package com.oliver.accountBackend.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A consistent hash ring of transaction tables numbered from 0.
+ * <p>
+ * Each table is placed on the ring as a number of virtual nodes.  A key
+ * belongs to the first node clockwise from its hash, so growing the
+ * number of tables only moves the keys taken over by the new tables.
+ * <p>
+ * Nodes are kept in two sorted arrays instead of a tree map, which keeps
+ * a ring of tens of thousands of nodes within a few megabytes.
+ */
+public class ConsistentHashRing {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Hashes of the virtual nodes in ascending order.
+     */
+    private final long[] nodeHashes;
+
+    /**
+     * Table numbers of the virtual nodes, in the same order as the hashes.
+     */
+    private final int[] nodeTables;
+
+    /**
+     * Builds a ring of the given number of tables.
+     *
+     * @param tablesNumber {int} Number of tables, numbered from 0.
+     * @param virtualNodes {int} Number of virtual nodes of each table.
+     */
+    public ConsistentHashRing(int tablesNumber, int virtualNodes) {
+        if (tablesNumber <= 0 || virtualNodes <= 0) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Invalid ring of %d tables with %d virtual nodes",
+                            tablesNumber,
+                            virtualNodes
+                    )
+            );
+        }
+
+        int size = tablesNumber * virtualNodes;
+        long[] hashes = new long[size];
+        Integer[] order = new Integer[size];
+        for (int table = 0; table < tablesNumber; table++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                int index = table * virtualNodes + node;
+                hashes[index] = hash(table + "#" + node);
+                order[index] = index;
+            }
+        }
+        Arrays.sort(order, Comparator.comparingLong(index -> hashes[index]));
+
+        nodeHashes = new long[size];
+        nodeTables = new int[size];
+        for (int i = 0; i < size; i++) {
+            nodeHashes[i] = hashes[order[i]];
+            nodeTables[i] = order[i] / virtualNodes;
+        }
+    }
+
+    /**
+     * Returns the table the given key belongs to.
+     *
+     * @param key {String} A key, e.g. an account iban.
+     *
+     * @return {int} Returns the number of the table.
+     */
+    public int locate(String key) {
+        int index = Arrays.binarySearch(nodeHashes, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        // Wraps around to the first node past the last one.
+        return nodeTables[index == nodeHashes.length ? 0 : index];
+    }
+
+    /**
+     * Hashes the given value with 64-bit FNV-1a followed by the murmur3
+     * finalizer, which spreads similar keys over the whole ring.
+     */
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,116 @@
+package com.oliver.accountBackend.shard;
+
+import com.oliver.util.redis.RedisCache;
+import com.oliver.util.redis.RedisKeyCreator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sends reads of an account to a read replica unless the account has been
+ * written recently, so that clients read their own writes even if the
+ * replica lags behind.
+ * <p>
+ * Writes are recorded as a marker in redis once they are committed, which
+ * expires after 'transaction-datasource.replica-staleness-seconds'.  Reads of an
+ * account with a marker, or whose marker cannot be read, go to the primary.
+ */
+@Component
+@Slf4j
+public class ReplicaReadGuard {
+    private TransactionRoutingDataSource transactionRoutingDataSource;
+
+    private RedisCache redisCache;
+
+    @Value("${transaction-datasource.replica-staleness-seconds}")
+    private int replicaStalenessSeconds;
+
+    /**
+     * Records that the given account has been written, so that its reads
+     * go to the primary until replicas have caught up.  Inside a db
+     * transaction, the write is recorded after the transaction commits,
+     * since replicas only start catching up from then on.
+     *
+     * @param accountIban {String} Account's iban.
+     */
+    public void markWritten(String accountIban) {
+        if (!transactionRoutingDataSource.hasReplicas()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    saveWriteMarker(accountIban);
+                }
+            });
+            return;
+        }
+
+        saveWriteMarker(accountIban);
+    }
+
+    private void saveWriteMarker(String accountIban) {
+        try {
+            redisCache.saveObject(
+                    RedisKeyCreator.createRecentWriteKey(accountIban),
+                    System.currentTimeMillis(),
+                    replicaStalenessSeconds,
+                    TimeUnit.SECONDS
+            );
+        } catch (Exception e) {
+            log.warn("Failed to mark account - {} as written in redis", accountIban);
+            log.warn(e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the given read-only db operation of an account against a read
+     * replica, or against the primary if the account has been written recently.
+     *
+     * @param accountIban {String} Account's iban.
+     * @param operation {Supplier<T>} A read-only db operation of the account.
+     *
+     * @return {T} Returns the result of the operation.
+     */
+    public <T> T read(String accountIban, Supplier<T> operation) {
+        // A db transaction has taken its connection already.
+        if (!transactionRoutingDataSource.hasReplicas()
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return operation.get();
+        }
+
+        if (isRecentlyWritten(accountIban)) {
+            return transactionRoutingDataSource.runWithPrimary(operation);
+        }
+
+        return transactionRoutingDataSource.runWithReplica(operation);
+    }
+
+    private boolean isRecentlyWritten(String accountIban) {
+        try {
+            return redisCache.getObject(RedisKeyCreator.createRecentWriteKey(accountIban)) != null;
+        } catch (Exception e) {
+            log.warn("Failed to read write marker of account - {} from redis", accountIban);
+            log.warn(e.getMessage());
+            return true;
+        }
+    }
+
+    @Autowired
+    public void setTransactionRoutingDataSource(TransactionRoutingDataSource transactionRoutingDataSource) {
+        this.transactionRoutingDataSource = transactionRoutingDataSource;
+    }
+
+    @Autowired
+    public void setRedisCache(RedisCache redisCache) {
+        this.redisCache = redisCache;
+    }
+}
@@ -0,0 +1,106 @@
+package com.oliver.accountBackend.shard;
+
+import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.mapper.TransactionMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Adds the amount_minor_units and currency columns to the transaction
+ * tables and backfills them from the amount of existing transactions.
+ * <p>
+ * The currency column is commented as backfilling until every row has
+ * been visited, so an interrupted backfill is resumed on next start-up.
+ * Rows whose amount cannot be parsed keep both columns null.
+ */
+@Component
+@Order(2)
+@Slf4j
+public class TransactionAmountColumnsMigration implements TransactionTableMigration {
+    public static final String CURRENCY_COLUMN_NAME = "currency";
+
+    public static final String CURRENCY_COLUMN_COMMENT = "ISO 4217 currency code";
+
+    /**
+     * Comment of the currency column until the backfill is complete,
+     * set by {@link TransactionMapper#addAmountColumns(String)}.
+     */
+    public static final String BACKFILLING_COLUMN_COMMENT = "Backfilling";
+
+    private TransactionMapper transactionMapper;
+
+    @Value("${transaction-table-migration.backfill-batch-size}")
+    private int backfillBatchSize;
+
+    @Override
+    public String getName() {
+        return "add columns amount_minor_units and " + CURRENCY_COLUMN_NAME;
+    }
+
+    @Override
+    public List<String> getPendingTableNameSuffixes() {
+        return transactionMapper.getTransactionTableNameSuffixesWithoutColumn(
+                CURRENCY_COLUMN_NAME,
+                CURRENCY_COLUMN_COMMENT
+        );
+    }
+
+    @Override
+    public void migrate(String tableNameSuffix) {
+        if (!transactionMapper.hasColumn(CURRENCY_COLUMN_NAME, tableNameSuffix)) {
+            transactionMapper.addAmountColumns(tableNameSuffix);
+        }
+
+        int backfilledTransactions = backfill(tableNameSuffix);
+        transactionMapper.completeAmountColumns(tableNameSuffix);
+        log.info("Backfilled {} transactions - transactions_{}", backfilledTransactions, tableNameSuffix);
+    }
+
+    /**
+     * Backfills the amount columns of the given table in batches
+     * ordered by transaction id.
+     *
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {int} Returns the number of backfilled transactions.
+     */
+    private int backfill(String tableNameSuffix) {
+        int backfilledTransactions = 0;
+        String afterTransactionId = null;
+        List<Transaction> transactions;
+        do {
+            transactions = transactionMapper.getTransactionsWithoutCurrency(
+                    afterTransactionId,
+                    backfillBatchSize,
+                    tableNameSuffix
+            );
+            if (transactions.isEmpty()) {
+                break;
+            }
+
+            afterTransactionId = transactions.get(transactions.size() - 1).getTransactionId();
+
+            List<Transaction> typedTransactions = transactions.stream()
+                    .filter(transaction -> transaction.getCurrency() != null)
+                    .collect(Collectors.toList());
+            if (!typedTransactions.isEmpty()) {
+                backfilledTransactions +=
+                        transactionMapper.updateTransactionAmounts(typedTransactions, tableNameSuffix);
+            }
+        } while (transactions.size() == backfillBatchSize);
+
+        return backfilledTransactions;
+    }
+
+    @Autowired
+    public void setTransactionMapper(TransactionMapper transactionMapper) {
+        this.transactionMapper = transactionMapper;
+    }
+}
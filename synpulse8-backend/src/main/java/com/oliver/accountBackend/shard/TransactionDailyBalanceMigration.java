@@ -0,0 +1,127 @@
+package com.oliver.accountBackend.shard;
+
+import com.oliver.accountBackend.mapper.TransactionDailyBalanceMapper;
+import com.oliver.accountBackend.mapper.TransactionMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolls the transactions saved before the daily balances were maintained
+ * up to the transaction_daily_balances table.
+ * <p>
+ * New tables are created with a table comment marking them as rolled up,
+ * their transactions are added to the balances when consumed.  Transactions
+ * consumed to an older table are left to its roll-up, see {@link #isRolledUp(String)}.
+ * <p>
+ * The roll-up of a table is added to the balances and recorded in
+ * transaction_daily_balance_rollups in one db transaction, so each table
+ * is added once even if the table comment fails to be set afterwards.
+ * Balances are never overwritten, an account may have transactions in
+ * several tables.  Tables are rolled up once their amount columns have
+ * been backfilled.
+ */
+@Component
+@Order(3)
+@Slf4j
+public class TransactionDailyBalanceMigration implements TransactionTableMigration {
+    public static final String ROLLED_UP_TABLE_COMMENT = "Rolled up to transaction_daily_balances";
+
+    private TransactionMapper transactionMapper;
+
+    private TransactionDailyBalanceMapper transactionDailyBalanceMapper;
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Suffixes of the tables known to be rolled up, a table is never un-rolled.
+     */
+    private final Set<String> rolledUpTables = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public String getName() {
+        return "roll up daily balances";
+    }
+
+    @Override
+    public List<String> getPendingTableNameSuffixes() {
+        return transactionMapper.getTransactionTableNameSuffixesWithoutComment(ROLLED_UP_TABLE_COMMENT);
+    }
+
+    @Override
+    public void migrate(String tableNameSuffix) {
+        if (transactionMapper.hasColumnWithComment(
+                TransactionAmountColumnsMigration.BACKFILLING_COLUMN_COMMENT,
+                tableNameSuffix
+        )) {
+            throw new IllegalStateException(
+                    String.format(
+                            "Amount columns of transactions_%s are being backfilled",
+                            tableNameSuffix
+                    )
+            );
+        }
+
+        transactionTemplate.execute(status -> {
+            if (transactionDailyBalanceMapper.isTableRolledUp(tableNameSuffix)) {
+                log.info("Transaction table has been rolled up - transactions_{}", tableNameSuffix);
+                return null;
+            }
+
+            // Rolls up before recording it, transactions being consumed to the table
+            // are waited for instead of waiting for the record.
+            transactionDailyBalanceMapper.rollUpTransactionTable(tableNameSuffix);
+            transactionDailyBalanceMapper.markTableRolledUp(tableNameSuffix);
+            return null;
+        });
+        transactionMapper.commentTransactionTable(ROLLED_UP_TABLE_COMMENT, tableNameSuffix);
+        rolledUpTables.add(tableNameSuffix);
+    }
+
+    /**
+     * Checks whether the transactions saved to the given table are covered
+     * by the daily balances, so that newly-saved ones are to be added to them.
+     * Must be called on the MySQL instance holding the table, after the
+     * transactions are saved in the same db transaction.
+     *
+     * @param tableNameSuffix A unique suffix string of table name.
+     *                        (e.g. 1)
+     *
+     * @return {boolean} Returns true if the table has been rolled up
+     *                   or was created with the daily balances.
+     */
+    public boolean isRolledUp(String tableNameSuffix) {
+        if (rolledUpTables.contains(tableNameSuffix)) {
+            return true;
+        }
+
+        boolean rolledUp = transactionDailyBalanceMapper.isTableRolledUp(tableNameSuffix) ||
+                transactionMapper.hasTableComment(ROLLED_UP_TABLE_COMMENT, tableNameSuffix);
+        if (rolledUp) {
+            rolledUpTables.add(tableNameSuffix);
+        }
+        return rolledUp;
+    }
+
+    @Autowired
+    public void setTransactionMapper(TransactionMapper transactionMapper) {
+        this.transactionMapper = transactionMapper;
+    }
+
+    @Autowired
+    public void setTransactionDailyBalanceMapper(TransactionDailyBalanceMapper transactionDailyBalanceMapper) {
+        this.transactionDailyBalanceMapper = transactionDailyBalanceMapper;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+}
@@ -0,0 +1,74 @@
+package com.oliver.accountBackend.shard;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * A month partition of a transaction table, holding the transactions
+ * whose value date is before the first day of the next month.
+ * <p>
+ * Partitions are named after their month, e.g. p202611.  The earliest
+ * partition of a table also holds all transactions before its month,
+ * and the partition {@link #FUTURE_PARTITION_NAME} holds the transactions
+ * after the latest month.
+ */
+public class TransactionPartition {
+    public static final String FUTURE_PARTITION_NAME = "pmax";
+
+    private static final DateTimeFormatter NAME_FORMATTER = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    /**
+     * Month of the transactions held by the partition.
+     */
+    private final YearMonth month;
+
+    /**
+     * Generates a partition of the given month.
+     *
+     * @param month {YearMonth} Month of the transactions held by the partition.
+     */
+    public TransactionPartition(YearMonth month) {
+        this.month = month;
+    }
+
+    /**
+     * Parses the given partition name to a month partition.
+     *
+     * @param partitionName {String} Name of a partition of a transaction table.
+     *
+     * @return {TransactionPartition} Returns the month partition, or null if
+     *                                the partition is not a month partition.
+     */
+    public static TransactionPartition parse(String partitionName) {
+        try {
+            return new TransactionPartition(YearMonth.parse(partitionName, NAME_FORMATTER));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns month of the transactions held by the partition.
+     * @return {YearMonth} Returns month of the transactions held by the partition.
+     */
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    /**
+     * Returns name of the partition.
+     * @return {String} Returns name of the partition. (e.g. p202611)
+     */
+    public String getName() {
+        return month.format(NAME_FORMATTER);
+    }
+
+    /**
+     * Returns the exclusive upper bound of the value dates held by the partition.
+     * @return {String} Returns the first day of the next month. (e.g. 2026-12-01)
+     */
+    public String getLessThan() {
+        return month.plusMonths(1).atDay(1).toString();
+    }
+}
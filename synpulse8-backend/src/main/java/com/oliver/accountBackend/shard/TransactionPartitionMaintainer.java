@@ -0,0 +1,203 @@
+package com.oliver.accountBackend.shard;
+
+import com.oliver.accountBackend.mapper.TransactionMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the month partitions of the transaction tables up to date.
+ * <p>
+ * If 'transaction-partition.enabled' is set, new transaction tables are
+ * partitioned by the month of their value date, see {@link TransactionPartition}.
+ * Date-range reads then only scan the partitions of the requested months.
+ * Tables created before partitioning was enabled are left as they are.
+ * <p>
+ * Maintenance adds the partitions of the next
+ * 'transaction-partition.months-ahead' months and drops the partitions
+ * older than 'transaction-partition.retention-months', so expired
+ * transactions are removed without deleting rows.  Daily balances are
+ * kept, the ids of expired transactions are removed from the transaction
+ * id table.  Maintenance runs once the application is ready and then on
+ * 'transaction-partition.maintenance-cron' if
+ * 'transaction-partition.maintenance-enabled' is set, which should be
+ * done on a single instance only.
+ */
+@Component
+@Slf4j
+public class TransactionPartitionMaintainer {
+    private TransactionMapper transactionMapper;
+
+    private TransactionRoutingDataSource transactionRoutingDataSource;
+
+    @Value("${transaction-partition.enabled}")
+    private boolean enabled;
+
+    @Value("${transaction-partition.maintenance-enabled}")
+    private boolean maintenanceEnabled;
+
+    @Value("${transaction-partition.months-ahead}")
+    private int monthsAhead;
+
+    @Value("${transaction-partition.retention-months}")
+    private int retentionMonths;
+
+    /**
+     * Returns a flag indicated whether new transaction tables are partitioned.
+     * @return {boolean} Returns true if new transaction tables are partitioned.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the month partitions a new transaction table is created with.
+     *
+     * @return {List<TransactionPartition>} Returns the partitions from current month
+     *                                      to the last month ahead, or an empty list
+     *                                      if new tables are not partitioned.
+     */
+    public List<TransactionPartition> getInitialPartitions() {
+        if (!enabled) {
+            return Collections.emptyList();
+        }
+
+        YearMonth currentMonth = YearMonth.now();
+        return getPartitions(currentMonth, currentMonth.plusMonths(monthsAhead));
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainPartitionsOnReady() {
+        maintainPartitions();
+    }
+
+    /**
+     * Adds the missing future partitions and drops the expired partitions
+     * of the partitioned transaction tables on every MySQL instance.
+     */
+    @Scheduled(cron = "${transaction-partition.maintenance-cron}")
+    public void maintainPartitions() {
+        if (!enabled || !maintenanceEnabled) {
+            return;
+        }
+
+        YearMonth currentMonth = YearMonth.now();
+        for (int i = 0; i < transactionRoutingDataSource.getDataSourcesNumber(); i++) {
+            transactionRoutingDataSource.runWithDataSource(i, () -> {
+                maintainPartitions(currentMonth);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Maintains the partitioned transaction tables on the current MySQL instance.
+     * A table that fails is logged and retried on next run.
+     */
+    private void maintainPartitions(YearMonth currentMonth) {
+        List<String> tableNameSuffixes;
+        try {
+            tableNameSuffixes = transactionMapper.getPartitionedTransactionTableNameSuffixes();
+        } catch (Exception e) {
+            log.error("Failed to look up partitioned transaction tables");
+            log.error(e.getMessage());
+            return;
+        }
+
+        int failedTables = 0;
+        for (String tableNameSuffix : tableNameSuffixes) {
+            try {
+                maintainPartitions(tableNameSuffix, currentMonth);
+            } catch (Exception e) {
+                failedTables++;
+                log.error("Failed to maintain partitions of transaction table - transactions_{}", tableNameSuffix);
+                log.error(e.getMessage());
+            }
+        }
+
+        log.info(
+                "Maintained partitions of {} transaction tables, {} failed",
+                tableNameSuffixes.size() - failedTables,
+                failedTables
+        );
+    }
+
+    private void maintainPartitions(String tableNameSuffix, YearMonth currentMonth) {
+        List<YearMonth> months = transactionMapper.getTransactionTablePartitionNames(tableNameSuffix)
+                .stream()
+                .map(TransactionPartition::parse)
+                .filter(Objects::nonNull)
+                .map(TransactionPartition::getMonth)
+                .sorted()
+                .collect(Collectors.toList());
+
+        YearMonth firstMissingMonth = months.isEmpty() ?
+                currentMonth :
+                months.get(months.size() - 1).plusMonths(1);
+        List<TransactionPartition> missingPartitions =
+                getPartitions(firstMissingMonth, currentMonth.plusMonths(monthsAhead));
+        if (!missingPartitions.isEmpty()) {
+            transactionMapper.addTransactionTablePartitions(missingPartitions, tableNameSuffix);
+            log.debug("Added {} partitions to transactions_{}", missingPartitions.size(), tableNameSuffix);
+        }
+
+        if (retentionMonths <= 0) {
+            return;
+        }
+
+        YearMonth oldestKeptMonth = currentMonth.minusMonths(retentionMonths);
+        List<String> expiredPartitionNames = months.stream()
+                .filter(month -> month.isBefore(oldestKeptMonth))
+                .map(month -> new TransactionPartition(month).getName())
+                .collect(Collectors.toList());
+        if (!expiredPartitionNames.isEmpty()) {
+            transactionMapper.dropTransactionTablePartitions(expiredPartitionNames, tableNameSuffix);
+            log.info("Dropped partitions {} of transactions_{}", expiredPartitionNames, tableNameSuffix);
+        }
+
+        // Ids are removed after their transactions, so an id is never reused while its transaction exists.
+        transactionMapper.createTransactionIdTable(tableNameSuffix);
+        transactionMapper.removeTransactionIdsBefore(oldestKeptMonth.atDay(1), tableNameSuffix);
+    }
+
+    /**
+     * Returns the month partitions between the given months, both inclusive.
+     *
+     * @param fromMonth {YearMonth} The first month.
+     * @param toMonth {YearMonth} The last month.
+     *
+     * @return {List<TransactionPartition>} Returns the partitions in order of month,
+     *                                      or an empty list if from month is after to month.
+     */
+    static List<TransactionPartition> getPartitions(YearMonth fromMonth, YearMonth toMonth) {
+        List<TransactionPartition> partitions = new ArrayList<>();
+        for (YearMonth month = fromMonth; !month.isAfter(toMonth); month = month.plusMonths(1)) {
+            partitions.add(new TransactionPartition(month));
+        }
+
+        return partitions;
+    }
+
+    @Autowired
+    public void setTransactionMapper(TransactionMapper transactionMapper) {
+        this.transactionMapper = transactionMapper;
+    }
+
+    @Autowired
+    public void setTransactionRoutingDataSource(TransactionRoutingDataSource transactionRoutingDataSource) {
+        this.transactionRoutingDataSource = transactionRoutingDataSource;
+    }
+}
@@ -0,0 +1,200 @@
+package com.oliver.accountBackend.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A data source routing connections to one of several MySQL instances.
+ * <p>
+ * Instance 0 is 'spring.datasource' and holds every table but the
+ * transaction tables beyond the first range.  Transaction tables are
+ * assigned to instances in ranges of 'transaction-datasource.tables-per-datasource',
+ * so the tables which existed before more instances were added stay on
+ * instance 0.  Tables beyond the last range belong to the last instance.
+ * <p>
+ * The instance is chosen when a connection is taken, so it has to be
+ * selected before a db transaction begins.  Connections are taken from
+ * instance 0 unless another one is selected on the current thread.
+ * <p>
+ * An instance may have a read replica.  Reads opted in with
+ * {@link #runWithReplica(Supplier)} take their connections from the replica
+ * of the selected instance, all other connections go to the instance itself.
+ */
+public class TransactionRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<Integer> CURRENT_DATA_SOURCE_INDEX = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> READ_REPLICA = new ThreadLocal<>();
+
+    /**
+     * Number of MySQL instances.
+     */
+    private final int dataSourcesNumber;
+
+    /**
+     * Number of transaction tables held by each instance.
+     */
+    private final int tablesPerDataSource;
+
+    /**
+     * Indexes of the instances which have a read replica.
+     */
+    private final Set<Integer> replicaDataSourceIndexes;
+
+    /**
+     * Generates a routing data source of the given number of instances.
+     *
+     * @param dataSourcesNumber {int} Number of MySQL instances.
+     * @param tablesPerDataSource {int} Number of transaction tables held by each instance.
+     */
+    public TransactionRoutingDataSource(int dataSourcesNumber, int tablesPerDataSource) {
+        this(dataSourcesNumber, tablesPerDataSource, Collections.emptySet());
+    }
+
+    /**
+     * Generates a routing data source of the given number of instances,
+     * some of which have a read replica.
+     *
+     * @param dataSourcesNumber {int} Number of MySQL instances.
+     * @param tablesPerDataSource {int} Number of transaction tables held by each instance.
+     * @param replicaDataSourceIndexes {Set<Integer>} Indexes of the instances which have
+     *                                                a read replica.
+     */
+    public TransactionRoutingDataSource(
+            int dataSourcesNumber,
+            int tablesPerDataSource,
+            Set<Integer> replicaDataSourceIndexes
+    ) {
+        this.dataSourcesNumber = dataSourcesNumber;
+        this.tablesPerDataSource = tablesPerDataSource;
+        this.replicaDataSourceIndexes = replicaDataSourceIndexes;
+    }
+
+    /**
+     * Returns the lookup key of the read replica of the given instance,
+     * instances themselves are looked up by their index.
+     *
+     * @param dataSourceIndex {int} Index of the instance.
+     *
+     * @return {String} Returns the lookup key of the replica.
+     */
+    public static String getReplicaLookupKey(int dataSourceIndex) {
+        return "replica-" + dataSourceIndex;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int dataSourceIndex = getCurrentDataSourceIndex();
+        if (Boolean.TRUE.equals(READ_REPLICA.get())
+                && replicaDataSourceIndexes.contains(dataSourceIndex)) {
+            return getReplicaLookupKey(dataSourceIndex);
+        }
+
+        return dataSourceIndex;
+    }
+
+    /**
+     * Returns a flag indicated whether any instance has a read replica.
+     * @return {boolean} Returns true if reads can be sent to a replica.
+     */
+    public boolean hasReplicas() {
+        return !replicaDataSourceIndexes.isEmpty();
+    }
+
+    /**
+     * Returns the instance connections are currently taken from.
+     * @return {int} Returns the index of the instance selected on the current thread.
+     */
+    public int getCurrentDataSourceIndex() {
+        Integer dataSourceIndex = CURRENT_DATA_SOURCE_INDEX.get();
+        return dataSourceIndex == null ? 0 : dataSourceIndex;
+    }
+
+    /**
+     * Returns the number of MySQL instances.
+     * @return {int} Returns the number of MySQL instances.
+     */
+    public int getDataSourcesNumber() {
+        return dataSourcesNumber;
+    }
+
+    /**
+     * Returns the instance holding the transaction table with the given suffix.
+     *
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     *
+     * @return {int} Returns the index of the instance, 0 if the suffix
+     *               is not a transaction table number.
+     */
+    public int getDataSourceIndex(String tableNameSuffix) {
+        try {
+            int tableNumber = Integer.parseInt(tableNameSuffix);
+            return tableNumber < 0 ? 0 : Math.min(tableNumber / tablesPerDataSource, dataSourcesNumber - 1);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Runs the given read-only db operation with connections taken from the
+     * read replica of the selected instance, if it has one.  Must not be used
+     * to begin a db transaction.
+     *
+     * @param operation {Supplier<T>} A read-only db operation.
+     *
+     * @return {T} Returns the result of the operation.
+     */
+    public <T> T runWithReplica(Supplier<T> operation) {
+        return runWithReadReplica(true, operation);
+    }
+
+    /**
+     * Runs the given db operation with connections taken from the selected
+     * instance itself, even inside {@link #runWithReplica(Supplier)}.
+     *
+     * @param operation {Supplier<T>} A db operation.
+     *
+     * @return {T} Returns the result of the operation.
+     */
+    public <T> T runWithPrimary(Supplier<T> operation) {
+        return runWithReadReplica(false, operation);
+    }
+
+    private <T> T runWithReadReplica(boolean readReplica, Supplier<T> operation) {
+        Boolean previousReadReplica = READ_REPLICA.get();
+        READ_REPLICA.set(readReplica);
+        try {
+            return operation.get();
+        } finally {
+            if (previousReadReplica == null) {
+                READ_REPLICA.remove();
+            } else {
+                READ_REPLICA.set(previousReadReplica);
+            }
+        }
+    }
+
+    /**
+     * Runs the given db operation with connections taken from the given instance.
+     *
+     * @param dataSourceIndex {int} Index of the instance.
+     * @param operation {Supplier<T>} A db operation.
+     *
+     * @return {T} Returns the result of the operation.
+     */
+    public <T> T runWithDataSource(int dataSourceIndex, Supplier<T> operation) {
+        Integer previousDataSourceIndex = CURRENT_DATA_SOURCE_INDEX.get();
+        CURRENT_DATA_SOURCE_INDEX.set(dataSourceIndex);
+        try {
+            return operation.get();
+        } finally {
+            if (previousDataSourceIndex == null) {
+                CURRENT_DATA_SOURCE_INDEX.remove();
+            } else {
+                CURRENT_DATA_SOURCE_INDEX.set(previousDataSourceIndex);
+            }
+        }
+    }
+}
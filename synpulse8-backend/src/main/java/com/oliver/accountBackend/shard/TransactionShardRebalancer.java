@@ -0,0 +1,467 @@
+package com.oliver.accountBackend.shard;
+
+import com.oliver.accountBackend.cache.TransactionIdIndex;
+import com.oliver.accountBackend.domain.AccountShard;
+import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.mapper.AccountMapper;
+import com.oliver.accountBackend.mapper.AccountShardMapper;
+import com.oliver.accountBackend.mapper.TransactionMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves accounts to the transaction tables the shard ring places them in.
+ * <p>
+ * A move first records the previous table in the account's shard, so new
+ * transactions go to the target table while reads and duplicate checks
+ * cover both tables.  Transactions are then copied to the target table,
+ * the previous table is dropped from the shard and finally the copied
+ * transactions are removed from it.  Accounts are moved in batches of
+ * 'transaction-shard.rebalance.batch-size', each step waits once per batch
+ * for cached shards to expire, and an interrupted move is resumed on next run.
+ * <p>
+ * Pinned accounts are left in their table.  Accounts with transactions
+ * without value date are not moved to partitioned tables.
+ * <p>
+ * Accounts are only moved between tables on the same MySQL instance,
+ * since reads cannot join tables across instances.
+ * <p>
+ * Rebalancing runs once the application is ready and then on
+ * 'transaction-shard.rebalance.cron' if 'transaction-shard.rebalance.enabled'
+ * is set, which should be done on a single instance only.  Runs use their
+ * own thread, since every move waits for cached shards to expire, and
+ * a run is skipped while the previous one is still moving accounts.
+ */
+@Component
+@Slf4j
+public class TransactionShardRebalancer {
+    private AccountMapper accountMapper;
+
+    private AccountShardMapper accountShardMapper;
+
+    private TransactionMapper transactionMapper;
+
+    private TransactionIdIndex transactionIdIndex;
+
+    private TransactionTableRegistry transactionTableRegistry;
+
+    private TransactionShardRouter transactionShardRouter;
+
+    private TransactionRoutingDataSource transactionRoutingDataSource;
+
+    private ReplicaReadGuard replicaReadGuard;
+
+    @Value("${transaction-shard.rebalance.enabled}")
+    private boolean enabled;
+
+    @Value("${transaction-shard.rebalance.batch-size}")
+    private int batchSize;
+
+    /**
+     * A flag indicated whether a rebalance is running.
+     */
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * Rebalances transaction tables once the application is ready.
+     */
+    @Async("rebalanceExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebalanceOnReady() {
+        rebalance();
+    }
+
+    /**
+     * Rebalances transaction tables on schedule.
+     */
+    @Async("rebalanceExecutor")
+    @Scheduled(cron = "${transaction-shard.rebalance.cron}")
+    public void rebalanceOnSchedule() {
+        rebalance();
+    }
+
+    /**
+     * Moves every unpinned account whose table differs from
+     * the one the shard ring places it in, unless a rebalance is running.
+     */
+    public void rebalance() {
+        if (!enabled) {
+            return;
+        }
+
+        if (!running.compareAndSet(false, true)) {
+            log.info("Transaction tables are being rebalanced, skipping");
+            return;
+        }
+
+        try {
+            moveAccounts();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Moves every unpinned account whose table differs from
+     * the one the shard ring places it in, a batch of accounts at a time.
+     */
+    private void moveAccounts() {
+        int movedAccounts = 0;
+        String afterIban = null;
+        try {
+            List<String> ibans;
+            do {
+                ibans = accountMapper.getAccountIbansAfter(afterIban, batchSize);
+                List<AccountShard> moves = new ArrayList<>();
+                for (String iban : ibans) {
+                    AccountShard move = startMove(iban);
+                    if (move != null) {
+                        moves.add(move);
+                    }
+                }
+                movedAccounts += completeMoves(moves);
+
+                if (!ibans.isEmpty()) {
+                    afterIban = ibans.get(ibans.size() - 1);
+                }
+            } while (ibans.size() == batchSize);
+
+            log.info("Rebalanced transaction tables, moved {} accounts", movedAccounts);
+        } catch (Exception e) {
+            log.error("Failed to rebalance transaction tables after account - {}", afterIban);
+            log.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Starts moving an account to the table the shard ring places it in,
+     * or resumes its move in progress.  Pinned accounts are left in their table.
+     *
+     * @param accountIban {String} Account's iban.
+     *
+     * @return {AccountShard} Returns the shard of the account being moved,
+     *                        or null if the account stays in its table.
+     */
+    private AccountShard startMove(String accountIban) {
+        AccountShard accountShard = transactionShardRouter.getAccountShard(accountIban);
+        if (accountShard.isMoving()) {
+            return resumeMove(accountShard);
+        }
+
+        String tableNameSuffix = accountShard.getTableNameSuffix();
+        String targetTableNameSuffix = transactionShardRouter.getTargetTableNameSuffix(accountIban);
+        if (accountShard.isPinned()
+                || targetTableNameSuffix.equals(tableNameSuffix)
+                || !isSameDataSource(tableNameSuffix, targetTableNameSuffix)) {
+            return null;
+        }
+
+        if (!canMove(accountIban, tableNameSuffix, targetTableNameSuffix)) {
+            log.warn(
+                    "Account - {} has transactions without value date, not moving it to partitioned transactions_{}",
+                    accountIban,
+                    targetTableNameSuffix
+            );
+            return null;
+        }
+
+        return startMove(accountIban, tableNameSuffix, targetTableNameSuffix, false);
+    }
+
+    /**
+     * Moves the transactions of an account to the given table, keeping
+     * the account's pinned flag.  A move in progress is resumed, the given
+     * table is ignored in that case.
+     *
+     * @param accountIban {String} Account's iban.
+     * @param tableNameSuffix {String} Suffix of the transaction table to move to.
+     *
+     * @throws InterruptedException Throws InterruptedException if interrupted while
+     *                              waiting for cached shards to expire.
+     * @throws IllegalArgumentException Throws IllegalArgumentException if the table is
+     *                                  on another MySQL instance, or is partitioned and
+     *                                  the account has transactions without value date.
+     */
+    public void moveAccount(String accountIban, String tableNameSuffix) throws InterruptedException {
+        AccountShard accountShard = accountShardMapper.getAccountShardByIban(accountIban);
+        if (accountShard != null && accountShard.isMoving()) {
+            completeMoves(Collections.singletonList(resumeMove(accountShard)));
+            return;
+        }
+
+        accountShard = transactionShardRouter.getAccountShard(accountIban);
+        String previousTableNameSuffix = accountShard.getTableNameSuffix();
+        if (previousTableNameSuffix.equals(tableNameSuffix)) {
+            accountShardMapper.replaceAccountShard(
+                    new AccountShard(accountIban, tableNameSuffix, null, accountShard.isPinned())
+            );
+            transactionShardRouter.invalidate(accountIban);
+            return;
+        }
+
+        if (!isSameDataSource(previousTableNameSuffix, tableNameSuffix)) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Cannot move account - %s between datasources, from transactions_%s to transactions_%s",
+                            accountIban,
+                            previousTableNameSuffix,
+                            tableNameSuffix
+                    )
+            );
+        }
+
+        if (!canMove(accountIban, previousTableNameSuffix, tableNameSuffix)) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Cannot move account - %s with transactions without value date to partitioned transactions_%s",
+                            accountIban,
+                            tableNameSuffix
+                    )
+            );
+        }
+
+        completeMoves(
+                Collections.singletonList(
+                        startMove(accountIban, previousTableNameSuffix, tableNameSuffix, accountShard.isPinned())
+                )
+        );
+    }
+
+    /**
+     * Records the previous table of an account in its shard, so new
+     * transactions go to the target table while reads cover both.
+     *
+     * @return {AccountShard} Returns the shard of the account being moved.
+     */
+    private AccountShard startMove(
+            String accountIban,
+            String previousTableNameSuffix,
+            String tableNameSuffix,
+            boolean pinned
+    ) {
+        AccountShard accountShard =
+                new AccountShard(accountIban, tableNameSuffix, previousTableNameSuffix, pinned);
+        accountShardMapper.replaceAccountShard(accountShard);
+        return accountShard;
+    }
+
+    /**
+     * Resumes a move in progress.  A move to a partitioned table which cannot
+     * hold all transactions of the account is reversed instead, the previous
+     * table becomes the target and receives the transactions saved meanwhile.
+     *
+     * @param accountShard {AccountShard} Shard of the account being moved.
+     *
+     * @return {AccountShard} Returns the shard of the account being moved.
+     */
+    private AccountShard resumeMove(AccountShard accountShard) {
+        String accountIban = accountShard.getAccountIban();
+        String previousTableNameSuffix = accountShard.getPreviousTableNameSuffix();
+        String tableNameSuffix = accountShard.getTableNameSuffix();
+        if (canMove(accountIban, previousTableNameSuffix, tableNameSuffix)) {
+            return accountShard;
+        }
+
+        log.warn(
+                "Account - {} has transactions without value date, moving it back to transactions_{}",
+                accountIban,
+                previousTableNameSuffix
+        );
+        return startMove(accountIban, tableNameSuffix, previousTableNameSuffix, accountShard.isPinned());
+    }
+
+    /**
+     * Checks whether the target table can hold all transactions of an account,
+     * creating the table if missing.  Partitioned tables require value date.
+     */
+    private boolean canMove(String accountIban, String previousTableNameSuffix, String tableNameSuffix) {
+        transactionTableRegistry.ensureTableCreated(tableNameSuffix);
+        return !transactionTableRegistry.isPartitioned(tableNameSuffix)
+                || !transactionTableRegistry.runWithDataSource(
+                        previousTableNameSuffix,
+                        () -> transactionMapper.hasTransactionsOfAccountWithoutValueDate(
+                                accountIban,
+                                previousTableNameSuffix
+                        )
+                );
+    }
+
+    /**
+     * Completes the moves of a batch of accounts, waiting for cached shards
+     * to expire once before copying their transactions and once before
+     * removing them from the previous tables.  An account failed to copy
+     * stays moving and is resumed on next run.
+     *
+     * @param accountShards {List<AccountShard>} Shards of the accounts being moved.
+     *
+     * @return {int} Returns the number of moved accounts.
+     * @throws InterruptedException Throws InterruptedException if interrupted while
+     *                              waiting for cached shards to expire.
+     */
+    private int completeMoves(List<AccountShard> accountShards) throws InterruptedException {
+        if (accountShards.isEmpty()) {
+            return 0;
+        }
+
+        awaitShardChanges(accountShards);
+
+        List<AccountShard> copiedAccountShards = new ArrayList<>();
+        for (AccountShard accountShard : accountShards) {
+            String accountIban = accountShard.getAccountIban();
+            String previousTableNameSuffix = accountShard.getPreviousTableNameSuffix();
+            String targetTableNameSuffix = accountShard.getTableNameSuffix();
+            try {
+                int copiedTransactions = transactionTableRegistry.runWithDataSource(
+                        previousTableNameSuffix,
+                        () -> copyTransactions(accountIban, previousTableNameSuffix, targetTableNameSuffix)
+                );
+                accountShardMapper.completeMove(accountIban);
+                copiedAccountShards.add(accountShard);
+                log.debug(
+                        "Copied {} transactions of account - {} from transactions_{} to transactions_{}",
+                        copiedTransactions,
+                        accountIban,
+                        previousTableNameSuffix,
+                        targetTableNameSuffix
+                );
+            } catch (Exception e) {
+                log.error("Failed to move account - {}", accountIban);
+                log.error(e.getMessage());
+            }
+        }
+
+        if (copiedAccountShards.isEmpty()) {
+            return 0;
+        }
+
+        awaitShardChanges(copiedAccountShards);
+
+        for (AccountShard accountShard : copiedAccountShards) {
+            String accountIban = accountShard.getAccountIban();
+            String previousTableNameSuffix = accountShard.getPreviousTableNameSuffix();
+            transactionTableRegistry.runWithDataSource(previousTableNameSuffix, () -> {
+                int removedTransactions;
+                do {
+                    removedTransactions = transactionMapper.removeTransactionsOfAccount(
+                            accountIban,
+                            batchSize,
+                            previousTableNameSuffix
+                    );
+                } while (removedTransactions == batchSize);
+                return null;
+            });
+            replicaReadGuard.markWritten(accountIban);
+        }
+
+        log.info("Moved {} accounts", copiedAccountShards.size());
+        return copiedAccountShards.size();
+    }
+
+    /**
+     * Copies the transactions of an account between tables in batches
+     * ordered by transaction id, transactions copied already are skipped.
+     *
+     * @return {int} Returns the number of visited transactions.
+     */
+    private int copyTransactions(
+            String accountIban,
+            String fromTableNameSuffix,
+            String toTableNameSuffix
+    ) {
+        int copiedTransactions = 0;
+        String afterTransactionId = null;
+        List<Transaction> transactions;
+        do {
+            transactions = transactionMapper.getTransactionsOfAccount(
+                    accountIban,
+                    afterTransactionId,
+                    batchSize,
+                    fromTableNameSuffix
+            );
+            if (transactions.isEmpty()) {
+                break;
+            }
+
+            transactionMapper.copyTransactions(transactions, toTableNameSuffix);
+            if (transactionTableRegistry.isPartitioned(toTableNameSuffix)) {
+                transactionMapper.copyTransactionIds(transactions, toTableNameSuffix);
+            }
+            transactions.forEach(transaction ->
+                    transactionIdIndex.put(toTableNameSuffix, transaction.getTransactionId())
+            );
+
+            copiedTransactions += transactions.size();
+            afterTransactionId = transactions.get(transactions.size() - 1).getTransactionId();
+        } while (transactions.size() == batchSize);
+
+        return copiedTransactions;
+    }
+
+    private boolean isSameDataSource(String tableNameSuffix, String anotherTableNameSuffix) {
+        return transactionRoutingDataSource.getDataSourceIndex(tableNameSuffix)
+                == transactionRoutingDataSource.getDataSourceIndex(anotherTableNameSuffix);
+    }
+
+    /**
+     * Waits until no instance uses a cached shard of the accounts
+     * from before their last change.
+     */
+    private void awaitShardChanges(List<AccountShard> accountShards) throws InterruptedException {
+        accountShards.forEach(accountShard -> {
+            replicaReadGuard.markWritten(accountShard.getAccountIban());
+            transactionShardRouter.invalidate(accountShard.getAccountIban());
+        });
+        Thread.sleep(transactionShardRouter.getCacheExpireMillis());
+    }
+
+    @Autowired
+    public void setAccountMapper(AccountMapper accountMapper) {
+        this.accountMapper = accountMapper;
+    }
+
+    @Autowired
+    public void setAccountShardMapper(AccountShardMapper accountShardMapper) {
+        this.accountShardMapper = accountShardMapper;
+    }
+
+    @Autowired
+    public void setTransactionMapper(TransactionMapper transactionMapper) {
+        this.transactionMapper = transactionMapper;
+    }
+
+    @Autowired
+    public void setTransactionIdIndex(TransactionIdIndex transactionIdIndex) {
+        this.transactionIdIndex = transactionIdIndex;
+    }
+
+    @Autowired
+    public void setTransactionTableRegistry(TransactionTableRegistry transactionTableRegistry) {
+        this.transactionTableRegistry = transactionTableRegistry;
+    }
+
+    @Autowired
+    public void setTransactionShardRouter(TransactionShardRouter transactionShardRouter) {
+        this.transactionShardRouter = transactionShardRouter;
+    }
+
+    @Autowired
+    public void setTransactionRoutingDataSource(TransactionRoutingDataSource transactionRoutingDataSource) {
+        this.transactionRoutingDataSource = transactionRoutingDataSource;
+    }
+
+    @Autowired
+    public void setReplicaReadGuard(ReplicaReadGuard replicaReadGuard) {
+        this.replicaReadGuard = replicaReadGuard;
+    }
+}
@@ -0,0 +1,185 @@
+package com.oliver.accountBackend.shard;
+
+import com.oliver.accountBackend.domain.AccountShard;
+import com.oliver.accountBackend.mapper.AccountShardMapper;
+import com.oliver.util.cache.LocalCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static com.oliver.accountBackend.shard.TransactionTableRegistry.TRANSACTION_TABLES_NUMBER;
+
+/**
+ * Routes accounts to transaction tables.
+ * <p>
+ * The table of every new account is chosen by a consistent hash ring and
+ * persisted in 'account_shards', so growing the number of tables does not
+ * move existing accounts.  Accounts created before the shard map existed
+ * have no persisted shard and keep their legacy table until
+ * {@link TransactionShardRebalancer} moves them.
+ * <p>
+ * Shards are cached in process for a short time, movers wait for the
+ * cache to expire before relying on a shard change being seen.  Shards
+ * live on MySQL instance 0 and are read outside of db transactions
+ * bound to other instances.
+ */
+@Component
+@Slf4j
+public class TransactionShardRouter {
+    private AccountShardMapper accountShardMapper;
+
+    private TransactionTableRegistry transactionTableRegistry;
+
+    @Value("${transaction-shard.tables-number}")
+    private int tablesNumber;
+
+    @Value("${transaction-shard.virtual-nodes}")
+    private int virtualNodes;
+
+    @Value("${transaction-shard.cache-maximum-size}")
+    private int cacheMaximumSize;
+
+    @Value("${transaction-shard.cache-expire-seconds}")
+    private int cacheExpireSeconds;
+
+    private ConsistentHashRing ring;
+
+    private LocalCache<String, AccountShard> localCache;
+
+    @PostConstruct
+    public void init() {
+        ring = new ConsistentHashRing(tablesNumber, virtualNodes);
+        localCache = new LocalCache<>(
+                cacheMaximumSize,
+                TimeUnit.SECONDS.toMillis(cacheExpireSeconds)
+        );
+        log.info(
+                "Built transaction shard ring of {} tables with {} virtual nodes each",
+                tablesNumber,
+                virtualNodes
+        );
+    }
+
+    /**
+     * Returns the shard of the given account.
+     *
+     * @param accountIban {String} Account's iban.
+     *
+     * @return {AccountShard} Returns the persisted shard of the account,
+     *                        or its legacy shard if none is persisted.
+     */
+    public AccountShard getAccountShard(String accountIban) {
+        AccountShard accountShard = localCache.get(accountIban);
+        if (accountShard != null) {
+            return accountShard;
+        }
+
+        accountShard = transactionTableRegistry.runWithDataSource(
+                0,
+                () -> accountShardMapper.getAccountShardByIban(accountIban)
+        );
+        if (accountShard == null) {
+            accountShard = new AccountShard(
+                    accountIban,
+                    getLegacyTableNameSuffix(accountIban),
+                    null,
+                    false
+            );
+        }
+
+        localCache.put(accountIban, accountShard);
+        return accountShard;
+    }
+
+    /**
+     * Returns suffix of the transaction table new transactions
+     * of the given account are saved to.
+     *
+     * @param accountIban {String} Account's iban.
+     *
+     * @return {String} Returns suffix of the transaction table.
+     */
+    public String getTableNameSuffix(String accountIban) {
+        return getAccountShard(accountIban).getTableNameSuffix();
+    }
+
+    /**
+     * Returns suffix of the transaction table the ring places
+     * the given account in.
+     *
+     * @param accountIban {String} Account's iban.
+     *
+     * @return {String} Returns suffix of the transaction table.
+     */
+    public String getTargetTableNameSuffix(String accountIban) {
+        return String.valueOf(ring.locate(accountIban));
+    }
+
+    /**
+     * Persists the shard of a new account.
+     *
+     * @param accountIban {String} Iban of a new account.
+     *
+     * @return {String} Returns suffix of the transaction table of the account.
+     */
+    public String assignTableNameSuffix(String accountIban) {
+        String tableNameSuffix = getTargetTableNameSuffix(accountIban);
+        invalidate(accountIban);
+        if (accountShardMapper.saveAccountShard(
+                new AccountShard(accountIban, tableNameSuffix, null, false)
+        ) > 0) {
+            return tableNameSuffix;
+        }
+
+        // The account has a shard already, which is kept as it is.
+        return accountShardMapper.getAccountShardByIban(accountIban).getTableNameSuffix();
+    }
+
+    /**
+     * Removes the cached shard of the given account.
+     *
+     * @param accountIban {String} Account's iban.
+     */
+    public void invalidate(String accountIban) {
+        localCache.invalidate(accountIban);
+    }
+
+    /**
+     * Returns time in milliseconds a cached shard may be used after it changed.
+     * @return {long} Returns time in milliseconds a shard is cached.
+     */
+    public long getCacheExpireMillis() {
+        return TimeUnit.SECONDS.toMillis(cacheExpireSeconds);
+    }
+
+    /**
+     * Returns the number of transaction tables on the ring.
+     * @return {int} Returns the number of transaction tables.
+     */
+    public int getTablesNumber() {
+        return tablesNumber;
+    }
+
+    /**
+     * Returns the table accounts were hashed to before the shard map existed.
+     */
+    private String getLegacyTableNameSuffix(String accountIban) {
+        int hashCode = Math.abs(Objects.hash(accountIban) % TRANSACTION_TABLES_NUMBER);
+        return String.valueOf(hashCode);
+    }
+
+    @Autowired
+    public void setAccountShardMapper(AccountShardMapper accountShardMapper) {
+        this.accountShardMapper = accountShardMapper;
+    }
+
+    @Autowired
+    public void setTransactionTableRegistry(TransactionTableRegistry transactionTableRegistry) {
+        this.transactionTableRegistry = transactionTableRegistry;
+    }
+}
@@ -0,0 +1,32 @@
+package com.oliver.accountBackend.shard;
+
+import java.util.List;
+
+/**
+ * A schema change applied to every existing transaction table.
+ * <p>
+ * Transaction tables created after the change already have the new schema,
+ * so a migration only has to bring the older tables up to date.
+ */
+public interface TransactionTableMigration {
+    /**
+     * Returns a short name of the migration used in logs.
+     *
+     * @return {String} Returns the name of the migration.
+     */
+    String getName();
+
+    /**
+     * Returns the suffixes of the transaction tables that have not been migrated.
+     *
+     * @return {List<String>} Returns the suffixes of the tables to migrate.
+     */
+    List<String> getPendingTableNameSuffixes();
+
+    /**
+     * Migrates the transaction table with the given suffix.
+     *
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     */
+    void migrate(String tableNameSuffix);
+}
@@ -0,0 +1,103 @@
+package com.oliver.accountBackend.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Applies the transaction table migrations to all existing transaction
+ * tables once the application is ready.
+ * <p>
+ * Migrations run in their declared order, on every MySQL instance holding
+ * transaction tables.  A table that fails to migrate
+ * is logged and left for the next start-up, since pending tables are
+ * looked up again every time.
+ */
+@Component
+@Slf4j
+public class TransactionTableMigrator {
+    private List<TransactionTableMigration> migrations;
+
+    private TransactionRoutingDataSource transactionRoutingDataSource;
+
+    @Value("${transaction-table-migration.enabled}")
+    private boolean enabled;
+
+    /**
+     * Runs all migrations against the tables that have not been migrated.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateTables() {
+        if (!enabled) {
+            return;
+        }
+
+        for (int i = 0; i < transactionRoutingDataSource.getDataSourcesNumber(); i++) {
+            transactionRoutingDataSource.runWithDataSource(i, () -> {
+                migrations.forEach(this::migrateTables);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs the given migration against the tables that have not been migrated
+     * on the current MySQL instance.
+     *
+     * @param migration {TransactionTableMigration} A transaction table migration.
+     */
+    public void migrateTables(TransactionTableMigration migration) {
+        List<String> tableNameSuffixes;
+        try {
+            tableNameSuffixes = migration.getPendingTableNameSuffixes();
+        } catch (Exception e) {
+            log.error("Failed to look up transaction tables pending migration - {}", migration.getName());
+            log.error(e.getMessage());
+            return;
+        }
+
+        if (tableNameSuffixes.isEmpty()) {
+            return;
+        }
+
+        log.info("Migrating {} transaction tables - {}", tableNameSuffixes.size(), migration.getName());
+        int failedTables = 0;
+        for (String tableNameSuffix : tableNameSuffixes) {
+            try {
+                migration.migrate(tableNameSuffix);
+            } catch (Exception e) {
+                failedTables++;
+                log.error(
+                        "Failed to migrate transaction table - transactions_{} - {}",
+                        tableNameSuffix,
+                        migration.getName()
+                );
+                log.error(e.getMessage());
+            }
+        }
+
+        log.info(
+                "Migrated {} transaction tables - {}, {} failed",
+                tableNameSuffixes.size() - failedTables,
+                migration.getName(),
+                failedTables
+        );
+    }
+
+    @Autowired
+    public void setMigrations(List<TransactionTableMigration> migrations) {
+        this.migrations = migrations;
+    }
+
+    @Autowired
+    public void setTransactionRoutingDataSource(TransactionRoutingDataSource transactionRoutingDataSource) {
+        this.transactionRoutingDataSource = transactionRoutingDataSource;
+    }
+}
@@ -0,0 +1,360 @@
+package com.oliver.accountBackend.shard;
+
+import com.oliver.accountBackend.mapper.TransactionMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Keeps track of the transaction tables which exist in db,
+ * so that request paths do not have to issue DDL statements.
+ * <p>
+ * Operations on a transaction table are run against the MySQL instance
+ * holding the table, see {@link TransactionRoutingDataSource}.  A db
+ * transaction is bound to one instance, so operations on other instances
+ * are run outside of it.  DDL statements always run outside of the current
+ * db transaction, since MySQL would commit it before the statement.
+ * <p>
+ * Existing tables are discovered once the application is ready.  Missing
+ * tables are created on first use, or all at once on start-up if
+ * 'transaction-table-registry.pre-create-tables' is enabled.
+ * <p>
+ * Partitioned tables cannot keep transaction ids unique by themselves,
+ * so each of them comes with a transaction id table, see {@link #isPartitioned(String)}.
+ */
+@Component
+@Slf4j
+public class TransactionTableRegistry {
+    /**
+     * Number of transaction tables before the shard ring existed,
+     * accounts without a persisted shard still use them.
+     */
+    public static final int TRANSACTION_TABLES_NUMBER = 5000;
+
+    /**
+     * SQL state of "table does not exist" errors.
+     */
+    private static final String MISSING_TABLE_SQL_STATE = "42S02";
+
+    private TransactionMapper transactionMapper;
+
+    private TransactionRoutingDataSource transactionRoutingDataSource;
+
+    private TransactionTemplate nonTransactionalTemplate;
+
+    private TransactionPartitionMaintainer transactionPartitionMaintainer;
+
+    @Value("${transaction-table-registry.pre-create-tables}")
+    private boolean preCreateTables;
+
+    @Value("${transaction-shard.tables-number}")
+    private int tablesNumber;
+
+    /**
+     * Number of tables tracked by the bitset, covering both
+     * the legacy tables and the tables on the shard ring.
+     */
+    private int trackedTablesNumber;
+
+    /**
+     * A bitset of transaction tables known to exist, indexed by table name's suffix.
+     */
+    private AtomicLongArray createdTables;
+
+    /**
+     * Whether the transaction tables known to exist are partitioned,
+     * keyed by table name's suffix.
+     */
+    private final Map<String, Boolean> partitionedTables = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initCreatedTables() {
+        trackedTablesNumber = Math.max(tablesNumber, TRANSACTION_TABLES_NUMBER);
+        createdTables = new AtomicLongArray((trackedTablesNumber + 63) / 64);
+    }
+
+    /**
+     * Creates the transaction table with the given suffix
+     * unless it is known to exist.
+     *
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     */
+    public void ensureTableCreated(String tableNameSuffix) {
+        int index = getIndex(tableNameSuffix);
+        if (index >= 0 && isSet(index)) {
+            return;
+        }
+
+        log.debug("Creating transaction table with suffix {}", tableNameSuffix);
+        List<TransactionPartition> partitions = transactionPartitionMaintainer.getInitialPartitions();
+        runDdl(tableNameSuffix, () -> {
+            if (partitions.isEmpty()) {
+                transactionMapper.createTransactionTable(tableNameSuffix);
+            } else {
+                transactionMapper.createPartitionedTransactionTable(partitions, tableNameSuffix);
+            }
+
+            // The table may have been created before with another layout.
+            registerPartitioned(
+                    tableNameSuffix,
+                    !transactionMapper.getTransactionTablePartitionNames(tableNameSuffix).isEmpty()
+            );
+            return null;
+        });
+        if (index >= 0) {
+            set(index);
+        }
+    }
+
+    /**
+     * Returns a flag indicated whether the transaction table with the given
+     * suffix is partitioned.  Transactions saved to a partitioned table must
+     * have their ids saved to its transaction id table in the same db transaction.
+     *
+     * @param tableNameSuffix {String} Suffix of a transaction table known to exist.
+     *
+     * @return {boolean} Returns true if the table is partitioned.
+     */
+    public boolean isPartitioned(String tableNameSuffix) {
+        Boolean partitioned = partitionedTables.get(tableNameSuffix);
+        if (partitioned != null) {
+            return partitioned;
+        }
+
+        return runDdl(tableNameSuffix, () -> {
+            boolean isPartitioned =
+                    !transactionMapper.getTransactionTablePartitionNames(tableNameSuffix).isEmpty();
+            registerPartitioned(tableNameSuffix, isPartitioned);
+            return isPartitioned;
+        });
+    }
+
+    /**
+     * Records whether the given table is partitioned, creating the transaction
+     * id table of a partitioned one.  Must run against the table's instance.
+     */
+    private void registerPartitioned(String tableNameSuffix, boolean partitioned) {
+        if (partitioned) {
+            transactionMapper.createTransactionIdTable(tableNameSuffix);
+        }
+        partitionedTables.put(tableNameSuffix, partitioned);
+    }
+
+    /**
+     * Runs the given db operation against the transaction table with the given suffix.
+     * <p>
+     * If the table has been dropped since it was registered, the table is
+     * created again and the operation is retried once.
+     *
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     * @param operation {Supplier<T>} A db operation using the table.
+     *
+     * @return {T} Returns the result of the operation.
+     */
+    public <T> T runWithTable(String tableNameSuffix, Supplier<T> operation) {
+        ensureTableCreated(tableNameSuffix);
+
+        try {
+            return runWithDataSource(tableNameSuffix, operation);
+        } catch (BadSqlGrammarException e) {
+            if (!MISSING_TABLE_SQL_STATE.equals(e.getSQLException().getSQLState())) {
+                throw e;
+            }
+
+            log.warn("Transaction table with suffix {} has been dropped, creating it again", tableNameSuffix);
+            int index = getIndex(tableNameSuffix);
+            if (index >= 0) {
+                clear(index);
+            }
+            ensureTableCreated(tableNameSuffix);
+            return runWithDataSource(tableNameSuffix, operation);
+        }
+    }
+
+    /**
+     * Runs the given db operation against the MySQL instance holding
+     * the transaction table with the given suffix.
+     *
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     * @param operation {Supplier<T>} A db operation.
+     *
+     * @return {T} Returns the result of the operation.
+     */
+    public <T> T runWithDataSource(String tableNameSuffix, Supplier<T> operation) {
+        return runWithDataSource(
+                transactionRoutingDataSource.getDataSourceIndex(tableNameSuffix),
+                operation
+        );
+    }
+
+    /**
+     * Runs the given db operation against the given MySQL instance, outside of
+     * the current db transaction if the transaction is bound to another instance.
+     *
+     * @param dataSourceIndex {int} Index of the instance.
+     * @param operation {Supplier<T>} A db operation.
+     *
+     * @return {T} Returns the result of the operation.
+     */
+    public <T> T runWithDataSource(int dataSourceIndex, Supplier<T> operation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && transactionRoutingDataSource.getCurrentDataSourceIndex() != dataSourceIndex) {
+            return nonTransactionalTemplate.execute(status ->
+                    transactionRoutingDataSource.runWithDataSource(dataSourceIndex, operation)
+            );
+        }
+
+        return transactionRoutingDataSource.runWithDataSource(dataSourceIndex, operation);
+    }
+
+    /**
+     * Runs the given DDL operation against the primary of the MySQL instance
+     * holding the transaction table with the given suffix.  The operation
+     * always runs outside of the current db transaction, even if the
+     * transaction is bound to the same instance, because MySQL commits the
+     * open transaction before a DDL statement.
+     *
+     * @param tableNameSuffix {String} Transaction table name's suffix.
+     * @param operation {Supplier<T>} A db operation issuing DDL statements.
+     *
+     * @return {T} Returns the result of the operation.
+     */
+    private <T> T runDdl(String tableNameSuffix, Supplier<T> operation) {
+        int dataSourceIndex = transactionRoutingDataSource.getDataSourceIndex(tableNameSuffix);
+        return nonTransactionalTemplate.execute(status ->
+                transactionRoutingDataSource.runWithDataSource(
+                        dataSourceIndex,
+                        () -> transactionRoutingDataSource.runWithPrimary(operation)
+                )
+        );
+    }
+
+    /**
+     * Registers the existing transaction tables and, if enabled,
+     * creates all missing transaction tables.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void discoverTables() {
+        try {
+            int discoveredTables = 0;
+            for (int i = 0; i < transactionRoutingDataSource.getDataSourcesNumber(); i++) {
+                int dataSourceIndex = i;
+                discoveredTables += transactionRoutingDataSource.runWithDataSource(
+                        dataSourceIndex,
+                        () -> transactionRoutingDataSource.runWithPrimary(
+                                () -> discoverTablesOfDataSource(dataSourceIndex)
+                        )
+                );
+            }
+            log.info("Discovered {} transaction tables", discoveredTables);
+
+            if (preCreateTables) {
+                for (int i = 0; i < trackedTablesNumber; i++) {
+                    ensureTableCreated(String.valueOf(i));
+                }
+                log.info("Created all {} transaction tables", trackedTablesNumber);
+            }
+        } catch (Exception e) {
+            log.error("Failed to discover transaction tables");
+            log.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Registers the existing transaction tables of the current MySQL instance.
+     *
+     * @param dataSourceIndex {int} Index of the current instance.
+     *
+     * @return {int} Returns the number of registered tables.
+     */
+    private int discoverTablesOfDataSource(int dataSourceIndex) {
+        List<String> tableNameSuffixes = transactionMapper.getTransactionTableNameSuffixes();
+        Set<String> partitionedTableNameSuffixes =
+                new HashSet<>(transactionMapper.getPartitionedTransactionTableNameSuffixes());
+
+        int discoveredTables = 0;
+        for (String tableNameSuffix : tableNameSuffixes) {
+            // Tables left on an instance which no longer holds them are ignored.
+            int index = getIndex(tableNameSuffix);
+            if (index >= 0
+                    && transactionRoutingDataSource.getDataSourceIndex(tableNameSuffix) == dataSourceIndex) {
+                registerPartitioned(tableNameSuffix, partitionedTableNameSuffixes.contains(tableNameSuffix));
+                set(index);
+                discoveredTables++;
+            }
+        }
+
+        return discoveredTables;
+    }
+
+    /**
+     * Returns the index of the given suffix in the bitset,
+     * or -1 if the suffix is not a transaction table number.
+     */
+    private int getIndex(String tableNameSuffix) {
+        try {
+            int index = Integer.parseInt(tableNameSuffix);
+            return index >= 0 && index < trackedTablesNumber ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private boolean isSet(int index) {
+        return (createdTables.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    private void set(int index) {
+        long current;
+        do {
+            current = createdTables.get(index >>> 6);
+        } while (!createdTables.compareAndSet(index >>> 6, current, current | (1L << index)));
+    }
+
+    private void clear(int index) {
+        long current;
+        do {
+            current = createdTables.get(index >>> 6);
+        } while (!createdTables.compareAndSet(index >>> 6, current, current & ~(1L << index)));
+    }
+
+    @Autowired
+    public void setTransactionMapper(TransactionMapper transactionMapper) {
+        this.transactionMapper = transactionMapper;
+    }
+
+    @Autowired
+    public void setTransactionRoutingDataSource(TransactionRoutingDataSource transactionRoutingDataSource) {
+        this.transactionRoutingDataSource = transactionRoutingDataSource;
+    }
+
+    @Autowired
+    public void setTransactionPartitionMaintainer(TransactionPartitionMaintainer transactionPartitionMaintainer) {
+        this.transactionPartitionMaintainer = transactionPartitionMaintainer;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.nonTransactionalTemplate = new TransactionTemplate(transactionManager);
+        this.nonTransactionalTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+    }
+}
@@ -0,0 +1,65 @@
+package com.oliver.apiGateway.authorization;
+
+import com.oliver.apiGateway.domain.LoginUser;
+import com.oliver.util.SystemMenuResourceStringCreator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks the resources granted to the authenticated user,
+ * used in '@PreAuthorize("@resourceAuthorization...")'.
+ * <p>
+ * Logged-in users look resources up in their index in constant time,
+ * instead of scanning one authority per owned account.
+ */
+@Component("resourceAuthorization")
+public class ResourceAuthorization {
+    /**
+     * Checks whether the authenticated user can access the basic account resource.
+     * (e.g. creating account)
+     *
+     * @return {boolean} Returns true if the resource has been granted.
+     */
+    public boolean hasAccountResource() {
+        return hasResource(SystemMenuResourceStringCreator.getAccountResourceString());
+    }
+
+    /**
+     * Checks whether the authenticated user can access the given account.
+     *
+     * @param iban {String} Account's iban.
+     *
+     * @return {boolean} Returns true if the resource has been granted.
+     */
+    public boolean hasAccountResource(String iban) {
+        return hasResource(SystemMenuResourceStringCreator.getAccountInformationResourceString(iban));
+    }
+
+    /**
+     * Checks whether the authenticated user has been granted the given resource.
+     *
+     * @param resource {String} A system menu's resource.
+     *
+     * @return {boolean} Returns true if the resource has been granted.
+     */
+    public boolean hasResource(String resource) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return false;
+        }
+
+        if (authentication.getPrincipal() instanceof LoginUser) {
+            return ((LoginUser) authentication.getPrincipal()).hasResource(resource);
+        }
+
+        for (GrantedAuthority grantedAuthority : authentication.getAuthorities()) {
+            if (resource.equals(grantedAuthority.getAuthority())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
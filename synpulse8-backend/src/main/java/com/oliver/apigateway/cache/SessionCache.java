@@ -0,0 +1,171 @@
+package com.oliver.apiGateway.cache;
+
+import com.oliver.apiGateway.domain.LoginUser;
+import com.oliver.util.cache.LocalCache;
+import com.oliver.util.redis.RedisCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An in-process cache of the logged-in users authenticated by
+ * each jwt, keyed by user id, in front of the sessions in redis.
+ * <p>
+ * Sessions only change when a user logs in, logs out or is granted a new
+ * resource.  Those changes call {@link #invalidate(String)}, which also
+ * publishes the user id on {@link #INVALIDATION_CHANNEL} so the other
+ * instances drop their copies.  Cached sessions expire after
+ * 'session-cache.expire-seconds', which bounds staleness if a message is lost.
+ * <p>
+ * A session read from redis is only cached if no invalidation of the user
+ * happened since the read, see {@link #getGeneration(String)}.
+ */
+@Component
+@Slf4j
+public class SessionCache implements MessageListener {
+    public static final String INVALIDATION_CHANNEL = "session-invalidation";
+
+    /**
+     * Number of invalidation counters, users sharing a counter
+     * only cause extra cache misses.
+     */
+    private static final int GENERATIONS_NUMBER = 4096;
+
+    private RedisCache redisCache;
+
+    @Value("${session-cache.maximum-size}")
+    private int maximumSize;
+
+    @Value("${session-cache.expire-seconds}")
+    private int expireSeconds;
+
+    private LocalCache<String, Session> localCache;
+
+    /**
+     * Invalidation counters of the users, indexed by the hash of user id.
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATIONS_NUMBER);
+
+    @PostConstruct
+    public void initLocalCache() {
+        localCache = new LocalCache<>(maximumSize, TimeUnit.SECONDS.toMillis(expireSeconds));
+    }
+
+    /**
+     * Attempts to retrieve the logged-in user authenticated by the given jwt.
+     *
+     * @param userId {String} User's unique identifier.
+     * @param jwt {String} The jwt of the request.
+     *
+     * @return {LoginUser} Returns the cached logged-in user, or null if the
+     *                     user's session is not cached or has another jwt.
+     */
+    public LoginUser get(String userId, String jwt) {
+        Session session = localCache.get(userId);
+        if (session == null || !session.jwt.equals(jwt)) {
+            return null;
+        }
+
+        return session.loginUser;
+    }
+
+    /**
+     * Returns the invalidation generation of the given user,
+     * to be read before the user's session is read from redis.
+     *
+     * @param userId {String} User's unique identifier.
+     *
+     * @return {long} Returns a counter increased by every invalidation of the user.
+     */
+    public long getGeneration(String userId) {
+        return generations.get(getGenerationIndex(userId));
+    }
+
+    /**
+     * Caches the logged-in user authenticated by the given jwt, unless
+     * the user's session has been invalidated since it was read from redis.
+     *
+     * @param userId {String} User's unique identifier.
+     * @param jwt {String} The user's valid jwt read from redis.
+     * @param loginUser {LoginUser} The logged-in user read from redis.
+     * @param generation {long} The user's generation read before the session.
+     */
+    public void put(String userId, String jwt, LoginUser loginUser, long generation) {
+        int index = getGenerationIndex(userId);
+        if (generations.get(index) != generation) {
+            return;
+        }
+
+        localCache.put(userId, new Session(jwt, loginUser));
+
+        // An invalidation may have run between the check and the put.
+        if (generations.get(index) != generation) {
+            localCache.invalidate(userId);
+        }
+    }
+
+    /**
+     * Drops the cached session of the given user on all instances.
+     *
+     * @param userId {String} User's unique identifier.
+     */
+    public void invalidate(String userId) {
+        invalidateLocally(userId);
+        try {
+            redisCache.publish(INVALIDATION_CHANNEL, userId);
+        } catch (Exception e) {
+            log.warn("Failed to publish session invalidation of user - {}", userId);
+            log.warn(e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the cached session of the user id published by an instance.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String userId = redisCache.deserializeMessage(message.getBody());
+        log.debug("Invalidating cached session of user - {}", userId);
+        invalidateLocally(userId);
+    }
+
+    /**
+     * Drops the cached session of the given user on this instance.  The
+     * generation is increased first, so a session being cached concurrently
+     * is either dropped here or not cached.
+     */
+    private void invalidateLocally(String userId) {
+        generations.incrementAndGet(getGenerationIndex(userId));
+        localCache.invalidate(userId);
+    }
+
+    private int getGenerationIndex(String userId) {
+        return (userId.hashCode() & Integer.MAX_VALUE) % GENERATIONS_NUMBER;
+    }
+
+    @Autowired
+    public void setRedisCache(RedisCache redisCache) {
+        this.redisCache = redisCache;
+    }
+
+    /**
+     * A logged-in user together with the jwt it was authenticated by.
+     */
+    private static class Session {
+        private final String jwt;
+
+        private final LoginUser loginUser;
+
+        private Session(String jwt, LoginUser loginUser) {
+            this.jwt = jwt;
+            this.loginUser = loginUser;
+        }
+    }
+}
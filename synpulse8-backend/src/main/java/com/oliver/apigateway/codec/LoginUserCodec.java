@@ -0,0 +1,145 @@
+package com.oliver.apiGateway.codec;
+
+import com.oliver.apiGateway.domain.LoginUser;
+import com.oliver.tenancy.domain.User;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Encodes logged-in users stored in redis to a compact binary format
+ * and decodes them back.
+ * <p>
+ * Layout of version 1, strings are written by {@link DataOutputStream#writeUTF(String)}:
+ * <pre>
+ *   version            1 byte, always 1
+ *   id                 4 bytes
+ *   username           1 byte null flag followed by a string if not null
+ *   type               1 byte null flag followed by a string if not null
+ *   resources count    4 bytes
+ *   resources          in sorted order, each written as the length of the
+ *                      prefix shared with the previous resource (2 bytes)
+ *                      followed by the rest of the resource as a string
+ * </pre>
+ * Only what authorization needs is kept, the password in particular is
+ * left out.  Resources of a user mostly start with the same path, so
+ * sharing prefixes keeps thousands of account resources small.
+ */
+public class LoginUserCodec {
+    public static final byte VERSION = 1;
+
+    private LoginUserCodec() {}
+
+    /**
+     * Encodes the given logged-in user.
+     *
+     * @param loginUser {LoginUser} A logged-in user needed to be stored.
+     *
+     * @return {byte[]} Returns the encoded logged-in user.
+     */
+    public static byte[] encode(LoginUser loginUser) {
+        User user = loginUser.getUser();
+        TreeSet<String> resources = new TreeSet<>();
+        for (GrantedAuthority grantedAuthority : loginUser.getAuthorities()) {
+            resources.add(grantedAuthority.getAuthority());
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + resources.size() * 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(user.getId());
+            writeNullableString(out, user.getUsername());
+            writeNullableString(out, user.getType());
+
+            out.writeInt(resources.size());
+            String previousResource = "";
+            for (String resource : resources) {
+                int prefixLength = getSharedPrefixLength(previousResource, resource);
+                out.writeShort(prefixLength);
+                out.writeUTF(resource.substring(prefixLength));
+                previousResource = resource;
+            }
+        } catch (IOException e) {
+            // Writing to memory does not fail.
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes the given data to a logged-in user.
+     *
+     * @param data {byte[]} Data encoded by this codec.
+     *
+     * @return {LoginUser} Returns the decoded logged-in user, without password.
+     * @throws IllegalArgumentException Throws IllegalArgumentException if data is
+     *                                  truncated or of an unknown version.
+     */
+    public static LoginUser decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException(
+                        String.format("Unknown login user format version - %d", version)
+                );
+            }
+
+            int id = in.readInt();
+            String username = readNullableString(in);
+            String type = readNullableString(in);
+
+            int resourcesCount = in.readInt();
+            List<String> resources = new ArrayList<>(resourcesCount);
+            String previousResource = "";
+            for (int i = 0; i < resourcesCount; i++) {
+                int prefixLength = in.readUnsignedShort();
+                if (prefixLength > previousResource.length()) {
+                    throw new IllegalArgumentException("Login user data contains a malformed resource");
+                }
+
+                String resource = previousResource.substring(0, prefixLength) + in.readUTF();
+                resources.add(resource);
+                previousResource = resource;
+            }
+
+            return LoginUser.fromResources(new User(id, username, null, type), resources);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Login user data is truncated", e);
+        }
+    }
+
+    private static int getSharedPrefixLength(String previous, String current) {
+        int maxLength = Math.min(Math.min(previous.length(), current.length()), 0xFFFF);
+        int length = 0;
+        while (length < maxLength && previous.charAt(length) == current.charAt(length)) {
+            length++;
+        }
+
+        // Keeps surrogate pairs together.
+        if (length > 0 && Character.isHighSurrogate(current.charAt(length - 1))) {
+            length--;
+        }
+
+        return length;
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -1,14 +1,15 @@
 package com.oliver.apiGateway.configuration;
 
+import com.oliver.apiGateway.cache.SessionCache;
 import com.oliver.apiGateway.handler.Synpulse8AccessDeniedHandler;
 import com.oliver.apiGateway.handler.Synpulse8AuthenticationEntryPoint;
 import com.oliver.apiGateway.filter.JWTAuthenticationFilter;
 import com.oliver.apiGateway.filter.JWTUsernamePasswordAuthenticationFilter;
 import com.oliver.apiGateway.handler.Synpulse8LogoutSuccessHandler;
-import com.oliver.util.redis.RedisCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -26,7 +27,9 @@ public class SecurityConfiguration {
 
     private JWTAuthenticationFilter jwtAuthenticationFilter;
 
-    private RedisCache redisCache;
+    private RedisTemplate<String, byte[]> sessionRedisTemplate;
+
+    private SessionCache sessionCache;
 
     private Synpulse8LogoutSuccessHandler logoutSuccessHandler;
 
@@ -54,7 +57,8 @@ public class SecurityConfiguration {
                 .addFilterAfter(
                         new JWTUsernamePasswordAuthenticationFilter(
                                 authenticationManager(),
-                                redisCache
+                                sessionRedisTemplate,
+                                sessionCache
                         ),
                         UsernamePasswordAuthenticationFilter.class
                 )
@@ -99,8 +103,13 @@ public class SecurityConfiguration {
     }
 
     @Autowired
-    public void setRedisCache(RedisCache redisCache) {
-        this.redisCache = redisCache;
+    public void setSessionRedisTemplate(RedisTemplate<String, byte[]> sessionRedisTemplate) {
+        this.sessionRedisTemplate = sessionRedisTemplate;
+    }
+
+    @Autowired
+    public void setSessionCache(SessionCache sessionCache) {
+        this.sessionCache = sessionCache;
     }
 
     @Autowired
@@ -0,0 +1,43 @@
+package com.oliver.apiGateway.configuration;
+
+import com.oliver.apiGateway.cache.SessionCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Subscribes the session cache to the session invalidations
+ * published by all instances, and stores the sessions in redis.
+ */
+@Configuration
+public class SessionCacheConfiguration {
+    /**
+     * A template storing the sessions in redis as raw bytes, the logged-in
+     * user encoded by LoginUserCodec and the jwt in UTF-8.  The general
+     * template would wrap the bytes in its own serialized form.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> sessionRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer sessionInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            SessionCache sessionCache
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(sessionCache, new ChannelTopic(SessionCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
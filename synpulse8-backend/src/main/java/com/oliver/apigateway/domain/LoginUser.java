@@ -8,7 +8,10 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class LoginUser implements UserDetails {
     private static final long serialVersionUID = -3233980433721731028L;
@@ -16,6 +19,12 @@ public class LoginUser implements UserDetails {
 
     List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
 
+    /**
+     * Resources of the granted authorities, indexed for {@link #hasResource(String)}.
+     * Not stored in redis, it is rebuilt from the authorities when first used.
+     */
+    private transient volatile Set<String> grantedResources;
+
     /**
      * Create a login user to store in redis for authorization.
      * Will obtain a list of authority from user.
@@ -32,10 +41,48 @@ public class LoginUser implements UserDetails {
         );
     }
 
+    /**
+     * Create a login user from the resources of its granted authorities,
+     * e.g. decoded from redis.
+     *
+     * @param user A logged-in user.
+     * @param resources {List<String>} Resources of the user's granted authorities.
+     *
+     * @return {LoginUser} Returns a login user granted the given resources.
+     */
+    public static LoginUser fromResources(User user, List<String> resources) {
+        LoginUser loginUser = new LoginUser(user, Collections.emptyList());
+        resources.forEach(resource ->
+                loginUser.grantedAuthorities.add(new SimpleGrantedAuthority(resource))
+        );
+        return loginUser;
+    }
+
     public User getUser() {
         return user;
     }
 
+    /**
+     * Checks whether the user has been granted the given resource,
+     * without scanning the granted authorities.
+     *
+     * @param resource {String} A system menu's resource. (e.g. /account/iban)
+     *
+     * @return {boolean} Returns true if the resource has been granted.
+     */
+    public boolean hasResource(String resource) {
+        Set<String> resources = grantedResources;
+        if (resources == null) {
+            resources = new HashSet<>();
+            for (GrantedAuthority grantedAuthority : grantedAuthorities) {
+                resources.add(grantedAuthority.getAuthority());
+            }
+            grantedResources = resources;
+        }
+
+        return resources.contains(resource);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return grantedAuthorities;
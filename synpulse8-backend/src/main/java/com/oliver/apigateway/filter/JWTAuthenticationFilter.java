@@ -1,12 +1,14 @@
 package com.oliver.apiGateway.filter;
 
+import com.oliver.apiGateway.cache.SessionCache;
+import com.oliver.apiGateway.codec.LoginUserCodec;
 import com.oliver.apiGateway.domain.LoginUser;
 import com.oliver.util.JWTUtil;
-import com.oliver.util.redis.RedisCache;
 import com.oliver.util.redis.RedisKeyCreator;
 import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -18,6 +20,9 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Authenticate requests with header 'Authorization: Bearer jwt-token'.
@@ -25,7 +30,9 @@ import java.io.IOException;
 @Component
 @Slf4j
 public class JWTAuthenticationFilter extends OncePerRequestFilter {
-    private RedisCache redisCache;
+    private RedisTemplate<String, byte[]> sessionRedisTemplate;
+
+    private SessionCache sessionCache;
 
     @Override
     protected void doFilterInternal(
@@ -44,19 +51,32 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = jwt.replace("Bearer ", "");
 
-        // Parse token and retrieve logged-in user from redis
+        // Parse token and retrieve logged-in user and its jwt from the session cache,
+        // or from redis in one round trip
         String userId;
         LoginUser loginUser;
         String validJwt;
+        boolean isCachedSession;
+        long sessionGeneration = 0;
         try {
             Claims claims = JWTUtil.parseJWT(jwt);
             userId = claims.getSubject();
-            loginUser = redisCache.getObject(
-                    RedisKeyCreator.createLoginUserKey(userId)
-            );
-            validJwt = redisCache.getObject(
-                    RedisKeyCreator.createLoginUserJWTKey(userId)
-            );
+            loginUser = sessionCache.get(userId, jwt);
+            isCachedSession = loginUser != null;
+            if (isCachedSession) {
+                validJwt = jwt;
+            } else {
+                // Read before redis, a session invalidated meanwhile is not cached.
+                sessionGeneration = sessionCache.getGeneration(userId);
+                List<byte[]> session = sessionRedisTemplate.opsForValue().multiGet(
+                        Arrays.asList(
+                                RedisKeyCreator.createLoginUserKey(userId),
+                                RedisKeyCreator.createLoginUserJWTKey(userId)
+                        )
+                );
+                loginUser = session.get(0) == null ? null : LoginUserCodec.decode(session.get(0));
+                validJwt = session.get(1) == null ? null : new String(session.get(1), StandardCharsets.UTF_8);
+            }
         } catch (Exception e) {
             log.debug("Invalid JWT - {}", e.getMessage());
             throw new RuntimeException("Invalid JWT");
@@ -87,6 +107,10 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
             );
         }
 
+        if (!isCachedSession) {
+            sessionCache.put(userId, validJwt, loginUser, sessionGeneration);
+        }
+
         // Authentication
         UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
                 new UsernamePasswordAuthenticationToken(
@@ -98,7 +122,12 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
     }
 
     @Autowired
-    public void setRedisCache(RedisCache redisCache) {
-        this.redisCache = redisCache;
+    public void setSessionRedisTemplate(RedisTemplate<String, byte[]> sessionRedisTemplate) {
+        this.sessionRedisTemplate = sessionRedisTemplate;
+    }
+
+    @Autowired
+    public void setSessionCache(SessionCache sessionCache) {
+        this.sessionCache = sessionCache;
     }
 }
@@ -2,15 +2,17 @@ package com.oliver.apiGateway.filter;
 
 import com.alibaba.fastjson.JSON;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oliver.apiGateway.cache.SessionCache;
+import com.oliver.apiGateway.codec.LoginUserCodec;
 import com.oliver.apiGateway.domain.LoginUser;
 import com.oliver.apiGateway.form.UserForm;
 import com.oliver.tenancy.domain.User;
 import com.oliver.util.JWTUtil;
 import com.oliver.response.StatusCode;
-import com.oliver.util.redis.RedisCache;
 import com.oliver.response.ResponseResult;
 import com.oliver.util.redis.RedisKeyCreator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -24,6 +26,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -41,15 +44,19 @@ public class JWTUsernamePasswordAuthenticationFilter extends UsernamePasswordAut
 
     private AuthenticationManager authenticationManager;
 
-    private RedisCache redisCache;
+    private RedisTemplate<String, byte[]> sessionRedisTemplate;
+
+    private SessionCache sessionCache;
 
     public JWTUsernamePasswordAuthenticationFilter(
             AuthenticationManager authenticationManager,
-            RedisCache redisCache
+            RedisTemplate<String, byte[]> sessionRedisTemplate,
+            SessionCache sessionCache
     ) {
         // UsernamePasswordAuthenticationFilter listens to "/login" path.
         this.authenticationManager = authenticationManager;
-        this.redisCache = redisCache;
+        this.sessionRedisTemplate = sessionRedisTemplate;
+        this.sessionCache = sessionCache;
         this.setRequiresAuthenticationRequestMatcher(
                 new AntPathRequestMatcher("/login", "POST")
         );
@@ -116,18 +123,20 @@ public class JWTUsernamePasswordAuthenticationFilter extends UsernamePasswordAut
 
         // Saves logged-in user info and jwt to redis
         log.debug(String.format("Saving %s user's info to redis", username));
-        redisCache.saveObject(
+        sessionRedisTemplate.opsForValue().set(
                 RedisKeyCreator.createLoginUserKey(userId),
-                loginUser,
+                LoginUserCodec.encode(loginUser),
                 Integer.valueOf(JWT_EXPIRATION_TIME),
                 TimeUnit.MILLISECONDS
         );
-        redisCache.saveObject(
+        sessionRedisTemplate.opsForValue().set(
                 RedisKeyCreator.createLoginUserJWTKey(userId),
-                jwt,
+                jwt.getBytes(StandardCharsets.UTF_8),
                 Integer.valueOf(JWT_EXPIRATION_TIME),
                 TimeUnit.MILLISECONDS
         );
+        // Drops sessions of the previous jwt cached by any instance.
+        sessionCache.invalidate(userId);
 
         log.info(String.format("User - %s is logged-in.", username));
 
@@ -1,16 +1,18 @@
 package com.oliver.apiGateway.filter;
 
+import com.oliver.apiGateway.cache.SessionCache;
+import com.oliver.apiGateway.codec.LoginUserCodec;
 import com.oliver.apiGateway.domain.LoginUser;
 import com.oliver.tenancy.domain.SystemMenu;
 import com.oliver.tenancy.domain.User;
 import com.oliver.tenancy.manager.UserManager;
-import com.oliver.util.redis.RedisCache;
 import com.oliver.util.redis.RedisKeyCreator;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -26,7 +28,9 @@ import static com.oliver.configuration.constant.JWT_EXPIRATION_TIME;
 public class UpdateAuthorization {
     private UserManager userManager;
 
-    private RedisCache redisCache;
+    private RedisTemplate<String, byte[]> sessionRedisTemplate;
+
+    private SessionCache sessionCache;
 
     @Pointcut("execution(* com.oliver.accountBackend.controller.AccountController.createAccount(..))")
     public void updateAuthorization() {}
@@ -49,12 +53,13 @@ public class UpdateAuthorization {
         List<SystemMenu> systemMenus =
                 userManager.showAllGrantedResources(user.getId());
         LoginUser newLoginUser = new LoginUser(user, systemMenus);
-        redisCache.saveObject(
+        sessionRedisTemplate.opsForValue().set(
                 RedisKeyCreator.createLoginUserKey(user.getId().toString()),
-                newLoginUser,
+                LoginUserCodec.encode(newLoginUser),
                 Integer.valueOf(JWT_EXPIRATION_TIME),
                 TimeUnit.MILLISECONDS
         );
+        sessionCache.invalidate(user.getId().toString());
     }
 
     @Autowired
@@ -63,7 +68,12 @@ public class UpdateAuthorization {
     }
 
     @Autowired
-    public void setRedisCache(RedisCache redisCache) {
-        this.redisCache = redisCache;
+    public void setSessionRedisTemplate(RedisTemplate<String, byte[]> sessionRedisTemplate) {
+        this.sessionRedisTemplate = sessionRedisTemplate;
+    }
+
+    @Autowired
+    public void setSessionCache(SessionCache sessionCache) {
+        this.sessionCache = sessionCache;
     }
 }
@@ -1,14 +1,15 @@
 package com.oliver.apiGateway.handler;
 
 import com.alibaba.fastjson.JSON;
+import com.oliver.apiGateway.cache.SessionCache;
 import com.oliver.apiGateway.domain.LoginUser;
 import com.oliver.tenancy.domain.User;
 import com.oliver.response.StatusCode;
-import com.oliver.util.redis.RedisCache;
 import com.oliver.response.ResponseResult;
 import com.oliver.util.redis.RedisKeyCreator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
@@ -22,7 +23,9 @@ import java.io.IOException;
 @Component
 @Slf4j
 public class Synpulse8LogoutSuccessHandler implements LogoutSuccessHandler {
-    private RedisCache redisCache;
+    private RedisTemplate<String, byte[]> sessionRedisTemplate;
+
+    private SessionCache sessionCache;
 
     @Override
     public void onLogoutSuccess(
@@ -44,7 +47,8 @@ public class Synpulse8LogoutSuccessHandler implements LogoutSuccessHandler {
         String userId = user.getId().toString();
 
         log.info(String.format("User - %s tried to logout", userId));
-        redisCache.deleteObject(RedisKeyCreator.createLoginUserKey(userId));
+        sessionRedisTemplate.delete(RedisKeyCreator.createLoginUserKey(userId));
+        sessionCache.invalidate(userId);
         log.info(String.format("User - %s logout successfully", userId));
 
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
@@ -61,7 +65,12 @@ public class Synpulse8LogoutSuccessHandler implements LogoutSuccessHandler {
     }
 
     @Autowired
-    public void setRedisCache(RedisCache redisCache) {
-        this.redisCache = redisCache;
+    public void setSessionRedisTemplate(RedisTemplate<String, byte[]> sessionRedisTemplate) {
+        this.sessionRedisTemplate = sessionRedisTemplate;
+    }
+
+    @Autowired
+    public void setSessionCache(SessionCache sessionCache) {
+        this.sessionCache = sessionCache;
     }
 }
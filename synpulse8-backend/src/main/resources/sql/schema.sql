@@ -11,3 +11,10 @@ CREATE TABLE IF NOT EXISTS `users_accounts` (
     PRIMARY KEY(`user_id`, `account_id`),
     INDEX users_accounts_account_id (`account_id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
+
+CREATE TABLE IF NOT EXISTS `account_shards` (
+    `account_iban` varchar(50) NOT NULL PRIMARY KEY,
+    `table_name_suffix` varchar(20) NOT NULL COMMENT 'Suffix of the transaction table new transactions are saved to',
+    `previous_table_name_suffix` varchar(20) NULL COMMENT 'Suffix of the transaction table the account is being moved from',
+    `pinned` tinyint(1) NOT NULL DEFAULT 0 COMMENT 'A flag indicated whether the account is excluded from rebalancing (1: pinned, 0: rebalanced)'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS `transaction_daily_balances` (
+    `account_iban` varchar(50) NOT NULL,
+    `value_date` DATE NOT NULL,
+    `currency` CHAR(3) NOT NULL DEFAULT '' COMMENT 'ISO 4217 currency code, empty for untyped amounts',
+    `total` int(11) NOT NULL DEFAULT 0 COMMENT 'Number of transactions',
+    `debit_minor_units` BIGINT NOT NULL DEFAULT 0 COMMENT 'Sum of positive amounts in minor units',
+    `credit_minor_units` BIGINT NOT NULL DEFAULT 0 COMMENT 'Sum of negative amounts in minor units',
+    PRIMARY KEY(`account_iban`, `value_date`, `currency`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+CREATE TABLE IF NOT EXISTS `transaction_daily_balance_rollups` (
+    `table_name_suffix` varchar(20) NOT NULL PRIMARY KEY COMMENT 'Suffix of the rolled-up transaction table',
+    `rolled_up_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
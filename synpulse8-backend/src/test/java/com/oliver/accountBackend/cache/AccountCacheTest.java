@@ -0,0 +1,57 @@
+package com.oliver.accountBackend.cache;
+
+import com.oliver.Synpulse8BackendApplication;
+import com.oliver.accountBackend.domain.Account;
+import com.oliver.accountBackend.manager.AccountManager;
+import com.oliver.accountBackend.mapper.AccountMapper;
+import com.oliver.exceptions.ConflictException;
+import com.oliver.exceptions.ValidationException;
+import com.oliver.faker.AccountFaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(classes = Synpulse8BackendApplication.class)
+@ActiveProfiles("test")
+public class AccountCacheTest {
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private AccountManager accountManager;
+
+    @Autowired
+    private AccountMapper accountMapper;
+
+    @AfterEach
+    public void tearDown() {
+        accountMapper.removeAllAccountsFromDB();
+    }
+
+    @Test
+    public void getCreatedAccountTest() throws ValidationException, ConflictException {
+        Account fakeAccount = AccountFaker.createValidAccount();
+        Account account = accountManager.createAccount("Canada", fakeAccount.getIban());
+
+        long localHitCount = accountCache.getLocalHitCount();
+        long missCount = accountCache.getMissCount();
+
+        Account cachedAccount = accountCache.getAccountByIban(account.getIban());
+        Assertions.assertEquals(account, cachedAccount);
+        Assertions.assertEquals(account.getCurrency(), cachedAccount.getCurrency());
+
+        Assertions.assertEquals(localHitCount + 1, accountCache.getLocalHitCount());
+        Assertions.assertEquals(missCount, accountCache.getMissCount());
+    }
+
+    @Test
+    public void getNonExistingAccountTest() {
+        long missCount = accountCache.getMissCount();
+
+        Assertions.assertNull(accountCache.getAccountByIban("non-existing-iban"));
+        Assertions.assertEquals(missCount + 1, accountCache.getMissCount());
+    }
+}
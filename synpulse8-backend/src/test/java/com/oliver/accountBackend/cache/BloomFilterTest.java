@@ -0,0 +1,39 @@
+package com.oliver.accountBackend.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+public class BloomFilterTest {
+    @Test
+    public void mightContainTest() {
+        BloomFilter bloomFilter = new BloomFilter(1000, 0.01);
+
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String value = UUID.randomUUID().toString();
+            values.add(value);
+            bloomFilter.put(value);
+        }
+
+        values.forEach(value -> Assertions.assertTrue(bloomFilter.mightContain(value)));
+    }
+
+    @Test
+    public void falsePositiveProbabilityTest() {
+        BloomFilter bloomFilter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            bloomFilter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (bloomFilter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        Assertions.assertTrue(falsePositives < 300);
+    }
+}
@@ -0,0 +1,105 @@
+package com.oliver.accountBackend.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.faker.TransactionFaker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+
+public class TransactionBinaryCodecTest {
+    private Transaction createTransaction(String amount) {
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        return new Transaction(
+                transaction.getTransactionId(),
+                amount,
+                transaction.getAccountIban(),
+                transaction.getValueDate(),
+                transaction.getDescription()
+        );
+    }
+
+    private void assertRoundTrip(Transaction transaction) {
+        byte[] data = TransactionBinaryCodec.encode(transaction);
+        Assertions.assertTrue(TransactionBinaryCodec.isBinary(data));
+
+        Transaction decodedTransaction = TransactionBinaryCodec.decode(data);
+        Assertions.assertEquals(transaction, decodedTransaction);
+        Assertions.assertEquals(transaction.getAmount(), decodedTransaction.getAmount());
+        Assertions.assertEquals(transaction.getValueDate(), decodedTransaction.getValueDate());
+        Assertions.assertEquals(transaction.getDescription(), decodedTransaction.getDescription());
+    }
+
+    @Test
+    public void scaledAmountRoundTripTest() {
+        assertRoundTrip(createTransaction("CHF 75.0"));
+        assertRoundTrip(createTransaction("CHF 75"));
+        assertRoundTrip(createTransaction("EUR -0.50"));
+        assertRoundTrip(createTransaction("USD 9223372036854775807"));
+    }
+
+    @Test
+    public void rawAmountRoundTripTest() {
+        assertRoundTrip(createTransaction("valid-amount"));
+        assertRoundTrip(createTransaction("CHF 1.0E7"));
+        assertRoundTrip(createTransaction("CHF 007"));
+        assertRoundTrip(createTransaction("USD 92233720368547758070"));
+    }
+
+    @Test
+    public void nullFieldsRoundTripTest() {
+        Transaction transaction = createTransaction(null);
+        Transaction transactionWithoutOptionalFields = new Transaction(
+                transaction.getTransactionId(),
+                null,
+                transaction.getAccountIban(),
+                null,
+                null
+        );
+
+        assertRoundTrip(transactionWithoutOptionalFields);
+    }
+
+    @Test
+    public void dateBeforeEpochRoundTripTest() {
+        Transaction transaction = createTransaction("CHF 75.0");
+        assertRoundTrip(
+                new Transaction(
+                        transaction.getTransactionId(),
+                        transaction.getAmount(),
+                        transaction.getAccountIban(),
+                        new Date(-86400000L),
+                        transaction.getDescription()
+                )
+        );
+    }
+
+    @Test
+    public void binaryIsSmallerThanJsonTest() {
+        Transaction transaction = createTransaction("CHF 75.0");
+
+        Assertions.assertTrue(
+                TransactionBinaryCodec.encode(transaction).length <
+                        JSON.toJSONBytes(transaction).length
+        );
+        Assertions.assertFalse(TransactionBinaryCodec.isBinary(JSON.toJSONBytes(transaction)));
+    }
+
+    @Test
+    public void decodeInvalidDataTest() {
+        byte[] data = TransactionBinaryCodec.encode(createTransaction("CHF 75.0"));
+
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> TransactionBinaryCodec.decode(Arrays.copyOf(data, data.length - 1))
+        );
+
+        data[0] = TransactionBinaryCodec.VERSION + 1;
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> TransactionBinaryCodec.decode(data)
+        );
+    }
+}
@@ -0,0 +1,67 @@
+package com.oliver.accountBackend.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.faker.TransactionFaker;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+public class TransactionDeserializerTest {
+    private static final String TOPIC = "test";
+
+    private final TransactionDeserializer deserializer = new TransactionDeserializer();
+
+    @Test
+    public void deserializeTransactionTest() {
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        byte[] data = JSON.toJSONString(transaction).getBytes(StandardCharsets.UTF_8);
+
+        Transaction parsedTransaction = deserializer.deserialize(TOPIC, data);
+
+        Assertions.assertEquals(transaction, parsedTransaction);
+        Assertions.assertEquals(transaction.getAmount(), parsedTransaction.getAmount());
+        Assertions.assertEquals(transaction.getValueDate(), parsedTransaction.getValueDate());
+        Assertions.assertEquals(transaction.getDescription(), parsedTransaction.getDescription());
+    }
+
+    @Test
+    public void deserializeBinaryTransactionTest() {
+        TransactionSerializer serializer = new TransactionSerializer();
+        serializer.configure(
+                Collections.singletonMap(
+                        TransactionSerializer.WIRE_FORMAT_CONFIG,
+                        TransactionSerializer.BINARY_FORMAT
+                ),
+                false
+        );
+
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        byte[] data = serializer.serialize(TOPIC, transaction);
+
+        Transaction parsedTransaction = deserializer.deserialize(TOPIC, data);
+
+        Assertions.assertEquals(transaction, parsedTransaction);
+        Assertions.assertEquals(transaction.getAmount(), parsedTransaction.getAmount());
+        Assertions.assertEquals(transaction.getValueDate(), parsedTransaction.getValueDate());
+        Assertions.assertEquals(transaction.getDescription(), parsedTransaction.getDescription());
+    }
+
+    @Test
+    public void deserializeNullTest() {
+        Assertions.assertNull(deserializer.deserialize(TOPIC, null));
+    }
+
+    @Test
+    public void deserializeInvalidJsonTest() {
+        byte[] data = "invalid-json".getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertThrows(
+                SerializationException.class,
+                () -> deserializer.deserialize(TOPIC, data)
+        );
+    }
+}
@@ -0,0 +1,79 @@
+package com.oliver.accountBackend.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.exceptions.ValidationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+public class TransactionExportWriterTest {
+    // 30-10-2022 00:00 GMT+8
+    private static final Date VALUE_DATE = new Date(1667059200000L);
+
+    private String export(TransactionExportFormat format, Transaction... transactions) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionExportWriter writer = new TransactionExportWriter(format, out);
+        writer.start();
+        for (Transaction transaction : transactions) {
+            writer.write(transaction);
+        }
+        writer.flush();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void csvTest() throws IOException {
+        String csv = export(
+                TransactionExportFormat.CSV,
+                new Transaction("id-1", "CHF 75.5", "iban", VALUE_DATE, "say \"hi\", bye"),
+                new Transaction("id-2", "valid-amount", "iban", null, null)
+        );
+
+        Assertions.assertEquals(
+                "transactionId,amount,amountMinorUnits,currency,accountIban,valueDate,description\n" +
+                        "id-1,CHF 75.5,7550,CHF,iban,30-10-2022,\"say \"\"hi\"\", bye\"\n" +
+                        "id-2,valid-amount,,,iban,,\n",
+                csv
+        );
+    }
+
+    @Test
+    public void emptyCsvTest() throws IOException {
+        Assertions.assertEquals(
+                "transactionId,amount,amountMinorUnits,currency,accountIban,valueDate,description\n",
+                export(TransactionExportFormat.CSV)
+        );
+    }
+
+    @Test
+    public void ndjsonTest() throws IOException {
+        String ndjson = export(
+                TransactionExportFormat.NDJSON,
+                new Transaction("id-1", "CHF 75.5", "iban", VALUE_DATE, "line\nbreak"),
+                new Transaction("id-2", "CHF -20", "iban", VALUE_DATE, null)
+        );
+
+        String[] lines = ndjson.split("\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(ndjson.endsWith("\n"));
+
+        JsonNode transaction = new ObjectMapper().readTree(lines[0]);
+        Assertions.assertEquals("id-1", transaction.get("transactionId").asText());
+        Assertions.assertEquals(7550, transaction.get("amountMinorUnits").asLong());
+        Assertions.assertEquals("30-10-2022", transaction.get("valueDate").asText());
+        Assertions.assertEquals("line\nbreak", transaction.get("description").asText());
+    }
+
+    @Test
+    public void formatTest() {
+        Assertions.assertEquals(TransactionExportFormat.CSV, TransactionExportFormat.of("csv"));
+        Assertions.assertEquals(TransactionExportFormat.NDJSON, TransactionExportFormat.of("NDJSON"));
+        Assertions.assertThrows(ValidationException.class, () -> TransactionExportFormat.of("xml"));
+    }
+}
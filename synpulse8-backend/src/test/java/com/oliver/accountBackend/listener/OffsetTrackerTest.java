@@ -0,0 +1,82 @@
+package com.oliver.accountBackend.listener;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+public class OffsetTrackerTest {
+    private static final String TOPIC = "test";
+
+    private ConsumerRecord<String, String> createRecord(int partition, long offset) {
+        return new ConsumerRecord<>(TOPIC, partition, offset, null, "value");
+    }
+
+    @Test
+    public void fullyProcessedTest() {
+        List<ConsumerRecord<String, String>> records = Arrays.asList(
+                createRecord(0, 10),
+                createRecord(0, 11),
+                createRecord(1, 5)
+        );
+
+        OffsetTracker offsetTracker = new OffsetTracker(records);
+        Assertions.assertFalse(offsetTracker.isFullyProcessed());
+        Assertions.assertTrue(offsetTracker.getCommittableOffsets().isEmpty());
+
+        records.forEach(offsetTracker::markProcessed);
+        Assertions.assertTrue(offsetTracker.isFullyProcessed());
+        Assertions.assertTrue(offsetTracker.getUnprocessedOffsets().isEmpty());
+
+        Map<TopicPartition, OffsetAndMetadata> committableOffsets =
+                offsetTracker.getCommittableOffsets();
+        Assertions.assertEquals(12, committableOffsets.get(new TopicPartition(TOPIC, 0)).offset());
+        Assertions.assertEquals(6, committableOffsets.get(new TopicPartition(TOPIC, 1)).offset());
+    }
+
+    @Test
+    public void partiallyProcessedTest() {
+        ConsumerRecord<String, String> record1 = createRecord(0, 10);
+        ConsumerRecord<String, String> record2 = createRecord(0, 11);
+        ConsumerRecord<String, String> record3 = createRecord(0, 12);
+        ConsumerRecord<String, String> record4 = createRecord(1, 5);
+        ConsumerRecord<String, String> record5 = createRecord(1, 6);
+
+        OffsetTracker offsetTracker = new OffsetTracker(
+                Arrays.asList(record1, record2, record3, record4, record5)
+        );
+
+        offsetTracker.markProcessed(record1);
+        offsetTracker.markProcessed(record3);
+        offsetTracker.markProcessed(record5);
+
+        Assertions.assertFalse(offsetTracker.isFullyProcessed());
+
+        // Only the processed prefix of each partition is committed.
+        Map<TopicPartition, OffsetAndMetadata> committableOffsets =
+                offsetTracker.getCommittableOffsets();
+        Assertions.assertEquals(1, committableOffsets.size());
+        Assertions.assertEquals(11, committableOffsets.get(new TopicPartition(TOPIC, 0)).offset());
+
+        Map<TopicPartition, Long> unprocessedOffsets =
+                offsetTracker.getUnprocessedOffsets();
+        Assertions.assertEquals(2, unprocessedOffsets.size());
+        Assertions.assertEquals(11L, unprocessedOffsets.get(new TopicPartition(TOPIC, 0)));
+        Assertions.assertEquals(5L, unprocessedOffsets.get(new TopicPartition(TOPIC, 1)));
+    }
+
+    @Test
+    public void markUnknownRecordTest() {
+        ConsumerRecord<String, String> record = createRecord(0, 10);
+        OffsetTracker offsetTracker = new OffsetTracker(Collections.singletonList(record));
+
+        offsetTracker.markProcessed(createRecord(0, 20));
+        offsetTracker.markProcessed(createRecord(3, 10));
+
+        Assertions.assertFalse(offsetTracker.isFullyProcessed());
+        Assertions.assertTrue(offsetTracker.getCommittableOffsets().isEmpty());
+    }
+}
@@ -0,0 +1,91 @@
+package com.oliver.accountBackend.listener;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+public class ShardPartitionerTest {
+    @Test
+    public void partitionEmptyBatchTest() {
+        List<List<Integer>> units =
+                ShardPartitioner.partition(
+                        Collections.emptyList(),
+                        String::valueOf,
+                        4,
+                        10
+                );
+
+        Assertions.assertTrue(units.isEmpty());
+    }
+
+    @Test
+    public void partitionSmallBatchTest() {
+        List<Integer> items = Arrays.asList(1, 2, 3, 4, 5);
+
+        List<List<Integer>> units =
+                ShardPartitioner.partition(items, String::valueOf, 4, 10);
+
+        Assertions.assertEquals(1, units.size());
+        Assertions.assertEquals(items, units.get(0));
+    }
+
+    @Test
+    public void partitionKeepsShardInOneUnitTest() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            items.add(i);
+        }
+
+        List<List<Integer>> units =
+                ShardPartitioner.partition(
+                        items,
+                        item -> String.valueOf(item % 7),
+                        4,
+                        100
+                );
+
+        Assertions.assertEquals(4, units.size());
+
+        int total = 0;
+        Map<String, Integer> unitByShard = new HashMap<>();
+        for (int i = 0; i < units.size(); i++) {
+            List<Integer> unit = units.get(i);
+            total += unit.size();
+
+            Integer previous = null;
+            for (Integer item : unit) {
+                Integer unitIndex = unitByShard.putIfAbsent(String.valueOf(item % 7), i);
+                Assertions.assertTrue(unitIndex == null || unitIndex == i);
+
+                // Items of the same shard keep their original order.
+                if (previous != null && previous % 7 == item % 7) {
+                    Assertions.assertTrue(previous < item);
+                }
+                previous = item;
+            }
+        }
+
+        Assertions.assertEquals(items.size(), total);
+    }
+
+    @Test
+    public void partitionBoundedByShardsTest() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(i);
+        }
+
+        List<List<Integer>> units =
+                ShardPartitioner.partition(
+                        items,
+                        item -> String.valueOf(item % 2),
+                        8,
+                        1
+                );
+
+        Assertions.assertEquals(2, units.size());
+        Assertions.assertEquals(500, units.get(0).size());
+        Assertions.assertEquals(500, units.get(1).size());
+    }
+}
@@ -2,7 +2,11 @@ package com.oliver.accountBackend.manager;
 
 import com.oliver.Synpulse8BackendApplication;
 import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.domain.TransactionCreateResult;
+import com.oliver.accountBackend.domain.TransactionSaveResult;
+import com.oliver.accountBackend.form.CreateTransactionForm;
 import com.oliver.accountBackend.mapper.AccountMapper;
+import com.oliver.accountBackend.mapper.TransactionDailyBalanceMapper;
 import com.oliver.accountBackend.mapper.TransactionMapper;
 import com.oliver.exceptions.ConflictException;
 import com.oliver.exceptions.ValidationException;
@@ -31,6 +35,9 @@ public class AccountTransactionManagerTest {
     @Autowired
     private AccountMapper accountMapper;
 
+    @Autowired
+    private TransactionDailyBalanceMapper transactionDailyBalanceMapper;
+
     @AfterEach
     public void tearDown() {
         accountMapper.removeAllAccountsFromDB();
@@ -52,7 +59,7 @@ public class AccountTransactionManagerTest {
                 fakeTransaction.getAccountIban(),
                 fakeTransaction.getValueDate(),
                 fakeTransaction.getDescription()
-        );
+        ).join();
 
         Assertions.assertEquals(fakeTransaction, transaction);
 
@@ -107,7 +114,11 @@ public class AccountTransactionManagerTest {
                 fakeTransaction.getAccountIban(),
                 null,
                 fakeTransaction.getDescription()
-        );
+        ).join();
+
+        // The amount is stored in the same form as its minor units.
+        Assertions.assertEquals("CAD 500.00", transaction.getAmount());
+        Assertions.assertEquals(50000L, transaction.getAmountMinorUnits());
 
         String tableNameSuffix =
                 accountTransactionManager
@@ -129,6 +140,204 @@ public class AccountTransactionManagerTest {
         transactionMapper.dropTransactionTable(tableNameSuffix);
     }
 
+    @Test
+    public void createTransactionWithTooManyFractionDigits() throws ValidationException, ConflictException {
+        Transaction fakeTransaction = TransactionFaker.createValidTransaction();
+
+        accountManager
+                .createAccount(
+                        "Canada",
+                        fakeTransaction.getAccountIban()
+                );
+
+        Assertions.assertThrows(ValidationException.class, () ->
+                accountTransactionManager.createTransaction(
+                        null,
+                        12.345d,
+                        fakeTransaction.getAccountIban(),
+                        null,
+                        fakeTransaction.getDescription()
+                )
+        );
+
+        List<TransactionCreateResult> results =
+                accountTransactionManager.createTransactions(
+                        fakeTransaction.getAccountIban(),
+                        Collections.singletonList(new CreateTransactionForm(null, 12.345, null))
+                ).join();
+        Assertions.assertEquals(TransactionCreateResult.Status.INVALID, results.get(0).getStatus());
+    }
+
+    @Test
+    public void createTransactionsTest() throws ValidationException, ConflictException {
+        Transaction savedTransaction = TransactionFaker.createValidTransaction();
+
+        accountManager
+                .createAccount(
+                        "Canada",
+                        savedTransaction.getAccountIban()
+                );
+
+        String tableNameSuffix =
+                accountTransactionManager
+                        .getTransactionTableNameSuffix(savedTransaction.getAccountIban());
+        accountTransactionManager.saveTransactionsToDBFromKafka(
+                Collections.singletonList(savedTransaction)
+        );
+
+        String transactionId = UUID.randomUUID().toString();
+        List<TransactionCreateResult> results =
+                accountTransactionManager.createTransactions(
+                        savedTransaction.getAccountIban(),
+                        Arrays.asList(
+                                new CreateTransactionForm(savedTransaction.getTransactionId(), 100, null),
+                                new CreateTransactionForm(transactionId, 200, null),
+                                new CreateTransactionForm(transactionId, 300, null),
+                                new CreateTransactionForm(null, 400, null),
+                                new CreateTransactionForm(String.join("", Collections.nCopies(51, "a")), 500, null),
+                                null
+                        )
+                ).join();
+
+        Assertions.assertEquals(6, results.size());
+        Assertions.assertEquals(TransactionCreateResult.Status.DUPLICATED, results.get(0).getStatus());
+        Assertions.assertEquals(TransactionCreateResult.Status.CREATED, results.get(1).getStatus());
+        Assertions.assertEquals(transactionId, results.get(1).getTransactionId());
+        Assertions.assertEquals(TransactionCreateResult.Status.DUPLICATED, results.get(2).getStatus());
+        Assertions.assertEquals(TransactionCreateResult.Status.CREATED, results.get(3).getStatus());
+        Assertions.assertNotNull(results.get(3).getTransactionId());
+        Assertions.assertEquals(TransactionCreateResult.Status.INVALID, results.get(4).getStatus());
+        Assertions.assertEquals(TransactionCreateResult.Status.INVALID, results.get(5).getStatus());
+
+        transactionMapper.dropTransactionTable(tableNameSuffix);
+    }
+
+    @Test
+    public void createTransactionsWithNonExistingAccount() {
+        Transaction fakeTransaction = TransactionFaker.createValidTransaction();
+
+        Assertions.assertThrows(ValidationException.class, () ->
+                accountTransactionManager.createTransactions(
+                        fakeTransaction.getAccountIban(),
+                        Collections.singletonList(new CreateTransactionForm(null, 100, null))
+                )
+        );
+    }
+
+    @Test
+    public void createTransactionsWithoutTransactions() {
+        Transaction fakeTransaction = TransactionFaker.createValidTransaction();
+
+        Assertions.assertThrows(ValidationException.class, () ->
+                accountTransactionManager.createTransactions(
+                        fakeTransaction.getAccountIban(),
+                        Collections.emptyList()
+                )
+        );
+    }
+
+    @Test
+    public void saveTransactionsToDBFromKafkaTest() {
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        Transaction transactionUnderSameIban =
+                TransactionFaker.createTransactionWithSameIBAN(transaction);
+        Transaction anotherTransaction = TransactionFaker.createValidTransaction();
+        Transaction invalidTransaction = TransactionFaker.createEmptyAmountTransaction();
+
+        String tableNameSuffix =
+                accountTransactionManager
+                        .getTransactionTableNameSuffix(transaction.getAccountIban());
+        String anotherTableNameSuffix =
+                accountTransactionManager
+                        .getTransactionTableNameSuffix(anotherTransaction.getAccountIban());
+        transactionMapper.createTransactionTable(tableNameSuffix);
+        transactionMapper.createTransactionTable(anotherTableNameSuffix);
+        accountTransactionManager.saveTransactionsToDBFromKafka(
+                Collections.singletonList(transactionUnderSameIban)
+        );
+
+        List<TransactionSaveResult> results =
+                accountTransactionManager.saveTransactionsToDBFromKafka(
+                        Arrays.asList(
+                                transaction,
+                                transactionUnderSameIban,
+                                anotherTransaction,
+                                invalidTransaction,
+                                transaction
+                        )
+                );
+
+        Assertions.assertEquals(5, results.size());
+        Assertions.assertEquals(TransactionSaveResult.Status.SAVED, results.get(0).getStatus());
+        Assertions.assertEquals(TransactionSaveResult.Status.DUPLICATED, results.get(1).getStatus());
+        Assertions.assertEquals(TransactionSaveResult.Status.SAVED, results.get(2).getStatus());
+        Assertions.assertEquals(TransactionSaveResult.Status.FAILED, results.get(3).getStatus());
+        Assertions.assertEquals(TransactionSaveResult.Status.DUPLICATED, results.get(4).getStatus());
+
+        Assertions.assertEquals(
+                transaction,
+                transactionMapper.getTransactionByTransactionId(
+                        transaction.getTransactionId(),
+                        tableNameSuffix
+                )
+        );
+        Assertions.assertEquals(
+                anotherTransaction,
+                transactionMapper.getTransactionByTransactionId(
+                        anotherTransaction.getTransactionId(),
+                        anotherTableNameSuffix
+                )
+        );
+
+        // Duplicated transactions are not added to the daily balances again.
+        Assertions.assertEquals(
+                2,
+                transactionDailyBalanceMapper.getTransactionSummaryByAccountIbanAndValueDate(
+                        transaction.getAccountIban(),
+                        transaction.getCurrency(),
+                        new Date(0),
+                        new Date()
+                ).getTotal()
+        );
+
+        transactionMapper.dropTransactionTable(tableNameSuffix);
+        transactionMapper.dropTransactionTable(anotherTableNameSuffix);
+    }
+
+    @Test
+    public void saveTransactionsWithoutValueDateToDBFromKafka() {
+        Transaction fakeTransaction = TransactionFaker.createValidTransaction();
+        Transaction transaction = new Transaction(
+                fakeTransaction.getTransactionId(),
+                fakeTransaction.getAmount(),
+                fakeTransaction.getAccountIban(),
+                null,
+                fakeTransaction.getDescription()
+        );
+
+        // Only partitioned tables require value date, whether new tables are partitioned or not.
+        String tableNameSuffix =
+                accountTransactionManager
+                        .getTransactionTableNameSuffix(transaction.getAccountIban());
+        transactionMapper.createTransactionTable(tableNameSuffix);
+
+        List<TransactionSaveResult> results =
+                accountTransactionManager.saveTransactionsToDBFromKafka(
+                        Collections.singletonList(transaction)
+                );
+
+        Assertions.assertEquals(TransactionSaveResult.Status.SAVED, results.get(0).getStatus());
+        Assertions.assertEquals(
+                transaction,
+                transactionMapper.getTransactionByTransactionId(
+                        transaction.getTransactionId(),
+                        tableNameSuffix
+                )
+        );
+
+        transactionMapper.dropTransactionTable(tableNameSuffix);
+    }
+
     @Test
     public void getTransactionsByAccountIbanAndValueDate() throws ValidationException, ConflictException {
         Transaction fakeTransaction = TransactionFaker.createValidTransaction();
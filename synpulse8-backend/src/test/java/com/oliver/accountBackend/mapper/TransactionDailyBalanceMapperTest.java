@@ -0,0 +1,167 @@
+package com.oliver.accountBackend.mapper;
+
+import com.oliver.Synpulse8BackendApplication;
+import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.domain.TransactionDailyBalance;
+import com.oliver.accountBackend.domain.TransactionSummary;
+import com.oliver.faker.TransactionFaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+@SpringBootTest(classes = Synpulse8BackendApplication.class)
+@ActiveProfiles("test")
+public class TransactionDailyBalanceMapperTest {
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    @Autowired
+    private TransactionDailyBalanceMapper transactionDailyBalanceMapper;
+
+    private final String TABLE_NAME_SUFFIX = "31";
+
+    @BeforeEach
+    public void setUp() {
+        transactionMapper.createTransactionTable(TABLE_NAME_SUFFIX);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transactionMapper.dropTransactionTable(TABLE_NAME_SUFFIX);
+        transactionDailyBalanceMapper.removeAllDailyBalancesFromDB();
+        transactionDailyBalanceMapper.removeAllRollUpsFromDB();
+    }
+
+    private Transaction createTransaction(String accountIban, String amount, Date valueDate) {
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        return new Transaction(
+                transaction.getTransactionId(),
+                amount,
+                accountIban,
+                valueDate,
+                transaction.getDescription()
+        );
+    }
+
+    private TransactionDailyBalance createDailyBalance(Transaction transaction) {
+        TransactionDailyBalance dailyBalance =
+                new TransactionDailyBalance(
+                        transaction.getAccountIban(),
+                        transaction.getValueDate(),
+                        transaction.getCurrency()
+                );
+        dailyBalance.addTransaction(transaction);
+        return dailyBalance;
+    }
+
+    @Test
+    public void addDailyBalancesTest() {
+        Date valueDate = new Date(0);
+        Transaction debit = createTransaction("valid-account-iban", "CHF 75.5", valueDate);
+        Transaction credit = createTransaction("valid-account-iban", "CHF -20", valueDate);
+
+        transactionDailyBalanceMapper.addDailyBalances(
+                Collections.singletonList(createDailyBalance(debit))
+        );
+        transactionDailyBalanceMapper.addDailyBalances(
+                Collections.singletonList(createDailyBalance(credit))
+        );
+
+        List<TransactionDailyBalance> dailyBalances =
+                transactionDailyBalanceMapper.getDailyBalancesByAccountIbanAndValueDate(
+                        "valid-account-iban",
+                        valueDate,
+                        new Date()
+                );
+
+        Assertions.assertEquals(1, dailyBalances.size());
+        Assertions.assertEquals(2, dailyBalances.get(0).getTotal());
+        Assertions.assertEquals("CHF", dailyBalances.get(0).getCurrency());
+        Assertions.assertEquals(7550, dailyBalances.get(0).getDebitMinorUnits());
+        Assertions.assertEquals(-2000, dailyBalances.get(0).getCreditMinorUnits());
+    }
+
+    @Test
+    public void dailyBalancesOfDifferentCurrenciesTest() {
+        Date valueDate = new Date(0);
+        Transaction franc = createTransaction("valid-account-iban", "CHF 75.5", valueDate);
+        Transaction euro = createTransaction("valid-account-iban", "EUR 20", valueDate);
+        transactionMapper.saveTransaction(franc, TABLE_NAME_SUFFIX);
+        transactionMapper.saveTransaction(euro, TABLE_NAME_SUFFIX);
+        transactionDailyBalanceMapper.rollUpTransactionTable(TABLE_NAME_SUFFIX);
+
+        List<TransactionDailyBalance> dailyBalances =
+                transactionDailyBalanceMapper.getDailyBalancesByAccountIbanAndValueDate(
+                        "valid-account-iban",
+                        valueDate,
+                        new Date()
+                );
+
+        Assertions.assertEquals(2, dailyBalances.size());
+        Assertions.assertEquals("CHF", dailyBalances.get(0).getCurrency());
+        Assertions.assertEquals(7550, dailyBalances.get(0).getDebitMinorUnits());
+        Assertions.assertEquals("EUR", dailyBalances.get(1).getCurrency());
+        Assertions.assertEquals(2000, dailyBalances.get(1).getDebitMinorUnits());
+
+        TransactionSummary transactionSummary =
+                transactionDailyBalanceMapper.getTransactionSummaryByAccountIbanAndValueDate(
+                        "valid-account-iban",
+                        "CHF",
+                        valueDate,
+                        new Date()
+                );
+        Assertions.assertEquals(2, transactionSummary.getTotal());
+        Assertions.assertEquals("CHF", transactionSummary.getCurrency());
+        Assertions.assertEquals(7550, transactionSummary.getTotalDebitMinorUnits());
+    }
+
+    @Test
+    public void rollUpTransactionTableTest() {
+        Date valueDate = new Date(0);
+        Transaction debit = createTransaction("valid-account-iban", "CHF 75.5", valueDate);
+        Transaction credit = createTransaction("valid-account-iban", "CHF -20", valueDate);
+        transactionMapper.saveTransaction(debit, TABLE_NAME_SUFFIX);
+        transactionMapper.saveTransaction(credit, TABLE_NAME_SUFFIX);
+
+        // Balances added from another table are kept.
+        Transaction otherDebit = createTransaction("valid-account-iban", "CHF 10", valueDate);
+        transactionDailyBalanceMapper.addDailyBalances(
+                Collections.singletonList(createDailyBalance(otherDebit))
+        );
+        transactionDailyBalanceMapper.rollUpTransactionTable(TABLE_NAME_SUFFIX);
+
+        List<TransactionDailyBalance> dailyBalances =
+                transactionDailyBalanceMapper.getDailyBalancesByAccountIbanAndValueDate(
+                        "valid-account-iban",
+                        valueDate,
+                        new Date()
+                );
+
+        Assertions.assertEquals(1, dailyBalances.size());
+        Assertions.assertEquals(3, dailyBalances.get(0).getTotal());
+        Assertions.assertEquals(8550, dailyBalances.get(0).getDebitMinorUnits());
+        Assertions.assertEquals(-2000, dailyBalances.get(0).getCreditMinorUnits());
+    }
+
+    @Test
+    public void markTableRolledUpTest() {
+        Assertions.assertFalse(transactionDailyBalanceMapper.isTableRolledUp(TABLE_NAME_SUFFIX));
+
+        transactionDailyBalanceMapper.markTableRolledUp(TABLE_NAME_SUFFIX);
+
+        Assertions.assertTrue(transactionDailyBalanceMapper.isTableRolledUp(TABLE_NAME_SUFFIX));
+        Assertions.assertThrows(
+                DuplicateKeyException.class,
+                () -> transactionDailyBalanceMapper.markTableRolledUp(TABLE_NAME_SUFFIX)
+        );
+    }
+}
@@ -2,6 +2,8 @@ package com.oliver.accountBackend.mapper;
 
 import com.oliver.Synpulse8BackendApplication;
 import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.shard.AccountIbanValueDateIndexMigration;
+import com.oliver.accountBackend.shard.TransactionPartition;
 import com.oliver.faker.TransactionFaker;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -13,6 +15,8 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
 
 @SpringBootTest(classes = Synpulse8BackendApplication.class)
@@ -106,6 +110,98 @@ public class TransactionMapperTest {
         });
     }
 
+    @Test
+    public void saveTransactionsTest() {
+        Transaction transaction =
+                TransactionFaker.createValidTransaction();
+        Transaction transactionUnderSameIban =
+                TransactionFaker.createTransactionWithSameIBAN(transaction);
+
+        transactionMapper.saveTransactions(
+                Arrays.asList(transaction, transactionUnderSameIban),
+                TABLE_NAME_SUFFIX
+        );
+
+        Assertions.assertEquals(
+                transaction,
+                transactionMapper.getTransactionByTransactionId(
+                        transaction.getTransactionId(),
+                        TABLE_NAME_SUFFIX
+                )
+        );
+        Assertions.assertEquals(
+                transactionUnderSameIban,
+                transactionMapper.getTransactionByTransactionId(
+                        transactionUnderSameIban.getTransactionId(),
+                        TABLE_NAME_SUFFIX
+                )
+        );
+
+        // Saved transactions fail the statement instead of being reported as saved.
+        Assertions.assertThrows(DuplicateKeyException.class, () ->
+                transactionMapper.saveTransactions(
+                        Collections.singletonList(transaction),
+                        TABLE_NAME_SUFFIX
+                )
+        );
+
+        // Copied transactions are skipped, so a copy can be repeated.
+        Assertions.assertDoesNotThrow(() ->
+                transactionMapper.copyTransactions(
+                        Collections.singletonList(transaction),
+                        TABLE_NAME_SUFFIX
+                )
+        );
+    }
+
+    @Test
+    public void getExistingTransactionIdsTest() {
+        Transaction transaction =
+                TransactionFaker.createValidTransaction();
+        transactionMapper.saveTransaction(transaction, TABLE_NAME_SUFFIX);
+
+        List<String> transactionIds =
+                transactionMapper.getExistingTransactionIds(
+                        Arrays.asList(
+                                transaction.getTransactionId(),
+                                "invalid-transaction-id"
+                        ),
+                        TABLE_NAME_SUFFIX
+                );
+
+        Assertions.assertEquals(1, transactionIds.size());
+        Assertions.assertEquals(transaction.getTransactionId(), transactionIds.get(0));
+    }
+
+    @Test
+    public void saveTypedAmountTest() {
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        Transaction typedTransaction = new Transaction(
+                transaction.getTransactionId(),
+                "CHF 75.5",
+                transaction.getAccountIban(),
+                transaction.getValueDate(),
+                transaction.getDescription()
+        );
+        Transaction untypedTransaction = TransactionFaker.createValidTransaction();
+        transactionMapper.saveTransaction(typedTransaction, TABLE_NAME_SUFFIX);
+        transactionMapper.saveTransaction(untypedTransaction, TABLE_NAME_SUFFIX);
+
+        Transaction savedTransaction =
+                transactionMapper.getTransactionByTransactionId(
+                        typedTransaction.getTransactionId(),
+                        TABLE_NAME_SUFFIX
+                );
+        Assertions.assertEquals(7550L, savedTransaction.getAmountMinorUnits());
+        Assertions.assertEquals("CHF", savedTransaction.getCurrency());
+
+        List<Transaction> transactionsWithoutCurrency =
+                transactionMapper.getTransactionsWithoutCurrency(null, 10, TABLE_NAME_SUFFIX);
+        Assertions.assertEquals(1, transactionsWithoutCurrency.size());
+        Assertions.assertEquals(untypedTransaction, transactionsWithoutCurrency.get(0));
+        Assertions.assertNull(transactionsWithoutCurrency.get(0).getCurrency());
+    }
+
     @Test
     public void getTransactionByTransactionIdTest() {
         Transaction transaction =
@@ -143,7 +239,7 @@ public class TransactionMapperTest {
                         "invalid-iban",
                         new Date(),
                         new Date(),
-                        TABLE_NAME_SUFFIX
+                        Collections.singletonList(TABLE_NAME_SUFFIX)
                 );
 
         Assertions.assertEquals(0, transactions.size());
@@ -182,9 +278,189 @@ public class TransactionMapperTest {
                         transaction.getAccountIban(),
                         startDate,
                         endDate,
-                        TABLE_NAME_SUFFIX
+                        Collections.singletonList(TABLE_NAME_SUFFIX)
                 );
 
         Assertions.assertEquals(1, transactions.size());
     }
+
+    @Test
+    public void getTransactionsFromTwoTablesTest() {
+        String previousTableNameSuffix = "35";
+        transactionMapper.createTransactionTable(previousTableNameSuffix);
+
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        Transaction copiedTransaction = TransactionFaker.createTransactionWithSameIBAN(transaction);
+        transactionMapper.saveTransaction(transaction, previousTableNameSuffix);
+        transactionMapper.saveTransaction(copiedTransaction, previousTableNameSuffix);
+        transactionMapper.saveTransaction(copiedTransaction, TABLE_NAME_SUFFIX);
+        transactionMapper.saveTransaction(TransactionFaker.createValidTransaction(), previousTableNameSuffix);
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.YEAR, -100);
+
+        List<Transaction> transactions =
+                transactionMapper.getTransactionsByAccountIbanAndValueDate(
+                        transaction.getAccountIban(),
+                        calendar.getTime(),
+                        new Date(),
+                        Arrays.asList(TABLE_NAME_SUFFIX, previousTableNameSuffix)
+                );
+        Assertions.assertEquals(2, transactions.size());
+
+        Assertions.assertEquals(
+                2,
+                transactionMapper.removeTransactionsOfAccount(
+                        transaction.getAccountIban(),
+                        10,
+                        previousTableNameSuffix
+                )
+        );
+        Assertions.assertEquals(
+                1,
+                transactionMapper.getTransactionsOfAccount(
+                        transaction.getAccountIban(),
+                        null,
+                        10,
+                        TABLE_NAME_SUFFIX
+                ).size()
+        );
+
+        transactionMapper.dropTransactionTable(previousTableNameSuffix);
+    }
+
+    @Test
+    public void partitionedTransactionTableTest() {
+        String partitionedTableNameSuffix = "36";
+        YearMonth currentMonth = YearMonth.now();
+        transactionMapper.createPartitionedTransactionTable(
+                Arrays.asList(
+                        new TransactionPartition(currentMonth),
+                        new TransactionPartition(currentMonth.plusMonths(1))
+                ),
+                partitionedTableNameSuffix
+        );
+
+        // Transactions before the first month are kept in the first partition.
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        transactionMapper.saveTransaction(transaction, partitionedTableNameSuffix);
+        Assertions.assertTrue(
+                transactionMapper.getPartitionedTransactionTableNameSuffixes().contains(partitionedTableNameSuffix)
+        );
+
+        transactionMapper.addTransactionTablePartitions(
+                Collections.singletonList(new TransactionPartition(currentMonth.plusMonths(2))),
+                partitionedTableNameSuffix
+        );
+        Assertions.assertEquals(
+                Arrays.asList(
+                        new TransactionPartition(currentMonth).getName(),
+                        new TransactionPartition(currentMonth.plusMonths(1)).getName(),
+                        new TransactionPartition(currentMonth.plusMonths(2)).getName(),
+                        TransactionPartition.FUTURE_PARTITION_NAME
+                ),
+                transactionMapper.getTransactionTablePartitionNames(partitionedTableNameSuffix)
+        );
+
+        transactionMapper.dropTransactionTablePartitions(
+                Collections.singletonList(new TransactionPartition(currentMonth).getName()),
+                partitionedTableNameSuffix
+        );
+        Assertions.assertNull(
+                transactionMapper.getTransactionByTransactionId(
+                        transaction.getTransactionId(),
+                        partitionedTableNameSuffix
+                )
+        );
+
+        transactionMapper.dropTransactionTable(partitionedTableNameSuffix);
+    }
+
+    @Test
+    public void transactionIdTableTest() {
+        transactionMapper.createTransactionIdTable(TABLE_NAME_SUFFIX);
+        List<Transaction> transactions = Collections.singletonList(TransactionFaker.createValidTransaction());
+        transactionMapper.saveTransactionIds(transactions, TABLE_NAME_SUFFIX);
+
+        // Ids stay unique even though partitioned tables cannot enforce it.
+        Assertions.assertThrows(DuplicateKeyException.class, () ->
+                transactionMapper.saveTransactionIds(transactions, TABLE_NAME_SUFFIX)
+        );
+        Assertions.assertDoesNotThrow(() ->
+                transactionMapper.copyTransactionIds(transactions, TABLE_NAME_SUFFIX)
+        );
+
+        transactionMapper.removeTransactionIdsBefore(LocalDate.now().plusYears(1), TABLE_NAME_SUFFIX);
+        Assertions.assertDoesNotThrow(() ->
+                transactionMapper.saveTransactionIds(transactions, TABLE_NAME_SUFFIX)
+        );
+    }
+
+    @Test
+    public void getTransactionsByAccountIbanAndValueDateAfterUsesIndexTest() {
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        for (int i = 0; i < 20; i++) {
+            transactionMapper.saveTransaction(
+                    TransactionFaker.createTransactionWithSameIBAN(transaction),
+                    TABLE_NAME_SUFFIX
+            );
+            transactionMapper.saveTransaction(
+                    TransactionFaker.createValidTransaction(),
+                    TABLE_NAME_SUFFIX
+            );
+        }
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.YEAR, -100);
+        Date startDate = calendar.getTime();
+        Date endDate = new Date();
+
+        List<Map<String, Object>> firstPagePlan =
+                transactionMapper.explainGetTransactionsByAccountIbanAndValueDateAfter(
+                        transaction.getAccountIban(),
+                        startDate,
+                        endDate,
+                        null,
+                        null,
+                        10,
+                        Collections.singletonList(TABLE_NAME_SUFFIX)
+                );
+        List<Map<String, Object>> nextPagePlan =
+                transactionMapper.explainGetTransactionsByAccountIbanAndValueDateAfter(
+                        transaction.getAccountIban(),
+                        startDate,
+                        endDate,
+                        startDate,
+                        transaction.getTransactionId(),
+                        10,
+                        Collections.singletonList(TABLE_NAME_SUFFIX)
+                );
+
+        for (List<Map<String, Object>> plan : Arrays.asList(firstPagePlan, nextPagePlan)) {
+            Assertions.assertEquals(1, plan.size());
+            Assertions.assertEquals(
+                    AccountIbanValueDateIndexMigration.INDEX_NAME,
+                    plan.get(0).get("key")
+            );
+
+            Object extra = plan.get(0).get("Extra");
+            Assertions.assertFalse(extra != null && extra.toString().contains("Using filesort"));
+        }
+    }
+
+    @Test
+    public void getTransactionTableNameSuffixesWithoutIndexTest() {
+        Assertions.assertFalse(
+                transactionMapper
+                        .getTransactionTableNameSuffixesWithoutIndex(
+                                AccountIbanValueDateIndexMigration.INDEX_NAME
+                        )
+                        .contains(TABLE_NAME_SUFFIX)
+        );
+        Assertions.assertTrue(
+                transactionMapper
+                        .getTransactionTableNameSuffixesWithoutIndex("non_existing_index")
+                        .contains(TABLE_NAME_SUFFIX)
+        );
+    }
 }
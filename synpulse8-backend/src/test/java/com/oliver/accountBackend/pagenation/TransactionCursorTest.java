@@ -0,0 +1,26 @@
+package com.oliver.accountBackend.pagenation;
+
+import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.exceptions.ValidationException;
+import com.oliver.faker.TransactionFaker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TransactionCursorTest {
+    @Test
+    public void encodeAndDecodeTest() {
+        Transaction transaction = TransactionFaker.createValidTransaction();
+
+        TransactionCursor cursor = TransactionCursor.decode(TransactionCursor.encode(transaction));
+
+        Assertions.assertEquals(transaction.getValueDate(), cursor.getValueDate());
+        Assertions.assertEquals(transaction.getTransactionId(), cursor.getTransactionId());
+    }
+
+    @Test
+    public void decodeInvalidCursorTest() {
+        Assertions.assertThrows(ValidationException.class, () -> TransactionCursor.decode("!"));
+        Assertions.assertThrows(ValidationException.class, () -> TransactionCursor.decode("invalid-cursor"));
+        Assertions.assertThrows(ValidationException.class, () -> TransactionCursor.decode(""));
+    }
+}
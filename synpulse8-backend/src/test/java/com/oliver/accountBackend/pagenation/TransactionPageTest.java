@@ -0,0 +1,47 @@
+package com.oliver.accountBackend.pagenation;
+
+import com.oliver.accountBackend.domain.Transaction;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+
+public class TransactionPageTest {
+    private static Transaction createTransaction(String amount) {
+        return new Transaction("id-" + amount, amount, "iban", new Date(), null);
+    }
+
+    @Test
+    public void totalsTest() {
+        TransactionPage transactionPage = new TransactionPage(
+                Arrays.asList(
+                        createTransaction("CHF 75.5"),
+                        createTransaction("CHF 24.5"),
+                        createTransaction("CHF -20")
+                ),
+                "CHF"
+        );
+
+        Assertions.assertEquals(100, transactionPage.getTotalDebit());
+        Assertions.assertEquals(-20, transactionPage.getTotalCredit());
+    }
+
+    @Test
+    public void totalsSkipOtherCurrenciesTest() {
+        // A yen amount has no fraction digits, adding its minor units would be off by 100.
+        TransactionPage transactionPage = new TransactionPage(
+                Arrays.asList(
+                        createTransaction("CHF 75.5"),
+                        createTransaction("JPY 5000"),
+                        createTransaction("JPY -300"),
+                        createTransaction("invalid-amount")
+                ),
+                "CHF"
+        );
+
+        Assertions.assertEquals(4, transactionPage.getTotal());
+        Assertions.assertEquals(75.5, transactionPage.getTotalDebit());
+        Assertions.assertEquals(0, transactionPage.getTotalCredit());
+    }
+}
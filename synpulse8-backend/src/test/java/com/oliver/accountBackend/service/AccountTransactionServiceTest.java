@@ -2,8 +2,12 @@ package com.oliver.accountBackend.service;
 
 import com.oliver.Synpulse8BackendApplication;
 import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.domain.TransactionDailyBalance;
+import com.oliver.accountBackend.domain.TransactionSummary;
+import com.oliver.accountBackend.export.TransactionExportFormat;
 import com.oliver.accountBackend.manager.AccountManager;
 import com.oliver.accountBackend.manager.AccountTransactionManager;
+import com.oliver.accountBackend.mapper.TransactionDailyBalanceMapper;
 import com.oliver.accountBackend.mapper.TransactionMapper;
 import com.oliver.accountBackend.pagenation.TransactionPage;
 import com.oliver.exceptions.ConflictException;
@@ -16,6 +20,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @SpringBootTest(classes = Synpulse8BackendApplication.class)
@@ -33,6 +41,9 @@ public class AccountTransactionServiceTest {
     @Autowired
     private TransactionMapper transactionMapper;
 
+    @Autowired
+    private TransactionDailyBalanceMapper transactionDailyBalanceMapper;
+
     @Test
     public void createTransactionTest() throws ValidationException, ConflictException, InterruptedException {
         Transaction fakeTransaction = TransactionFaker.createValidTransaction();
@@ -47,7 +58,7 @@ public class AccountTransactionServiceTest {
                 300,
                 fakeTransaction.getAccountIban(),
                 fakeTransaction.getDescription()
-        );
+        ).join();
 
         String tableNameSuffix =
                 accountTransactionManager
@@ -189,6 +200,32 @@ public class AccountTransactionServiceTest {
         Assertions.assertEquals(300, ((TransactionPage)transactionPage).getTotalDebit());
         Assertions.assertEquals(-150, ((TransactionPage) transactionPage).getTotalCredit());
 
+        // Transactions saved by mapper are not consumed, roll them up as the migration does.
+        transactionDailyBalanceMapper.rollUpTransactionTable(tableNameSuffix);
+        TransactionSummary transactionSummary =
+                accountTransactionService.getTransactionSummaryByAccountIbanAndValueDate(
+                        fakeTransaction.getAccountIban(),
+                        startDate,
+                        endDate
+                );
+
+        Assertions.assertEquals(4, transactionSummary.getTotal());
+        Assertions.assertEquals("CAD", transactionSummary.getCurrency());
+        Assertions.assertEquals(new BigDecimal("300.00"), transactionSummary.getTotalDebit());
+        Assertions.assertEquals(new BigDecimal("-150.00"), transactionSummary.getTotalCredit());
+
+        List<TransactionDailyBalance> dailyBalances =
+                accountTransactionService.getDailyBalancesByAccountIbanAndValueDate(
+                        fakeTransaction.getAccountIban(),
+                        startDate,
+                        endDate
+                );
+
+        Assertions.assertEquals(2, dailyBalances.size());
+        Assertions.assertEquals(2, dailyBalances.get(0).getTotal());
+        Assertions.assertEquals(new BigDecimal("300.00"), dailyBalances.get(0).getDebit());
+        Assertions.assertEquals(new BigDecimal("-150.00"), dailyBalances.get(1).getCredit());
+
         transactionPage =
                 accountTransactionService.getTransactionsByAccountIbanAndValueDate(
                         fakeTransaction.getAccountIban(),
@@ -214,4 +251,153 @@ public class AccountTransactionServiceTest {
         transactionMapper.dropTransactionTable(tableNameSuffix);
         transactionMapper.dropTransactionTable(validIBANTableNameSuffix);
     }
+
+    @Test
+    public void getTransactionsByAccountIbanAndValueDateAfterCursor() throws ValidationException, ConflictException {
+        Transaction fakeTransaction = TransactionFaker.createValidTransaction();
+
+        accountManager
+                .createAccount(
+                        "Canada",
+                        fakeTransaction.getAccountIban()
+                );
+
+        String tableNameSuffix =
+                accountTransactionManager
+                        .getTransactionTableNameSuffix(
+                                fakeTransaction.getAccountIban()
+                        );
+        transactionMapper.createTransactionTable(tableNameSuffix);
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(new Date());
+        Date startDate = calendar.getTime();
+
+        // Two transactions on each of the first two days and one on the last day.
+        List<List<Transaction>> transactionsByDay = new ArrayList<>();
+        for (int day = 0; day < 3; day++) {
+            calendar.add(Calendar.DATE, 1);
+
+            List<Transaction> transactions = new ArrayList<>();
+            for (int i = 0; i < (day < 2 ? 2 : 1); i++) {
+                Transaction transaction = new Transaction(
+                        UUID.randomUUID().toString(),
+                        "CAD 100",
+                        fakeTransaction.getAccountIban(),
+                        calendar.getTime(),
+                        "description"
+                );
+                transactionMapper.saveTransaction(transaction, tableNameSuffix);
+                transactions.add(transaction);
+            }
+
+            transactions.sort(Comparator.comparing(Transaction::getTransactionId));
+            transactionsByDay.add(transactions);
+        }
+        Date endDate = calendar.getTime();
+
+        List<Transaction> expectedTransactions = new ArrayList<>();
+        transactionsByDay.forEach(expectedTransactions::addAll);
+
+        List<Transaction> fetchedTransactions = new ArrayList<>();
+        List<Integer> pageTotals = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPage transactionPage = (TransactionPage)
+                    accountTransactionService.getTransactionsByAccountIbanAndValueDateAfterCursor(
+                            fakeTransaction.getAccountIban(),
+                            startDate,
+                            endDate,
+                            cursor,
+                            2
+                    );
+
+            pageTotals.add(transactionPage.getTotal());
+            fetchedTransactions.addAll(transactionPage.getData());
+            cursor = transactionPage.getNextCursor();
+        } while (cursor != null);
+
+        Assertions.assertEquals(Arrays.asList(2, 2, 1), pageTotals);
+        Assertions.assertEquals(expectedTransactions, fetchedTransactions);
+
+        Assertions.assertThrows(ValidationException.class, () ->
+                accountTransactionService.getTransactionsByAccountIbanAndValueDateAfterCursor(
+                        fakeTransaction.getAccountIban(),
+                        startDate,
+                        endDate,
+                        "invalid-cursor",
+                        2
+                )
+        );
+
+        transactionMapper.dropTransactionTable(tableNameSuffix);
+    }
+
+    @Test
+    public void exportTransactionsByAccountIbanAndValueDate() throws ValidationException, IOException {
+        Transaction fakeTransaction = TransactionFaker.createValidTransaction();
+
+        accountManager
+                .createAccount(
+                        "Canada",
+                        fakeTransaction.getAccountIban()
+                );
+
+        String tableNameSuffix =
+                accountTransactionManager
+                        .getTransactionTableNameSuffix(
+                                fakeTransaction.getAccountIban()
+                        );
+        transactionMapper.createTransactionTable(tableNameSuffix);
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(new Date());
+        Date startDate = calendar.getTime();
+
+        List<String> expectedTransactionIds = new ArrayList<>();
+        for (int day = 0; day < 3; day++) {
+            calendar.add(Calendar.DATE, 1);
+            Transaction transaction = new Transaction(
+                    UUID.randomUUID().toString(),
+                    "CAD 100",
+                    fakeTransaction.getAccountIban(),
+                    calendar.getTime(),
+                    "description, with comma"
+            );
+            transactionMapper.saveTransaction(transaction, tableNameSuffix);
+            expectedTransactionIds.add(transaction.getTransactionId());
+        }
+        Date endDate = calendar.getTime();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exportedTransactions = accountTransactionService.exportTransactionsByAccountIbanAndValueDate(
+                fakeTransaction.getAccountIban(),
+                startDate,
+                endDate,
+                TransactionExportFormat.CSV,
+                out
+        );
+
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(3, exportedTransactions);
+        Assertions.assertEquals(4, lines.length);
+        for (int i = 0; i < expectedTransactionIds.size(); i++) {
+            Assertions.assertTrue(lines[i + 1].startsWith(expectedTransactionIds.get(i) + ",CAD 100,10000,CAD,"));
+            Assertions.assertTrue(lines[i + 1].endsWith(",\"description, with comma\""));
+        }
+
+        ByteArrayOutputStream invalidOut = new ByteArrayOutputStream();
+        Assertions.assertThrows(ValidationException.class, () ->
+                accountTransactionService.exportTransactionsByAccountIbanAndValueDate(
+                        "invalid-iban",
+                        startDate,
+                        endDate,
+                        TransactionExportFormat.CSV,
+                        invalidOut
+                )
+        );
+        Assertions.assertEquals(0, invalidOut.size());
+
+        transactionMapper.dropTransactionTable(tableNameSuffix);
+    }
 }
@@ -0,0 +1,58 @@
+package com.oliver.accountBackend.shard;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+public class ConsistentHashRingTest {
+    private static final int KEYS_NUMBER = 20000;
+
+    @Test
+    public void locateTest() {
+        ConsistentHashRing ring = new ConsistentHashRing(100, 64);
+        ConsistentHashRing sameRing = new ConsistentHashRing(100, 64);
+        int[] keysPerTable = new int[100];
+        for (int i = 0; i < KEYS_NUMBER; i++) {
+            String key = UUID.randomUUID().toString();
+            int table = ring.locate(key);
+
+            Assertions.assertEquals(table, sameRing.locate(key));
+            keysPerTable[table]++;
+        }
+
+        // Every table gets a share of the keys, none gets several times its share.
+        for (int keys : keysPerTable) {
+            Assertions.assertTrue(keys > 0);
+            Assertions.assertTrue(keys < 3 * KEYS_NUMBER / 100);
+        }
+    }
+
+    @Test
+    public void growTest() {
+        ConsistentHashRing ring = new ConsistentHashRing(100, 64);
+        ConsistentHashRing grownRing = new ConsistentHashRing(110, 64);
+
+        int movedKeys = 0;
+        for (int i = 0; i < KEYS_NUMBER; i++) {
+            String key = UUID.randomUUID().toString();
+            int table = ring.locate(key);
+            int grownTable = grownRing.locate(key);
+            if (table != grownTable) {
+                // Keys only move to the new tables.
+                Assertions.assertTrue(grownTable >= 100);
+                movedKeys++;
+            }
+        }
+
+        // About 1/11 of the keys move, far from all of them as with modulo hashing.
+        Assertions.assertTrue(movedKeys > KEYS_NUMBER / 20);
+        Assertions.assertTrue(movedKeys < KEYS_NUMBER / 6);
+    }
+
+    @Test
+    public void invalidRingTest() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(0, 64));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(100, 0));
+    }
+}
@@ -0,0 +1,104 @@
+package com.oliver.accountBackend.shard;
+
+import com.oliver.Synpulse8BackendApplication;
+import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.domain.TransactionDailyBalance;
+import com.oliver.accountBackend.mapper.TransactionDailyBalanceMapper;
+import com.oliver.accountBackend.mapper.TransactionMapper;
+import com.oliver.faker.TransactionFaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+@SpringBootTest(classes = Synpulse8BackendApplication.class)
+@ActiveProfiles("test")
+public class TransactionDailyBalanceMigrationTest {
+    @Autowired
+    private TransactionDailyBalanceMigration transactionDailyBalanceMigration;
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    @Autowired
+    private TransactionDailyBalanceMapper transactionDailyBalanceMapper;
+
+    private final String TABLE_NAME_SUFFIX = "38";
+
+    @BeforeEach
+    public void setUp() {
+        // A table created before the daily balances were maintained.
+        transactionMapper.createTransactionTable(TABLE_NAME_SUFFIX);
+        transactionMapper.commentTransactionTable("", TABLE_NAME_SUFFIX);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transactionMapper.dropTransactionTable(TABLE_NAME_SUFFIX);
+        transactionDailyBalanceMapper.removeAllDailyBalancesFromDB();
+        transactionDailyBalanceMapper.removeAllRollUpsFromDB();
+    }
+
+    private Transaction createTransaction(String amount, Date valueDate) {
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        return new Transaction(
+                transaction.getTransactionId(),
+                amount,
+                "valid-account-iban",
+                valueDate,
+                transaction.getDescription()
+        );
+    }
+
+    @Test
+    public void migrateTest() {
+        Date valueDate = new Date(0);
+        transactionMapper.saveTransaction(createTransaction("CHF 75.5", valueDate), TABLE_NAME_SUFFIX);
+        transactionMapper.saveTransaction(createTransaction("CHF -20", valueDate), TABLE_NAME_SUFFIX);
+
+        // Transactions of the account consumed to another table.
+        Transaction otherTransaction = createTransaction("CHF 10", valueDate);
+        TransactionDailyBalance otherDailyBalance =
+                new TransactionDailyBalance("valid-account-iban", valueDate, "CHF");
+        otherDailyBalance.addTransaction(otherTransaction);
+        transactionDailyBalanceMapper.addDailyBalances(Collections.singletonList(otherDailyBalance));
+
+        Assertions.assertFalse(transactionDailyBalanceMigration.isRolledUp(TABLE_NAME_SUFFIX));
+        Assertions.assertTrue(
+                transactionDailyBalanceMigration
+                        .getPendingTableNameSuffixes()
+                        .contains(TABLE_NAME_SUFFIX)
+        );
+
+        transactionDailyBalanceMigration.migrate(TABLE_NAME_SUFFIX);
+
+        // A table whose comment failed to be set is not added twice.
+        transactionMapper.commentTransactionTable("", TABLE_NAME_SUFFIX);
+        transactionDailyBalanceMigration.migrate(TABLE_NAME_SUFFIX);
+
+        List<TransactionDailyBalance> dailyBalances =
+                transactionDailyBalanceMapper.getDailyBalancesByAccountIbanAndValueDate(
+                        "valid-account-iban",
+                        valueDate,
+                        new Date()
+                );
+
+        Assertions.assertEquals(1, dailyBalances.size());
+        Assertions.assertEquals(3, dailyBalances.get(0).getTotal());
+        Assertions.assertEquals(8550, dailyBalances.get(0).getDebitMinorUnits());
+        Assertions.assertEquals(-2000, dailyBalances.get(0).getCreditMinorUnits());
+        Assertions.assertTrue(transactionDailyBalanceMigration.isRolledUp(TABLE_NAME_SUFFIX));
+        Assertions.assertFalse(
+                transactionDailyBalanceMigration
+                        .getPendingTableNameSuffixes()
+                        .contains(TABLE_NAME_SUFFIX)
+        );
+    }
+}
@@ -0,0 +1,34 @@
+package com.oliver.accountBackend.shard;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public class TransactionPartitionTest {
+    @Test
+    public void partitionNameTest() {
+        TransactionPartition partition = new TransactionPartition(YearMonth.of(2026, 12));
+
+        Assertions.assertEquals("p202612", partition.getName());
+        Assertions.assertEquals("2027-01-01", partition.getLessThan());
+        Assertions.assertEquals(YearMonth.of(2026, 12), TransactionPartition.parse("p202612").getMonth());
+        Assertions.assertNull(TransactionPartition.parse(TransactionPartition.FUTURE_PARTITION_NAME));
+    }
+
+    @Test
+    public void getPartitionsTest() {
+        List<TransactionPartition> partitions = TransactionPartitionMaintainer.getPartitions(
+                YearMonth.of(2026, 11),
+                YearMonth.of(2027, 1)
+        );
+
+        Assertions.assertEquals(3, partitions.size());
+        Assertions.assertEquals("p202611", partitions.get(0).getName());
+        Assertions.assertEquals("p202701", partitions.get(2).getName());
+        Assertions.assertTrue(
+                TransactionPartitionMaintainer.getPartitions(YearMonth.of(2027, 1), YearMonth.of(2026, 11)).isEmpty()
+        );
+    }
+}
@@ -0,0 +1,71 @@
+package com.oliver.accountBackend.shard;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+public class TransactionRoutingDataSourceTest {
+    @Test
+    public void getDataSourceIndexTest() {
+        TransactionRoutingDataSource dataSource = new TransactionRoutingDataSource(3, 5000);
+
+        Assertions.assertEquals(0, dataSource.getDataSourceIndex("0"));
+        Assertions.assertEquals(0, dataSource.getDataSourceIndex("4999"));
+        Assertions.assertEquals(1, dataSource.getDataSourceIndex("5000"));
+        Assertions.assertEquals(2, dataSource.getDataSourceIndex("10000"));
+        Assertions.assertEquals(2, dataSource.getDataSourceIndex("20000"));
+        Assertions.assertEquals(0, dataSource.getDataSourceIndex("-1"));
+        Assertions.assertEquals(0, dataSource.getDataSourceIndex("not-a-table"));
+
+        TransactionRoutingDataSource singleDataSource = new TransactionRoutingDataSource(1, 5000);
+        Assertions.assertEquals(0, singleDataSource.getDataSourceIndex("9999"));
+    }
+
+    @Test
+    public void runWithDataSourceTest() {
+        TransactionRoutingDataSource dataSource = new TransactionRoutingDataSource(3, 5000);
+        Assertions.assertEquals(0, dataSource.getCurrentDataSourceIndex());
+
+        int nestedDataSourceIndex = dataSource.runWithDataSource(1, () -> {
+            Assertions.assertEquals(1, dataSource.getCurrentDataSourceIndex());
+            int dataSourceIndex = dataSource.runWithDataSource(2, dataSource::getCurrentDataSourceIndex);
+            Assertions.assertEquals(1, dataSource.getCurrentDataSourceIndex());
+            return dataSourceIndex;
+        });
+
+        Assertions.assertEquals(2, nestedDataSourceIndex);
+        Assertions.assertEquals(0, dataSource.getCurrentDataSourceIndex());
+        Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> dataSource.runWithDataSource(1, () -> {
+                    throw new IllegalStateException();
+                })
+        );
+        Assertions.assertEquals(0, dataSource.getCurrentDataSourceIndex());
+    }
+
+    @Test
+    public void runWithReplicaTest() {
+        TransactionRoutingDataSource dataSource =
+                new TransactionRoutingDataSource(2, 5000, Collections.singleton(1));
+        Assertions.assertTrue(dataSource.hasReplicas());
+        Assertions.assertEquals(0, dataSource.determineCurrentLookupKey());
+
+        // Instance 0 has no replica, so its reads stay on the instance.
+        Assertions.assertEquals(0, dataSource.runWithReplica(dataSource::determineCurrentLookupKey));
+        Assertions.assertEquals(
+                TransactionRoutingDataSource.getReplicaLookupKey(1),
+                dataSource.runWithReplica(() ->
+                        dataSource.runWithDataSource(1, dataSource::determineCurrentLookupKey)
+                )
+        );
+        Assertions.assertEquals(
+                1,
+                dataSource.runWithReplica(() -> dataSource.runWithPrimary(() ->
+                        dataSource.runWithDataSource(1, dataSource::determineCurrentLookupKey)
+                ))
+        );
+        Assertions.assertEquals(1, dataSource.runWithDataSource(1, dataSource::determineCurrentLookupKey));
+    }
+}
@@ -0,0 +1,208 @@
+package com.oliver.accountBackend.shard;
+
+import com.oliver.Synpulse8BackendApplication;
+import com.oliver.accountBackend.domain.AccountShard;
+import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.manager.AccountTransactionManager;
+import com.oliver.accountBackend.mapper.AccountShardMapper;
+import com.oliver.accountBackend.mapper.TransactionMapper;
+import com.oliver.faker.TransactionFaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Collections;
+
+@SpringBootTest(classes = Synpulse8BackendApplication.class)
+@ActiveProfiles("test")
+public class TransactionShardRebalancerTest {
+    @Autowired
+    private TransactionShardRebalancer transactionShardRebalancer;
+
+    @Autowired
+    private TransactionShardRouter transactionShardRouter;
+
+    @Autowired
+    private TransactionTableRegistry transactionTableRegistry;
+
+    @Autowired
+    private AccountTransactionManager accountTransactionManager;
+
+    @Autowired
+    private AccountShardMapper accountShardMapper;
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    private final String TABLE_NAME_SUFFIX = "33";
+
+    private final String TARGET_TABLE_NAME_SUFFIX = "34";
+
+    private final String UNPARTITIONED_TABLE_NAME_SUFFIX = "39";
+
+    private final String PARTITIONED_TABLE_NAME_SUFFIX = "40";
+
+    @AfterEach
+    public void tearDown() {
+        accountShardMapper.removeAllAccountShardsFromDB();
+        transactionMapper.dropTransactionTable(TABLE_NAME_SUFFIX);
+        transactionMapper.dropTransactionTable(TARGET_TABLE_NAME_SUFFIX);
+        transactionMapper.dropTransactionTable(UNPARTITIONED_TABLE_NAME_SUFFIX);
+        transactionMapper.dropTransactionTable(PARTITIONED_TABLE_NAME_SUFFIX);
+    }
+
+    private Transaction createTransactionWithoutValueDate() {
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        return new Transaction(
+                transaction.getTransactionId(),
+                transaction.getAmount(),
+                transaction.getAccountIban(),
+                null,
+                transaction.getDescription()
+        );
+    }
+
+    @Test
+    public void moveAccountTest() throws InterruptedException {
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        String iban = transaction.getAccountIban();
+
+        transactionTableRegistry.ensureTableCreated(TABLE_NAME_SUFFIX);
+        transactionMapper.saveTransaction(transaction, TABLE_NAME_SUFFIX);
+        transactionMapper.saveTransaction(
+                TransactionFaker.createTransactionWithSameIBAN(transaction),
+                TABLE_NAME_SUFFIX
+        );
+        Transaction otherTransaction = TransactionFaker.createValidTransaction();
+        transactionMapper.saveTransaction(otherTransaction, TABLE_NAME_SUFFIX);
+
+        accountShardMapper.saveAccountShard(
+                new AccountShard(iban, TABLE_NAME_SUFFIX, null, false)
+        );
+        transactionShardRouter.invalidate(iban);
+        Assertions.assertEquals(
+                TABLE_NAME_SUFFIX,
+                accountTransactionManager.getTransactionTableNameSuffix(iban)
+        );
+
+        transactionShardRebalancer.moveAccount(iban, TARGET_TABLE_NAME_SUFFIX);
+
+        Assertions.assertEquals(
+                2,
+                transactionMapper.getTransactionsOfAccount(iban, null, 10, TARGET_TABLE_NAME_SUFFIX).size()
+        );
+        Assertions.assertEquals(
+                0,
+                transactionMapper.getTransactionsOfAccount(iban, null, 10, TABLE_NAME_SUFFIX).size()
+        );
+        Assertions.assertNotNull(
+                transactionMapper.getTransactionByTransactionId(
+                        otherTransaction.getTransactionId(),
+                        TABLE_NAME_SUFFIX
+                )
+        );
+
+        AccountShard accountShard = transactionShardRouter.getAccountShard(iban);
+        Assertions.assertFalse(accountShard.isMoving());
+        Assertions.assertFalse(accountShard.isPinned());
+        Assertions.assertEquals(
+                Collections.singletonList(TARGET_TABLE_NAME_SUFFIX),
+                accountTransactionManager.getTransactionTableNameSuffixes(iban)
+        );
+    }
+
+    @Test
+    public void moveAccountWithoutValueDateTest() {
+        Transaction transaction = createTransactionWithoutValueDate();
+        String iban = transaction.getAccountIban();
+
+        transactionMapper.createTransactionTable(UNPARTITIONED_TABLE_NAME_SUFFIX);
+        transactionMapper.saveTransaction(transaction, UNPARTITIONED_TABLE_NAME_SUFFIX);
+        accountShardMapper.saveAccountShard(
+                new AccountShard(iban, UNPARTITIONED_TABLE_NAME_SUFFIX, null, false)
+        );
+        transactionShardRouter.invalidate(iban);
+
+        // A partitioned table cannot hold transactions without value date.
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> transactionShardRebalancer.moveAccount(iban, PARTITIONED_TABLE_NAME_SUFFIX)
+        );
+        Assertions.assertTrue(transactionTableRegistry.isPartitioned(PARTITIONED_TABLE_NAME_SUFFIX));
+        Assertions.assertFalse(accountShardMapper.getAccountShardByIban(iban).isMoving());
+        Assertions.assertEquals(
+                Collections.singletonList(UNPARTITIONED_TABLE_NAME_SUFFIX),
+                accountTransactionManager.getTransactionTableNameSuffixes(iban)
+        );
+    }
+
+    @Test
+    public void resumeMoveWithoutValueDateTest() throws InterruptedException {
+        Transaction transaction = createTransactionWithoutValueDate();
+        String iban = transaction.getAccountIban();
+        Transaction transactionSavedWhileMoving =
+                TransactionFaker.createTransactionWithSameIBAN(transaction);
+
+        // A move started before moves to partitioned tables were checked.
+        transactionMapper.createTransactionTable(UNPARTITIONED_TABLE_NAME_SUFFIX);
+        transactionTableRegistry.ensureTableCreated(PARTITIONED_TABLE_NAME_SUFFIX);
+        transactionMapper.saveTransaction(transaction, UNPARTITIONED_TABLE_NAME_SUFFIX);
+        transactionMapper.saveTransaction(transactionSavedWhileMoving, PARTITIONED_TABLE_NAME_SUFFIX);
+        accountShardMapper.saveAccountShard(
+                new AccountShard(iban, PARTITIONED_TABLE_NAME_SUFFIX, UNPARTITIONED_TABLE_NAME_SUFFIX, false)
+        );
+        transactionShardRouter.invalidate(iban);
+
+        // The move is reversed instead of failing on every run.
+        transactionShardRebalancer.moveAccount(iban, PARTITIONED_TABLE_NAME_SUFFIX);
+
+        Assertions.assertEquals(
+                2,
+                transactionMapper.getTransactionsOfAccount(iban, null, 10, UNPARTITIONED_TABLE_NAME_SUFFIX).size()
+        );
+        Assertions.assertEquals(
+                0,
+                transactionMapper.getTransactionsOfAccount(iban, null, 10, PARTITIONED_TABLE_NAME_SUFFIX).size()
+        );
+        Assertions.assertFalse(transactionShardRouter.getAccountShard(iban).isMoving());
+        Assertions.assertEquals(
+                Collections.singletonList(UNPARTITIONED_TABLE_NAME_SUFFIX),
+                accountTransactionManager.getTransactionTableNameSuffixes(iban)
+        );
+    }
+
+    @Test
+    public void assignTableNameSuffixTest() {
+        String iban = TransactionFaker.createValidTransaction().getAccountIban();
+        String tableNameSuffix = transactionShardRouter.assignTableNameSuffix(iban);
+
+        Assertions.assertEquals(
+                transactionShardRouter.getTargetTableNameSuffix(iban),
+                tableNameSuffix
+        );
+        Assertions.assertEquals(tableNameSuffix, transactionShardRouter.getTableNameSuffix(iban));
+        Assertions.assertEquals(
+                tableNameSuffix,
+                accountShardMapper.getAccountShardByIban(iban).getTableNameSuffix()
+        );
+    }
+
+    @Test
+    public void assignTableNameSuffixKeepsExistingShardTest() {
+        String iban = TransactionFaker.createValidTransaction().getAccountIban();
+        accountShardMapper.saveAccountShard(
+                new AccountShard(iban, TABLE_NAME_SUFFIX, null, true)
+        );
+
+        Assertions.assertEquals(TABLE_NAME_SUFFIX, transactionShardRouter.assignTableNameSuffix(iban));
+        Assertions.assertEquals(
+                0,
+                accountShardMapper.saveAccountShard(
+                        new AccountShard(iban, TARGET_TABLE_NAME_SUFFIX, null, false)
+                )
+        );
+    }
+}
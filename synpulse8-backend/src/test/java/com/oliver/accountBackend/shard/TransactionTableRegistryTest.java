@@ -0,0 +1,97 @@
+package com.oliver.accountBackend.shard;
+
+import com.oliver.Synpulse8BackendApplication;
+import com.oliver.accountBackend.domain.Transaction;
+import com.oliver.accountBackend.mapper.TransactionMapper;
+import com.oliver.faker.TransactionFaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(classes = Synpulse8BackendApplication.class)
+@ActiveProfiles("test")
+public class TransactionTableRegistryTest {
+    @Autowired
+    private TransactionTableRegistry transactionTableRegistry;
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final String TABLE_NAME_SUFFIX = "31";
+
+    private final String CREATED_IN_TRANSACTION_TABLE_NAME_SUFFIX = "37";
+
+    @AfterEach
+    public void tearDown() {
+        transactionMapper.dropTransactionTable(TABLE_NAME_SUFFIX);
+        transactionMapper.dropTransactionTable(CREATED_IN_TRANSACTION_TABLE_NAME_SUFFIX);
+    }
+
+    @Test
+    public void ensureTableCreatedTest() {
+        transactionMapper.dropTransactionTable(TABLE_NAME_SUFFIX);
+        transactionTableRegistry.ensureTableCreated(TABLE_NAME_SUFFIX);
+
+        Assertions.assertTrue(
+                transactionMapper
+                        .getTransactionTableNameSuffixes()
+                        .contains(TABLE_NAME_SUFFIX)
+        );
+    }
+
+    @Test
+    public void ensureTableCreatedInTransactionTest() {
+        transactionTableRegistry.ensureTableCreated(TABLE_NAME_SUFFIX);
+        transactionMapper.dropTransactionTable(CREATED_IN_TRANSACTION_TABLE_NAME_SUFFIX);
+
+        // Creating a table must not commit the open db transaction.
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        new TransactionTemplate(transactionManager).execute(status -> {
+            transactionMapper.saveTransaction(transaction, TABLE_NAME_SUFFIX);
+            transactionTableRegistry.ensureTableCreated(CREATED_IN_TRANSACTION_TABLE_NAME_SUFFIX);
+            status.setRollbackOnly();
+            return null;
+        });
+
+        Assertions.assertTrue(
+                transactionMapper
+                        .getTransactionTableNameSuffixes()
+                        .contains(CREATED_IN_TRANSACTION_TABLE_NAME_SUFFIX)
+        );
+        Assertions.assertNull(
+                transactionMapper.getTransactionByTransactionId(
+                        transaction.getTransactionId(),
+                        TABLE_NAME_SUFFIX
+                )
+        );
+    }
+
+    @Test
+    public void runWithDroppedTableTest() {
+        transactionTableRegistry.ensureTableCreated(TABLE_NAME_SUFFIX);
+        transactionMapper.dropTransactionTable(TABLE_NAME_SUFFIX);
+
+        Transaction transaction = TransactionFaker.createValidTransaction();
+        boolean isSaved = transactionTableRegistry.runWithTable(
+                TABLE_NAME_SUFFIX,
+                () -> transactionMapper.saveTransaction(transaction, TABLE_NAME_SUFFIX)
+        );
+
+        Assertions.assertTrue(isSaved);
+        Assertions.assertEquals(
+                transaction,
+                transactionMapper.getTransactionByTransactionId(
+                        transaction.getTransactionId(),
+                        TABLE_NAME_SUFFIX
+                )
+        );
+    }
+}
@@ -1,6 +1,7 @@
 package com.oliver.apiGateway;
 
 import com.oliver.Synpulse8BackendApplication;
+import com.oliver.apiGateway.codec.LoginUserCodec;
 import com.oliver.apiGateway.service.UserService;
 import com.oliver.exceptions.ConflictException;
 import com.oliver.exceptions.ValidationException;
@@ -11,7 +12,6 @@ import com.oliver.tenancy.mapper.*;
 import com.oliver.util.JWTUtil;
 import com.oliver.response.ResponseResult;
 import com.oliver.response.StatusCode;
-import com.oliver.util.redis.RedisCache;
 import com.oliver.util.redis.RedisKeyCreator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -19,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.ActiveProfiles;
@@ -52,7 +53,7 @@ public class AuthTest {
     private SystemMenuMapper systemMenuMapper;
 
     @Autowired
-    private RedisCache redisCache;
+    private RedisTemplate<String, byte[]> sessionRedisTemplate;
 
     @Autowired
     private UserService userService;
@@ -163,7 +164,11 @@ public class AuthTest {
 
         String loginUserRedisKey =
                 RedisKeyCreator.createLoginUserKey(newUser.getId().toString());
-        Assertions.assertTrue(redisCache.deleteObject(loginUserRedisKey));
+        Assertions.assertEquals(
+                newUser.getUsername(),
+                LoginUserCodec.decode(sessionRedisTemplate.opsForValue().get(loginUserRedisKey)).getUsername()
+        );
+        Assertions.assertTrue(sessionRedisTemplate.delete(loginUserRedisKey));
     }
 
     @Test
@@ -199,7 +204,7 @@ public class AuthTest {
 
         String loginUserRedisKey =
                 RedisKeyCreator.createLoginUserKey(newUser.getId().toString());
-        Assertions.assertFalse(redisCache.deleteObject(loginUserRedisKey));
+        Assertions.assertFalse(sessionRedisTemplate.delete(loginUserRedisKey));
     }
 
     @Test
@@ -235,7 +240,7 @@ public class AuthTest {
 
         String loginUserRedisKey =
                 RedisKeyCreator.createLoginUserKey(newUser.getId().toString());
-        Assertions.assertFalse(redisCache.deleteObject(loginUserRedisKey));
+        Assertions.assertFalse(sessionRedisTemplate.delete(loginUserRedisKey));
     }
 
     @Test
@@ -285,7 +290,7 @@ public class AuthTest {
 
         String loginUserRedisKey =
                 RedisKeyCreator.createLoginUserKey(newUser.getId().toString());
-        Assertions.assertFalse(redisCache.deleteObject(loginUserRedisKey));
+        Assertions.assertFalse(sessionRedisTemplate.delete(loginUserRedisKey));
     }
 
     @Test
@@ -0,0 +1,60 @@
+package com.oliver.apiGateway.cache;
+
+import com.oliver.Synpulse8BackendApplication;
+import com.oliver.apiGateway.domain.LoginUser;
+import com.oliver.faker.UserFaker;
+import com.oliver.util.redis.RedisCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Collections;
+
+@SpringBootTest(classes = Synpulse8BackendApplication.class)
+@ActiveProfiles("test")
+public class SessionCacheTest {
+    @Autowired
+    private SessionCache sessionCache;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Test
+    public void getSessionTest() {
+        LoginUser loginUser = new LoginUser(UserFaker.createValidUser(), Collections.emptyList());
+        sessionCache.put("session-user", "jwt", loginUser, sessionCache.getGeneration("session-user"));
+
+        Assertions.assertSame(loginUser, sessionCache.get("session-user", "jwt"));
+        Assertions.assertNull(sessionCache.get("session-user", "another-jwt"));
+
+        sessionCache.invalidate("session-user");
+        Assertions.assertNull(sessionCache.get("session-user", "jwt"));
+    }
+
+    @Test
+    public void putInvalidatedSessionTest() {
+        LoginUser loginUser = new LoginUser(UserFaker.createValidUser(), Collections.emptyList());
+
+        // The session was read from redis before the user logged out.
+        long generation = sessionCache.getGeneration("stale-user");
+        sessionCache.invalidate("stale-user");
+        sessionCache.put("stale-user", "jwt", loginUser, generation);
+
+        Assertions.assertNull(sessionCache.get("stale-user", "jwt"));
+    }
+
+    @Test
+    public void invalidateFromAnotherInstanceTest() throws InterruptedException {
+        LoginUser loginUser = new LoginUser(UserFaker.createValidUser(), Collections.emptyList());
+        sessionCache.put("published-user", "jwt", loginUser, sessionCache.getGeneration("published-user"));
+
+        redisCache.publish(SessionCache.INVALIDATION_CHANNEL, "published-user");
+        for (int i = 0; i < 50 && sessionCache.get("published-user", "jwt") != null; i++) {
+            Thread.sleep(100);
+        }
+
+        Assertions.assertNull(sessionCache.get("published-user", "jwt"));
+    }
+}
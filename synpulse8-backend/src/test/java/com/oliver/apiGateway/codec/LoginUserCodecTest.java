@@ -0,0 +1,91 @@
+package com.oliver.apiGateway.codec;
+
+import com.oliver.apiGateway.domain.LoginUser;
+import com.oliver.faker.UserFaker;
+import com.oliver.tenancy.domain.SystemMenu;
+import com.oliver.tenancy.domain.User;
+import com.oliver.util.SystemMenuResourceStringCreator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class LoginUserCodecTest {
+    private LoginUser createLoginUser(int accountsCount) {
+        User user = UserFaker.createValidUser();
+        List<SystemMenu> systemMenus = new ArrayList<>();
+        systemMenus.add(
+                new SystemMenu(SystemMenu.Permission.GRANT, SystemMenuResourceStringCreator.getAccountResourceString())
+        );
+        for (int i = 0; i < accountsCount; i++) {
+            systemMenus.add(
+                    new SystemMenu(
+                            SystemMenu.Permission.GRANT,
+                            SystemMenuResourceStringCreator.getAccountInformationResourceString("CH93-0000-0000-" + i)
+                    )
+            );
+        }
+
+        return new LoginUser(
+                new User(1, user.getUsername(), user.getPassword(), user.getType()),
+                systemMenus
+        );
+    }
+
+    @Test
+    public void roundTripTest() {
+        LoginUser loginUser = createLoginUser(20);
+        LoginUser decodedLoginUser = LoginUserCodec.decode(LoginUserCodec.encode(loginUser));
+
+        Assertions.assertEquals(loginUser.getUser().getId(), decodedLoginUser.getUser().getId());
+        Assertions.assertEquals(loginUser.getUsername(), decodedLoginUser.getUsername());
+        Assertions.assertEquals(loginUser.getUser().getType(), decodedLoginUser.getUser().getType());
+        Assertions.assertNull(decodedLoginUser.getUser().getPassword());
+
+        Assertions.assertEquals(loginUser.getAuthorities().size(), decodedLoginUser.getAuthorities().size());
+        Assertions.assertTrue(decodedLoginUser.hasResource(SystemMenuResourceStringCreator.getAccountResourceString()));
+        Assertions.assertTrue(
+                decodedLoginUser.hasResource(
+                        SystemMenuResourceStringCreator.getAccountInformationResourceString("CH93-0000-0000-19")
+                )
+        );
+        Assertions.assertFalse(
+                decodedLoginUser.hasResource(
+                        SystemMenuResourceStringCreator.getAccountInformationResourceString("CH93-0000-0000-20")
+                )
+        );
+    }
+
+    @Test
+    public void encodedIsSmallerThanSerializedTest() throws IOException {
+        LoginUser loginUser = createLoginUser(100);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(loginUser);
+        }
+
+        Assertions.assertTrue(LoginUserCodec.encode(loginUser).length < bytes.size() / 2);
+    }
+
+    @Test
+    public void decodeInvalidDataTest() {
+        byte[] data = LoginUserCodec.encode(createLoginUser(2));
+
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> LoginUserCodec.decode(Arrays.copyOf(data, data.length - 1))
+        );
+
+        data[0] = LoginUserCodec.VERSION + 1;
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> LoginUserCodec.decode(data)
+        );
+    }
+}
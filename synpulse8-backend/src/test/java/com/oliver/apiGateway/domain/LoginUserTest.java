@@ -0,0 +1,55 @@
+package com.oliver.apiGateway.domain;
+
+import com.oliver.faker.UserFaker;
+import com.oliver.tenancy.domain.SystemMenu;
+import com.oliver.util.SystemMenuResourceStringCreator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+public class LoginUserTest {
+    private final String accountResource =
+            SystemMenuResourceStringCreator.getAccountInformationResourceString("iban");
+
+    private LoginUser createLoginUser() {
+        return new LoginUser(
+                UserFaker.createValidUser(),
+                Arrays.asList(
+                        new SystemMenu(SystemMenu.Permission.GRANT, SystemMenuResourceStringCreator.getAccountResourceString()),
+                        new SystemMenu(SystemMenu.Permission.GRANT, accountResource)
+                )
+        );
+    }
+
+    @Test
+    public void hasResourceTest() {
+        LoginUser loginUser = createLoginUser();
+
+        Assertions.assertTrue(loginUser.hasResource(accountResource));
+        Assertions.assertTrue(loginUser.hasResource(SystemMenuResourceStringCreator.getAccountResourceString()));
+        Assertions.assertFalse(
+                loginUser.hasResource(SystemMenuResourceStringCreator.getAccountInformationResourceString("another-iban"))
+        );
+    }
+
+    @Test
+    public void hasResourceAfterDeserializationTest() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(createLoginUser());
+        }
+
+        LoginUser loginUser;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            loginUser = (LoginUser) in.readObject();
+        }
+
+        Assertions.assertTrue(loginUser.hasResource(accountResource));
+    }
+}